@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Compara throughput y latencia con hilos de plataforma y con hilos virtuales (perfil "virtual").
+# Levanta la aplicacion dos veces con los mismos datos sinteticos (perfil "datagen") y el mismo pool de
+# conexiones, y corre LoadDriver con concurrencias crecientes. Los resultados quedan en target/load/.
+#
+# Uso: scripts/compare-virtual-threads.sh
+# Variables: STORES, PRODUCTS, POOL (conexiones Hikari), CONCURRENCY (lista), DURATION, MIX, HEAP
+set -euo pipefail
+
+STORES=${STORES:-50}
+PRODUCTS=${PRODUCTS:-20000}
+POOL=${POOL:-32}
+CONCURRENCY=${CONCURRENCY:-"50 200 800 2000"}
+DURATION=${DURATION:-PT60S}
+MIX=${MIX:-page=60,central=20,update=15,adjust=5}
+HEAP=${HEAP:-4g}
+PORT=${PORT:-8080}
+OUT=target/load
+
+cd "$(dirname "$0")/.."
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+if [ "${JAVA_MAJOR:-0}" -lt 21 ]; then
+    echo "Se necesita Java 21 o superior (hilos virtuales y release del pom); java en el PATH es ${JAVA_MAJOR:-desconocido}" >&2
+    exit 1
+fi
+mkdir -p "$OUT"
+mvn -q -DskipTests package
+mvn -q -Pbenchmark test-compile
+JAR=$(ls target/inventory-*.jar | grep -v original | head -1)
+
+run_mode() {
+    local mode=$1 profiles=$2 jvm_args=$3
+    echo "== Modo $mode"
+    java -Xmx"$HEAP" $jvm_args -jar "$JAR" \
+        --spring.profiles.active="$profiles" \
+        --server.port="$PORT" \
+        --inventory.datagen.stores="$STORES" \
+        --inventory.datagen.products-per-store="$PRODUCTS" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL" \
+        --spring.kafka.listener.auto-startup=false \
+        --inventory.metrics.store-tag=false \
+        > "$OUT/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    # readiness: la aplicacion termino de arrancar (datos sinteticos incluidos) sin depender de Kafka ni Redis
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "La aplicacion no arranco, ver $OUT/$mode-app.log" >&2
+            exit 1
+        fi
+        sleep 2
+    done
+    for c in $CONCURRENCY; do
+        echo "-- $mode, $c workers"
+        mvn -q -Pbenchmark exec:exec \
+            -Dbenchmark.main=com.electrostore.inventory.benchmark.LoadDriver \
+            -Dbenchmark.args="--url=http://localhost:$PORT --concurrency=$c --duration=$DURATION --warmup=PT15S --stores=$STORES --products-per-store=$PRODUCTS --mix=$MIX" \
+            | tee "$OUT/$mode-c$c.txt"
+    done
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform datagen ""
+# jdk.tracePinnedThreads deja en el log las trazas de hilos virtuales fijados a su portador
+run_mode virtual datagen,virtual "-Djdk.tracePinnedThreads=short"
+
+echo
+echo "Resumen (fila total de cada corrida):"
+for f in "$OUT"/*-c*.txt; do
+    printf '%-28s %s\n' "$(basename "$f" .txt)" "$(grep '^total' "$f")"
+done
+if grep -q "pinned\|<== monitors" "$OUT/virtual-app.log"; then
+    echo "Atencion: se detectaron hilos virtuales fijados, ver $OUT/virtual-app.log"
+fi
@@ -0,0 +1,58 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.electrostore.inventory.InventoryApplication;
+import com.electrostore.inventory.service.CentralStockAggregate;
+import com.electrostore.inventory.service.SyntheticDataGenerator;
+
+/**
+ * Arranque de la aplicacion para benchmarks: H2 en memoria propio, sin consumidores Kafka, jobs
+ * periodicos diferidos y logs de la aplicacion en WARN (el log INFO por operacion dominaria la medicion).
+ * Los datos sinteticos los genera SyntheticDataGenerator, con los mismos productos en todas las sucursales.
+ */
+final class BenchmarkSupport {
+    static final long FIRST_STORE_ID = SyntheticDataGenerator.FIRST_STORE_ID;
+    static final long FIRST_PRODUCT_ID = SyntheticDataGenerator.FIRST_PRODUCT_ID;
+    static final String[] CATEGORIES = SyntheticDataGenerator.CATEGORIES;
+
+    private BenchmarkSupport() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... extraArgs) {
+        return startOn(name, "jdbc:h2:mem:" + name, extraArgs);
+    }
+
+    /**
+     * Igual que start pero sobre la base indicada (p.ej. un H2 en archivo que persiste entre arranques).
+     */
+    static ConfigurableApplicationContext startOn(String name, String datasourceUrl, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=" + datasourceUrl,
+            "--server.port=0",
+            "--spring.kafka.listener.auto-startup=false",
+            "--inventory.outbox.poll-interval=PT24H",
+            "--inventory.central.reconcile.interval=PT24H",
+            "--inventory.retry.poll-interval=PT24H",
+            "--inventory.retry.log-path=target/benchmark/" + name + "-retry.log",
+            "--logging.file.name=",
+            "--logging.level.com.electrostore=WARN",
+            "--logging.level.org.hibernate=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(InventoryApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Inserta stores sucursales con productsPerStore productos cada una (todos en todas las sucursales)
+     * y reconstruye el stock central.
+     */
+    static void populate(ConfigurableApplicationContext context, int stores, int productsPerStore) {
+        new SyntheticDataGenerator(context.getBean(JdbcTemplate.class), stores, productsPerStore, 1.0, 5_000, 42).generate();
+        context.getBean(CentralStockAggregate.class).rebuild();
+    }
+}
@@ -0,0 +1,80 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.service.InventoryService;
+
+/**
+ * Stock central: un producto (agregado en memoria) y consultas de varios productos, con y sin
+ * desglose por sucursal (consultas agregadas en H2).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CentralStockBenchmark {
+    @Param({"20"})
+    public int stores;
+
+    @Param({"5000"})
+    public int productsPerStore;
+
+    @Param({"100"})
+    public int productsPerQuery;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("central-bench");
+        BenchmarkSupport.populate(context, stores, productsPerStore);
+        inventoryService = context.getBean(InventoryService.class);
+        productIds = new ArrayList<>(productsPerQuery);
+        for (int i = 0; i < productsPerQuery; i++) {
+            productIds.add(BenchmarkSupport.FIRST_PRODUCT_ID + (long) i * productsPerStore / productsPerQuery);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleProduct() {
+        return inventoryService.getCentralStock(BenchmarkSupport.FIRST_PRODUCT_ID + ThreadLocalRandom.current().nextInt(productsPerStore));
+    }
+
+    @Benchmark
+    public List<CentralStockDTO> multipleProducts() {
+        return inventoryService.getCentralStock(productIds, false);
+    }
+
+    @Benchmark
+    public List<CentralStockDTO> multipleProductsByStore() {
+        return inventoryService.getCentralStock(productIds, true);
+    }
+}
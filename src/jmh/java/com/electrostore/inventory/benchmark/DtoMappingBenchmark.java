@@ -0,0 +1,65 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.repository.ProductStoreView;
+import com.electrostore.inventory.service.StoreInventoryLoader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Mapeo de filas de inventario a ProductDTO (StoreInventoryLoader) y serializacion con Jackson de la
+ * lista resultante, tal como la devuelve GET /inventory/{storeId}. No usa base ni contexto Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private final StoreInventoryLoader loader = new StoreInventoryLoader(null);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<ProductStoreView> rows;
+    private List<ProductDTO> products;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long productId = BenchmarkSupport.FIRST_PRODUCT_ID + i;
+            rows.add(new ProductStoreView(productId, "Producto " + productId,
+                BenchmarkSupport.CATEGORIES[i % BenchmarkSupport.CATEGORIES.length], i % 200,
+                BenchmarkSupport.FIRST_STORE_ID, "Sucursal Benchmark", "Av. Principal 123"));
+        }
+        products = loader.toProductDTOs(rows);
+    }
+
+    @Benchmark
+    public List<ProductDTO> toProductDTOs() {
+        return loader.toProductDTOs(rows);
+    }
+
+    @Benchmark
+    public byte[] serializeProductList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,85 @@
+package com.electrostore.inventory.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.electrostore.inventory.events.InventoryAction;
+import com.electrostore.inventory.events.InventoryEventDeserializer;
+import com.electrostore.inventory.events.InventoryEventMessage;
+import com.electrostore.inventory.events.InventoryEventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Costo por evento del formato binario de inventory-events (escritura y lectura) contra el texto libre que se
+ * publicaba antes y contra JSON con Jackson como referencia. El tamano de cada formato lo fija
+ * InventoryEventSerializerTests; aca solo se mide el tiempo.
+ * "typical" son ids y cantidades chicas y secuencia/timestamp actuales; "large" usa ids y deltas de varios bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryEventSerializerBenchmark {
+    private static final String TOPIC = "inventory-events";
+
+    @Param({"typical", "large"})
+    public String shape;
+
+    private final InventoryEventSerializer serializer = new InventoryEventSerializer();
+    private final InventoryEventDeserializer deserializer = new InventoryEventDeserializer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private InventoryEventMessage event;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        event = "large".equals(shape)
+            ? new InventoryEventMessage(System.currentTimeMillis(), 9_876_543_210L, System.currentTimeMillis(), InventoryAction.ADJUST_STOCK,
+                4_000_000_123L, 70_001L, 1_250_000, -480_000)
+            : new InventoryEventMessage(System.currentTimeMillis(), 1_234_567L, System.currentTimeMillis(), InventoryAction.UPDATE_STOCK, 8L, 2L, 21, 1);
+        binary = serializer.serialize(TOPIC, event);
+        json = objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public InventoryEventMessage deserializeBinary() {
+        return deserializer.deserialize(TOPIC, binary);
+    }
+
+    // Formato de texto previo al binario (sin secuencia ni timestamp), codificado como lo hacia StringSerializer
+    @Benchmark
+    public byte[] serializeLegacyText() {
+        return (event.action() + ": producto=" + event.productId() + ", sucursal=" + event.storeId()
+            + ", cantidad=" + event.quantity() + ", delta=" + event.delta()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public InventoryEventMessage deserializeJson() throws Exception {
+        return objectMapper.readValue(json, InventoryEventMessage.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.service.InventoryIndex;
+import com.electrostore.inventory.service.InventoryService;
+
+/**
+ * InventoryService.getInventoryByStore y el stock central con el modelo de lectura en memoria activo
+ * (comparar con InventoryReadBenchmark y CentralStockBenchmark). Los datos se generan con el perfil datagen
+ * antes de que el modelo se cargue; al arrancar se imprime la memoria que ocupa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InventoryIndexBenchmark {
+    @Param({"100", "10000"})
+    public int productsPerStore;
+
+    @Param({"4"})
+    public int stores;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private Long storeId;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("index-bench",
+            "--spring.profiles.active=datagen",
+            "--inventory.datagen.stores=" + stores,
+            "--inventory.datagen.products-per-store=" + productsPerStore,
+            "--inventory.datagen.coverage=1.0",
+            "--inventory.read-model.enabled=true");
+        inventoryService = context.getBean(InventoryService.class);
+        InventoryIndex index = context.getBean(InventoryIndex.class);
+        System.out.printf("%n[READ MODEL] %d SKUs, %d bytes, %d bytes por SKU%n",
+            index.size(), index.memoryBytes(), index.memoryBytes() / Math.max(1, index.size()));
+        storeId = BenchmarkSupport.FIRST_STORE_ID;
+        productIds = LongStream.range(0, 100)
+            .mapToObj(i -> BenchmarkSupport.FIRST_PRODUCT_ID + i)
+            .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> inventoryByStore() {
+        return inventoryService.getInventoryByStore(storeId);
+    }
+
+    @Benchmark
+    public int centralStock() {
+        return inventoryService.getCentralStock(BenchmarkSupport.FIRST_PRODUCT_ID);
+    }
+
+    @Benchmark
+    public List<CentralStockDTO> centralStockByStore() {
+        return inventoryService.getCentralStock(productIds, true);
+    }
+}
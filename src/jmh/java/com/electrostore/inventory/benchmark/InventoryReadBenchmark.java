@@ -0,0 +1,73 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.service.InventoryCacheWriter;
+import com.electrostore.inventory.service.InventoryService;
+
+/**
+ * InventoryService.getInventoryByStore contra H2: en frio (se invalida el cache antes de cada llamada,
+ * incluye la consulta y el mapeo) y con la sucursal ya cacheada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryReadBenchmark {
+    @Param({"100", "10000"})
+    public int productsPerStore;
+
+    @Param({"4"})
+    public int stores;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private Cache cache;
+    private Long storeId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("read-bench");
+        BenchmarkSupport.populate(context, stores, productsPerStore);
+        inventoryService = context.getBean(InventoryService.class);
+        cache = context.getBean(CacheManager.class).getCache(InventoryCacheWriter.CACHE_NAME);
+        storeId = BenchmarkSupport.FIRST_STORE_ID;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> cold() {
+        cache.evict(storeId);
+        return inventoryService.getInventoryByStore(storeId);
+    }
+
+    @Benchmark
+    public List<ProductDTO> cached() {
+        return inventoryService.getInventoryByStore(storeId);
+    }
+}
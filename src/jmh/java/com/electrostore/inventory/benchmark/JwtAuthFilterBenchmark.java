@@ -0,0 +1,97 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import com.electrostore.inventory.config.JwtAuthFilter;
+import com.electrostore.inventory.config.JwtUtil;
+
+/**
+ * Costo de autenticar una request con JWT en JwtAuthFilter.
+ * - legacy: el camino anterior (extraer usuario, cargar UserDetails y validar, dos verificaciones HMAC).
+ *   Usa el parser compartido actual de JwtUtil, asi que no incluye el costo de construir un parser por llamada.
+ * - singleParse: filtro actual con el cache deshabilitado (una verificacion por request).
+ * - cached: filtro actual con el mismo token repetido (sin criptografia).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+    private JwtUtil jwtUtil;
+    private UserDetailsService userDetailsService;
+    private JwtAuthFilter cachedFilter;
+    private JwtAuthFilter uncachedFilter;
+    private String token;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        userDetailsService = new InMemoryUserDetailsManager(
+            User.withUsername("admin").password("{noop}adminpass").roles("ADMIN").build());
+        cachedFilter = new JwtAuthFilter(jwtUtil, 10_000);
+        uncachedFilter = new JwtAuthFilter(jwtUtil, 0);
+        token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public Authentication legacy() {
+        MockHttpServletRequest request = request();
+        String username = jwtUtil.getUsername(token);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtUtil.validateToken(token)) {
+            return null;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(detailsSource.buildDetails(request));
+        return authToken;
+    }
+
+    @Benchmark
+    public Authentication singleParse() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Authentication cached() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    private Authentication filter(JwtAuthFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // Request nueva por invocacion: OncePerRequestFilter marca la request como ya filtrada
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,309 @@
+package com.electrostore.inventory.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.electrostore.inventory.service.SyntheticDataGenerator;
+
+/**
+ * Generador de carga HTTP contra la API REST, pensado para correr contra una instancia levantada con el
+ * perfil "datagen". Cada worker ejecuta una mezcla ponderada de operaciones de lectura y escritura y al
+ * final se informan throughput y percentiles de latencia por operacion (latencias exactas, sin muestreo).
+ * Sin --rate cada worker espera la respuesta antes de la siguiente peticion (lazo cerrado); con --rate las
+ * peticiones se programan a ritmo fijo y la latencia se mide desde el instante programado, para que una
+ * pausa del servidor no quede oculta (coordinated omission).
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.electrostore.inventory.benchmark.LoadDriver \
+ *     -Dbenchmark.args="--concurrency=32 --duration=PT60S --mix=page=60,central=20,update=15,adjust=5"
+ * </pre>
+ */
+public final class LoadDriver {
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final long[] EMPTY = new long[0];
+
+    private final HttpClient client;
+    private final Options options;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private String authorization;
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(2, options.concurrency / 4)))
+            .build();
+        this.operations = options.mix.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadDriver driver = new LoadDriver(options);
+        driver.login();
+        System.out.printf("Calentamiento %s con %d workers...%n", options.warmup, options.concurrency);
+        driver.run(options.warmup);
+        System.out.printf("Midiendo %s con %d workers contra %s%n", options.duration, options.concurrency, options.url);
+        long start = System.nanoTime();
+        List<Worker> workers = driver.run(options.duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(driver.operations, workers, seconds);
+        System.exit(0);
+    }
+
+    private void login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.url + "/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"" + options.username + "\",\"password\":\"" + options.password + "\"}"))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login fallido (" + response.statusCode() + "): " + response.body());
+        }
+        authorization = "Bearer " + matcher.group(1);
+    }
+
+    private List<Worker> run(Duration duration) throws Exception {
+        if (duration.isZero()) {
+            return List.of();
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        // Un hilo virtual por worker: miles de workers no cuestan miles de hilos de plataforma
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        List<Worker> workers = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < options.concurrency; i++) {
+            Worker worker = new Worker(operations.length);
+            workers.add(worker);
+            futures.add(pool.submit(() -> worker.run(deadline)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        return workers;
+    }
+
+    private int pickOperation(ThreadLocalRandom random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (r < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private HttpRequest buildRequest(String operation, ThreadLocalRandom random) {
+        long storeId = SyntheticDataGenerator.FIRST_STORE_ID + random.nextInt(options.stores);
+        long productId = SyntheticDataGenerator.FIRST_PRODUCT_ID + random.nextInt(options.productsPerStore);
+        String base = options.url + "/inventory";
+        HttpRequest.Builder builder = switch (operation) {
+            case "page" -> HttpRequest.newBuilder(URI.create(base + "/" + storeId + "/products?limit=" + options.pageSize
+                + "&afterId=" + (productId - 1))).GET();
+            case "central" -> HttpRequest.newBuilder(URI.create(base + "/central/" + productId)).GET();
+            case "update" -> HttpRequest.newBuilder(URI.create(base + "/" + storeId + "/products/" + productId + "/stock"))
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":" + (1 + random.nextInt(200)) + "}"));
+            case "adjust" -> HttpRequest.newBuilder(URI.create(base + "/" + storeId + "/products/" + productId + "/stock/adjust"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"delta\":" + (random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(5)) + "}"));
+            default -> throw new IllegalArgumentException("Operacion desconocida: " + operation);
+        };
+        return builder.header("Authorization", authorization)
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    private static void report(String[] operations, List<Worker> workers, double seconds) {
+        System.out.printf("%n%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+            "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<long[]> all = new ArrayList<>();
+        long allErrors = 0;
+        for (int op = 0; op < operations.length; op++) {
+            List<long[]> samples = new ArrayList<>();
+            long errors = 0;
+            for (Worker worker : workers) {
+                samples.add(worker.latencies[op].toArray());
+                errors += worker.errors[op];
+            }
+            long[] merged = merge(samples);
+            all.add(merged);
+            allErrors += errors;
+            printRow(operations[op], merged, errors, seconds);
+        }
+        printRow("total", merge(all), allErrors, seconds);
+    }
+
+    private static void printRow(String name, long[] sorted, long errors, double seconds) {
+        System.out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, sorted.length, errors,
+            sorted.length / seconds, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+            percentile(sorted, 99.9), percentile(sorted, 100));
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = parts.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Hilo de carga: latencias en nanosegundos por operacion, solo de las respuestas correctas.
+     */
+    private final class Worker {
+        private final LongList[] latencies;
+        private final long[] errors;
+
+        Worker(int operationCount) {
+            this.latencies = new LongList[operationCount];
+            for (int i = 0; i < operationCount; i++) {
+                latencies[i] = new LongList();
+            }
+            this.errors = new long[operationCount];
+        }
+
+        void run(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long interval = options.rate > 0 ? (long) (1e9 * options.concurrency / options.rate) : 0;
+            long intended = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+            while (true) {
+                if (interval > 0) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                long start = interval > 0 ? intended : System.nanoTime();
+                if (start >= deadline) {
+                    return;
+                }
+                int op = pickOperation(random);
+                try {
+                    HttpResponse<Void> response = client.send(buildRequest(operations[op], random), HttpResponse.BodyHandlers.discarding());
+                    // 404 (la sucursal no tiene el producto, segun coverage) y 409 (stock insuficiente en un ajuste)
+                    // son respuestas validas del negocio
+                    int status = response.statusCode();
+                    if (status < 300 || status == 404 || status == 409) {
+                        latencies[op].add(System.nanoTime() - start);
+                    } else {
+                        errors[op]++;
+                    }
+                } catch (Exception ex) {
+                    errors[op]++;
+                    if (ex instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                intended += interval;
+            }
+        }
+    }
+
+    /**
+     * Lista de long sin boxing para guardar millones de latencias.
+     */
+    private static final class LongList {
+        private long[] values = EMPTY;
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(1024, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class Options {
+        String url = "http://localhost:8080";
+        String username = "admin";
+        String password = "adminpass";
+        int concurrency = 16;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        double rate;
+        int stores = 200;
+        int productsPerStore = 100_000;
+        int pageSize = 100;
+        Map<String, Integer> mix = new LinkedHashMap<>(Map.of("page", 60));
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Argumento invalido (se espera --clave=valor): " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+            Options options = new Options();
+            options.url = values.getOrDefault("url", options.url);
+            options.username = values.getOrDefault("username", options.username);
+            options.password = values.getOrDefault("password", options.password);
+            options.concurrency = Integer.parseInt(values.getOrDefault("concurrency", "16"));
+            options.duration = Duration.parse(values.getOrDefault("duration", "PT60S"));
+            options.warmup = Duration.parse(values.getOrDefault("warmup", "PT10S"));
+            options.rate = Double.parseDouble(values.getOrDefault("rate", "0"));
+            options.stores = Integer.parseInt(values.getOrDefault("stores", "200"));
+            options.productsPerStore = Integer.parseInt(values.getOrDefault("products-per-store", "100000"));
+            options.pageSize = Integer.parseInt(values.getOrDefault("page-size", "100"));
+            options.mix = parseMix(values.getOrDefault("mix", "page=60,central=20,update=15,adjust=5"));
+            return options;
+        }
+
+        private static Map<String, Integer> parseMix(String mix) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            for (String part : mix.split(",")) {
+                String[] kv = part.trim().split("=");
+                int weight = Integer.parseInt(kv[1]);
+                if (!List.of("page", "central", "update", "adjust").contains(kv[0]) || weight < 0) {
+                    throw new IllegalArgumentException("Mezcla invalida: " + part);
+                }
+                if (weight > 0) {
+                    weights.put(kv[0], weight);
+                }
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("La mezcla no tiene operaciones: " + mix);
+            }
+            return weights;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.electrostore.inventory.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.electrostore.inventory.config.JwtUtil;
+
+/**
+ * Tiempo desde que se levanta la aplicacion hasta que responde por HTTP la primera consulta de stock central, con la
+ * tabla de stock mapeada desactivada, reconstruida desde PRODUCT (cold) o reutilizada (warm). Cada fork es una JVM
+ * nueva que arranca una sola vez, asi la medicion incluye la carga de clases y el JIT en frio de un arranque real.
+ * La base es un H2 en archivo (target/benchmark/startup-*) que se crea y llena una vez y persiste entre forks; el
+ * fork de calentamiento la crea si falta y, en modo warm, deja el archivo de la tabla cerrado limpio para los demas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, warmups = 1, jvmArgsAppend = "-Xmx4g")
+public class StartupToFirstRequestBenchmark {
+    @Param({"20"})
+    public int stores;
+
+    @Param({"50000"})
+    public int productsPerStore;
+
+    @Param({"disabled", "cold", "warm"})
+    public String mappedStock;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String datasourceUrl;
+    private Path tableFile;
+    private int capacity;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dir = Path.of("target/benchmark/startup-" + stores + "x" + productsPerStore).toAbsolutePath();
+        datasourceUrl = "jdbc:h2:file:" + dir.resolve("db");
+        tableFile = dir.resolve("stock-table.bin");
+        capacity = Math.max(1024, stores * productsPerStore * 2);
+        if (!Files.exists(dir.resolve("db.mv.db"))) {
+            Files.createDirectories(dir);
+            ConfigurableApplicationContext setup = BenchmarkSupport.startOn("startup-setup", datasourceUrl, "--spring.sql.init.mode=always");
+            try {
+                BenchmarkSupport.populate(setup, stores, productsPerStore);
+            } finally {
+                setup.close();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareTable() throws IOException {
+        if ("cold".equals(mappedStock)) {
+            Files.deleteIfExists(tableFile);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        // Fuera de la medicion; el cierre ordenado deja la tabla lista para el arranque en caliente
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Benchmark
+    public int bootAndFirstRequest() throws Exception {
+        context = BenchmarkSupport.startOn("startup", datasourceUrl, "--spring.sql.init.mode=never",
+            "--inventory.mapped-stock.enabled=" + !"disabled".equals(mappedStock),
+            "--inventory.mapped-stock.path=" + tableFile,
+            "--inventory.mapped-stock.capacity=" + capacity);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtUtil.class).generateToken("admin", "ROLE_ADMIN");
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/inventory/central/" + BenchmarkSupport.FIRST_PRODUCT_ID))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Primera consulta con estado " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().length();
+    }
+}
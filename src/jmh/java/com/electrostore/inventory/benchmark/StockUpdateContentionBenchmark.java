@@ -0,0 +1,73 @@
+package com.electrostore.inventory.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.electrostore.inventory.service.InventoryService;
+
+/**
+ * updateProductStock con varios hilos sobre un conjunto de SKUs calientes de una sucursal.
+ * Con hotSkus=1 todos los hilos compiten por el mismo lock; con mas SKUs la contencion baja.
+ * Cambiar la cantidad de hilos con -t. El outbox se vacia entre iteraciones porque en el benchmark
+ * no hay broker Kafka que lo consuma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class StockUpdateContentionBenchmark {
+    @Param({"1", "16", "1024"})
+    public int hotSkus;
+
+    @Param({"1024"})
+    public int productsPerStore;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("update-bench");
+        BenchmarkSupport.populate(context, 1, Math.max(productsPerStore, hotSkus));
+        inventoryService = context.getBean(InventoryService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM INVENTORY_OUTBOX");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean updateProductStock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long productId = BenchmarkSupport.FIRST_PRODUCT_ID + random.nextInt(hotSkus);
+        return inventoryService.updateProductStock(BenchmarkSupport.FIRST_STORE_ID, productId, random.nextInt(1, 500));
+    }
+}
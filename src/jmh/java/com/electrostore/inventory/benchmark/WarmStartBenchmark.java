@@ -0,0 +1,119 @@
+package com.electrostore.inventory.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductTotalView;
+import com.electrostore.inventory.service.MappedStockTable;
+import com.electrostore.inventory.service.StockLockManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Trabajo de arranque hasta poder responder el stock central: la consulta GROUP BY sobre PRODUCT que se hace hoy,
+ * la reconstruccion de la tabla mapeada desde PRODUCT (primer arranque o archivo invalido) y la reapertura de un
+ * archivo limpio, sumando por producto desde la tabla. Cada invocacion es un arranque (SingleShotTime).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WarmStartBenchmark {
+    @Param({"20"})
+    public int stores;
+
+    @Param({"5000", "50000"})
+    public int productsPerStore;
+
+    // Con true la reapertura tambien recorre PRODUCT para comparar cantidad de SKUs y stock total
+    @Param({"false", "true"})
+    public boolean verifyTotals;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private JdbcTemplate jdbcTemplate;
+    private StockLockManager stockLockManager;
+    private Path warmFile;
+    private Path coldFile;
+    private int capacity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("warm-start-bench");
+        BenchmarkSupport.populate(context, stores, productsPerStore);
+        productRepository = context.getBean(ProductRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        stockLockManager = context.getBean(StockLockManager.class);
+        capacity = Math.max(1024, stores * productsPerStore * 2);
+        warmFile = Path.of("target/benchmark/warm-start-" + productsPerStore + ".bin");
+        coldFile = Path.of("target/benchmark/cold-start-" + productsPerStore + ".bin");
+        MappedStockTable table = table(warmFile);
+        table.open();
+        table.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(warmFile);
+        Files.deleteIfExists(coldFile);
+    }
+
+    @Benchmark
+    public List<ProductTotalView> groupByQuery() {
+        return productRepository.sumQuantityByProduct();
+    }
+
+    @Benchmark
+    public Map<Long, Long> coldRebuild() throws IOException {
+        Files.deleteIfExists(coldFile);
+        return openAndSum(coldFile);
+    }
+
+    @Benchmark
+    public Map<Long, Long> warmReopen() {
+        return openAndSum(warmFile);
+    }
+
+    private Map<Long, Long> openAndSum(Path file) {
+        MappedStockTable table = table(file);
+        table.open();
+        try {
+            Map<Long, Long> totals = new HashMap<>();
+            table.forEach((storeId, productId, quantity) -> totals.merge(productId, (long) quantity, Long::sum));
+            return totals;
+        } finally {
+            table.close();
+        }
+    }
+
+    private MappedStockTable table(Path file) {
+        return new MappedStockTable(jdbcTemplate, stockLockManager, new SimpleMeterRegistry(), true, file.toString(),
+            capacity, Duration.ofMinutes(1), verifyTotals, 1000);
+    }
+}
@@ -0,0 +1,87 @@
+package com.electrostore.inventory.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import com.electrostore.inventory.service.InventoryCacheWriter;
+import com.electrostore.inventory.service.StoreInventoryLoader;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Configuracion del cache de inventario segun inventory.cache.tier:
+ * - local: Caffeine acotado por peso (cantidad de productos), con TTL y refresh-after-write.
+ * - two-tier: el mismo Caffeine como L1 delante de Redis como L2 compartido.
+ * Sin la propiedad, Spring Boot configura el cache segun spring.cache.type.
+ * Las estadisticas de hit/miss/evictions se publican en Micrometer (cache.gets, cache.evictions, ...).
+ */
+@Configuration
+public class CacheConfig {
+    @Value("${inventory.cache.local.max-weight:200000}")
+    private long maxWeight;
+    @Value("${inventory.cache.local.ttl:10m}")
+    private Duration ttl;
+    @Value("${inventory.cache.local.refresh-after-write:1m}")
+    private Duration refreshAfterWrite;
+    @Value("${inventory.cache.redis.ttl:30m}")
+    private Duration redisTtl;
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.cache.tier", havingValue = "local")
+    public CacheManager localCacheManager(StoreInventoryLoader storeInventoryLoader) {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(localInventoryCache(key -> storeInventoryLoader.load((Long) key))));
+        return manager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.cache.tier", havingValue = "two-tier")
+    public CacheManager twoTierCacheManager(StoreInventoryLoader storeInventoryLoader, RedisConnectionFactory redisConnectionFactory, MeterRegistry meterRegistry) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+            .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(redisTtl))
+            .build();
+        Cache shared = redisCacheManager.getCache(InventoryCacheWriter.CACHE_NAME);
+        // El refresco de L1 toma primero el valor de L2, que el write-through de cualquier instancia mantiene al dia
+        CaffeineCache local = localInventoryCache(key -> {
+            Cache.ValueWrapper sharedValue = shared.get(key);
+            if (sharedValue != null && sharedValue.get() != null) {
+                return sharedValue.get();
+            }
+            Object loaded = storeInventoryLoader.load((Long) key);
+            shared.put(key, loaded);
+            return loaded;
+        });
+        CaffeineCacheMetrics.monitor(meterRegistry, local.getNativeCache(), InventoryCacheWriter.CACHE_NAME, "tier", "l1");
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(new TwoTierCache(local, shared)));
+        return manager;
+    }
+
+    private CaffeineCache localInventoryCache(CacheLoader<Object, Object> loader) {
+        LoadingCache<Object, Object> cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher((Object key, Object value) -> value instanceof Collection<?> products ? products.size() + 1 : 1)
+            .expireAfterWrite(ttl)
+            .refreshAfterWrite(refreshAfterWrite)
+            .recordStats()
+            .build(loader);
+        return new RefreshingCaffeineCache(InventoryCacheWriter.CACHE_NAME, cache);
+    }
+}
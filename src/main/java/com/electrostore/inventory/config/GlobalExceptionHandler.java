@@ -1,7 +1,10 @@
 package com.electrostore.inventory.config;
 
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.exception.LedgerHistoryUnavailableException;
 import com.electrostore.inventory.exception.ProductNotFoundException;
 import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.exception.ReservationNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -43,6 +46,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Maneja el caso donde la reserva no existe, vencio o ya fue cerrada.
+     */
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<String> handleReservationNotFound(ReservationNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /**
+     * Maneja el caso donde un ajuste relativo dejaria el stock negativo.
+     */
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<String> handleInsufficientStock(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Maneja el caso donde se pide el stock de un momento anterior al inicio del libro mayor.
+     */
+    @ExceptionHandler(LedgerHistoryUnavailableException.class)
+    public ResponseEntity<String> handleLedgerHistoryUnavailable(LedgerHistoryUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
     /**
      * Maneja el caso donde el usuario esta logueado pero no tiene permisos suficientes.
      */
@@ -0,0 +1,181 @@
+package com.electrostore.inventory.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.service.InventoryCacheWriter;
+import com.electrostore.inventory.service.OperationOutcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers de latencia por capa, con histogramas y buckets SLO configurados en application.properties
+ * (management.metrics.distribution.*) y expuestos en /actuator/prometheus:
+ * - inventory.http: cada endpoint de InventoryController, tags endpoint, store y outcome. En los endpoints
+ *   NDJSON se mide hasta que el controlador entrega el cuerpo, no la escritura de la respuesta.
+ * - inventory.service: cada metodo publico de InventoryService, tags method, store y outcome.
+ * - inventory.db.query: cada metodo de los repositorios, tags query y outcome. En los metodos que devuelven
+ *   un Stream solo se mide la apertura del cursor.
+ * - inventory.cache.load: carga desde la base de una sucursal en el cache inventoryByStore, y el contador
+ *   inventory.cache.requests (result hit/miss) de las lecturas de getInventoryByStore. Un miss es una lectura
+ *   durante la cual la carga corrio en el mismo hilo; los refrescos en segundo plano no cuentan.
+ * El tiempo de envio a Kafka lo mide spring-kafka en el timer spring.kafka.template.
+ * El aspecto es el mas externo (orden maximo), asi mide los reintentos, el circuit breaker y el cache.
+ * Con muchas sucursales el tag store multiplica las series: inventory.metrics.store-tag=false lo fija en "all".
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InventoryMetricsAspect {
+    private static final String ALL_STORES = "all";
+    private static final ThreadLocal<Boolean> CACHE_LOADED = new ThreadLocal<>();
+
+    private final boolean storeTag;
+    private final Meter.MeterProvider<Timer> httpTimers;
+    private final Meter.MeterProvider<Timer> serviceTimers;
+    private final Meter.MeterProvider<Timer> queryTimers;
+    private final Timer cacheLoadTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public InventoryMetricsAspect(MeterRegistry meterRegistry, @Value("${inventory.metrics.store-tag:true}") boolean storeTag) {
+        this.storeTag = storeTag;
+        this.httpTimers = Timer.builder("inventory.http")
+            .description("Latencia de los endpoints de inventario")
+            .withRegistry(meterRegistry);
+        this.serviceTimers = Timer.builder("inventory.service")
+            .description("Latencia de las operaciones de InventoryService")
+            .withRegistry(meterRegistry);
+        this.queryTimers = Timer.builder("inventory.db.query")
+            .description("Latencia de las consultas de los repositorios")
+            .withRegistry(meterRegistry);
+        this.cacheLoadTimer = Timer.builder("inventory.cache.load")
+            .description("Carga desde la base de una sucursal en el cache de inventario")
+            .tag("cache", InventoryCacheWriter.CACHE_NAME)
+            .register(meterRegistry);
+        this.cacheHits = meterRegistry.counter("inventory.cache.requests", "cache", InventoryCacheWriter.CACHE_NAME, "result", "hit");
+        this.cacheMisses = meterRegistry.counter("inventory.cache.requests", "cache", InventoryCacheWriter.CACHE_NAME, "result", "miss");
+    }
+
+    @Around("execution(public * com.electrostore.inventory.controller.InventoryController.*(..))")
+    public Object timeEndpoint(ProceedingJoinPoint pjp) throws Throwable {
+        OperationOutcome.clear();
+        long start = System.nanoTime();
+        String outcome = OperationOutcome.ERROR;
+        try {
+            Object result = pjp.proceed();
+            outcome = outcomeOf(result);
+            return result;
+        } catch (Throwable t) {
+            outcome = OperationOutcome.classify(t);
+            throw t;
+        } finally {
+            OperationOutcome.clear();
+            httpTimers.withTags("endpoint", pjp.getSignature().getName(), "store", store(pjp), "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(public * com.electrostore.inventory.service.InventoryService.*(..))")
+    public Object timeService(ProceedingJoinPoint pjp) throws Throwable {
+        OperationOutcome.clear();
+        boolean cacheRead = "getInventoryByStore".equals(pjp.getSignature().getName());
+        if (cacheRead) {
+            CACHE_LOADED.remove();
+        }
+        long start = System.nanoTime();
+        String outcome = OperationOutcome.ERROR;
+        try {
+            Object result = pjp.proceed();
+            String marked = OperationOutcome.marked();
+            outcome = marked != null ? marked : OperationOutcome.SUCCESS;
+            return result;
+        } catch (Throwable t) {
+            outcome = OperationOutcome.classify(t);
+            throw t;
+        } finally {
+            serviceTimers.withTags("method", pjp.getSignature().getName(), "store", store(pjp), "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (cacheRead) {
+                (Boolean.TRUE.equals(CACHE_LOADED.get()) ? cacheMisses : cacheHits).increment();
+                CACHE_LOADED.remove();
+            }
+        }
+    }
+
+    @Around("execution(* com.electrostore.inventory.service.StoreInventoryLoader.load(..))")
+    public Object timeCacheLoad(ProceedingJoinPoint pjp) throws Throwable {
+        CACHE_LOADED.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            return pjp.proceed();
+        } finally {
+            cacheLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("bean(*Repository)")
+    public Object timeQuery(ProceedingJoinPoint pjp) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = OperationOutcome.ERROR;
+        try {
+            Object result = pjp.proceed();
+            outcome = OperationOutcome.SUCCESS;
+            return result;
+        } finally {
+            queryTimers.withTags("query", pjp.getSignature().getName(), "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String outcomeOf(Object result) {
+        String marked = OperationOutcome.marked();
+        if (marked != null) {
+            return marked;
+        }
+        if (result instanceof ResponseEntity<?> response) {
+            int status = response.getStatusCode().value();
+            if (status == 404) {
+                return OperationOutcome.NOT_FOUND;
+            }
+            if (status == 409) {
+                return OperationOutcome.CONFLICT;
+            }
+            if (status >= 500) {
+                return OperationOutcome.ERROR;
+            }
+            if (status >= 400) {
+                return OperationOutcome.CLIENT_ERROR;
+            }
+        }
+        return OperationOutcome.SUCCESS;
+    }
+
+    private String store(ProceedingJoinPoint pjp) {
+        if (!storeTag) {
+            return ALL_STORES;
+        }
+        String[] names = ((MethodSignature) pjp.getSignature()).getParameterNames();
+        Object[] args = pjp.getArgs();
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if ("storeId".equals(names[i]) && args[i] != null) {
+                    return args[i].toString();
+                }
+            }
+        }
+        return ALL_STORES;
+    }
+}
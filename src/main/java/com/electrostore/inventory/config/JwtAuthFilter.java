@@ -1,18 +1,27 @@
 package com.electrostore.inventory.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 // Filtro JWT para validar y autenticar cada request usando el token JWT
 // Este filtro se ejecuta una vez por cada request y verifica la cabecera Authorization
@@ -20,13 +29,18 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
     // Utilidad para operaciones con JWT (generar, validar, extraer datos)
     private final JwtUtil jwtUtil;
-    // Servicio para obtener los datos del usuario desde el sistema
-    private final UserDetailsService userDetailsService;
+    // Tokens ya verificados -> usuario y roles. Cada entrada expira junto con su token,
+    // asi un token repetido no vuelve a verificar la firma HMAC.
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     // Constructor: inyecta las dependencias necesarias
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, @Value("${security.jwt.cache.max-size:10000}") long cacheMaxSize) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     // Metodo principal del filtro: intercepta cada request HTTP
@@ -35,23 +49,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         // Obtiene la cabecera Authorization del request
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-        // Verifica que la cabecera tenga el formato Bearer <token>
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7); // Extrae el token JWT
-            username = jwtUtil.getUsername(token); // Extrae el usuario del token
-        }
-        // Si hay usuario y no hay autenticacion previa en el contexto
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Obtiene los datos del usuario desde el sistema
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            // Valida el token JWT (firma y expiracion)
-            if (jwtUtil.validateToken(token)) {
-                // Crea el objeto de autenticacion para Spring Security
+        // Verifica que la cabecera tenga el formato Bearer <token> y que no haya autenticacion previa
+        if (authHeader != null && authHeader.startsWith("Bearer ") && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7); // Extrae el token JWT
+            VerifiedToken verified = verify(token);
+            if (verified != null) {
+                // Usuario y roles salen del token: no se consulta el UserDetailsService en cada request
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        verified.username(), null, verified.authorities());
+                authToken.setDetails(detailsSource.buildDetails(request));
                 // Establece la autenticacion en el contexto de seguridad
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -59,4 +65,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Continua con el resto de la cadena de filtros
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Devuelve el token verificado desde el cache, o lo verifica (una sola vez) y lo cachea si es valido
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtUtil.parseClaims(token);
+        if (claims == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            return null;
+        }
+        String role = claims.get("role", String.class);
+        List<GrantedAuthority> authorities = role == null ? List.of() : List.of(new SimpleGrantedAuthority(role));
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), authorities, claims.getExpiration());
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
+    // Usuario, roles y vencimiento de un token con firma ya verificada
+    record VerifiedToken(String username, List<GrantedAuthority> authorities, Date expiration) {
+    }
+
+    // Cada entrada vive exactamente hasta el vencimiento de su token
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            long remainingMillis = verified.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.electrostore.inventory.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -21,6 +24,8 @@ public class JwtUtil {
     private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
     // Tiempo de expiracion del token en milisegundos (1 hora)
     private final long EXPIRATION = 1000 * 60 * 60;
+    // Parser inmutable y thread-safe: se construye una sola vez en lugar de uno por llamada
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
 
     /**
      * Genera un token JWT con el usuario y el rol especificados.
@@ -42,6 +47,19 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifica firma y expiracion del token y devuelve sus claims, con una sola verificacion HMAC.
+     * @param token Token JWT
+     * @return Claims del token, o null si el token no es valido o expiro
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extrae el nombre de usuario (sub) del token JWT.
      * @param token Token JWT
@@ -49,7 +67,7 @@ public class JwtUtil {
      */
     public String getUsername(String token) {
         // Se obtiene el claim "sub" del payload del token
-        return (String) Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().get("sub");
+        return (String) parser.parseSignedClaims(token).getPayload().get("sub");
     }
 
     /**
@@ -59,7 +77,7 @@ public class JwtUtil {
      */
     public String getRole(String token) {
         // Se obtiene el claim "role" del payload del token
-        return (String) Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().get("role");
+        return (String) parser.parseSignedClaims(token).getPayload().get("role");
     }
 
     /**
@@ -68,13 +86,6 @@ public class JwtUtil {
      * @return true si el token es valido, false si no
      */
     public boolean validateToken(String token) {
-        try {
-            // Intenta verificar la firma y parsear el token
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            // Si ocurre cualquier excepcion, el token no es valido
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 }
\ No newline at end of file
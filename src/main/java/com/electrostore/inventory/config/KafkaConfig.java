@@ -0,0 +1,77 @@
+package com.electrostore.inventory.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import com.electrostore.inventory.events.InventoryEventDeserializer;
+import com.electrostore.inventory.events.InventoryEventMessage;
+import com.electrostore.inventory.events.InventoryEventSerializer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuracion de Kafka para el topico inventory-events, que viaja en formato binario.
+ * Reutiliza la fabrica de productores de Spring Boot (spring.kafka.producer.*) cambiando solo los
+ * serializadores, y define una fabrica de listeners propia con InventoryEventDeserializer.
+ * La configuracion String por defecto de Boot se mantiene para el resto de los usos.
+ */
+@Configuration
+public class KafkaConfig {
+
+    // Al declarar otro KafkaTemplate, Boot deja de crear el suyo: se vuelve a declarar el template generico
+    @Bean
+    public KafkaTemplate<?, ?> kafkaTemplate(ProducerFactory<Object, Object> producerFactory,
+                                             ObjectProvider<ProducerListener<Object, Object>> producerListener) {
+        KafkaTemplate<Object, Object> template = new KafkaTemplate<>(producerFactory);
+        producerListener.ifAvailable(template::setProducerListener);
+        return template;
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public KafkaTemplate<String, InventoryEventMessage> inventoryEventKafkaTemplate(ProducerFactory<Object, Object> producerFactory) {
+        ProducerFactory<String, InventoryEventMessage> typed = (ProducerFactory<String, InventoryEventMessage>) (ProducerFactory<?, ?>) producerFactory;
+        // El template crea (y cierra) su propia copia de la fabrica con estos serializadores
+        return new KafkaTemplate<>(typed, Map.of(
+            ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+            ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, InventoryEventSerializer.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> inventoryEventListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles, MeterRegistry meterRegistry) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Un mensaje ilegible no bloquea la particion: lo reporta el manejador de errores del contenedor
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, InventoryEventDeserializer.class);
+        DefaultKafkaConsumerFactory<Object, Object> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        // Metricas del cliente Kafka, entre ellas el lag (kafka.consumer.fetch.manager.records.lag.max)
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        // Lotes por poll; el listener confirma los offsets despues del commit en la base
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,24 @@
+package com.electrostore.inventory.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Cache Caffeine con loader usado solo para refresh-after-write.
+ * Las consultas usan getIfPresent: un miss devuelve null y la carga la hace InventoryCacheWriter.getOrLoad,
+ * y los parches del write-through sobre sucursales no cacheadas no disparan una carga desde la base.
+ * Las entradas que se siguen leyendo se recargan en segundo plano con el loader al vencer el refresh;
+ * mientras la recarga no termina, las lecturas devuelven el valor anterior sin esperar a la base.
+ */
+public class RefreshingCaffeineCache extends CaffeineCache {
+
+    public RefreshingCaffeineCache(String name, LoadingCache<Object, Object> cache) {
+        super(name, cache, false);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return getNativeCache().getIfPresent(key);
+    }
+}
@@ -2,6 +2,8 @@ package com.electrostore.inventory.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -12,6 +14,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.http.HttpMethod;
+import jakarta.servlet.DispatcherType;
 import org.springframework.security.web.AuthenticationEntryPoint;
 
 @Configuration
@@ -36,13 +39,38 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Actuator: health e info quedan abiertos para los chequeos de vida; el resto (metrics, caches, prometheus)
+     * expone datos internos y permite operaciones como vaciar caches, asi que requiere rol ADMIN.
+     * Ademas del JWT acepta HTTP Basic, para que Prometheus pueda scrapear con basic_auth sin renovar tokens.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter, AuthenticationEntryPoint customAuthenticationEntryPoint) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(customAuthenticationEntryPoint))
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter, AuthenticationEntryPoint customAuthenticationEntryPoint) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/actuator/**", "/auth/login", "/auth/login-test-map", "/h2-console/**").permitAll()
-                .requestMatchers(HttpMethod.GET, "/inventory/**").hasAnyRole("ADMIN", "USER")
+                // El despacho asincrono (Mono/Flux, StreamingResponseBody) solo escribe una respuesta ya autorizada, y el
+                // de error solo muestra el estado que ya se decidio (un 403 de actuator no debe volverse 401 en /error)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/auth/login", "/auth/login-test-map", "/h2-console/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/inventory/**", "/reactive/inventory/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/inventory/central:stream").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/inventory/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,109 @@
+package com.electrostore.inventory.config;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache de dos niveles: L1 local (Caffeine) delante de L2 compartido (Redis).
+ * Las lecturas consultan L1 y ante un miss L2, promoviendo el valor a L1. Las escrituras e
+ * invalidaciones se aplican en ambos niveles. Si Redis no responde se sigue trabajando solo con L1.
+ */
+public class TwoTierCache implements Cache {
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+    private final Cache local;
+    private final Cache shared;
+
+    public TwoTierCache(Cache local, Cache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        try {
+            value = shared.get(key);
+        } catch (RuntimeException ex) {
+            log.warn("[CACHE] L2 no disponible al leer {}: {}", key, ex.getMessage());
+            return null;
+        }
+        if (value != null && value.get() != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("El valor cacheado no es del tipo requerido [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        try {
+            shared.put(key, value);
+        } catch (RuntimeException ex) {
+            log.warn("[CACHE] L2 no disponible al escribir {}: {}", key, ex.getMessage());
+        }
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            shared.evict(key);
+        } catch (RuntimeException ex) {
+            log.warn("[CACHE] L2 no disponible al invalidar {}: {}", key, ex.getMessage());
+        }
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            shared.clear();
+        } catch (RuntimeException ex) {
+            log.warn("[CACHE] L2 no disponible al limpiar: {}", ex.getMessage());
+        }
+        local.clear();
+    }
+}
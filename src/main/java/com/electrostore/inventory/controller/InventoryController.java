@@ -1,16 +1,25 @@
 package com.electrostore.inventory.controller;
 
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.CentralStockQuery;
+import com.electrostore.inventory.dto.InventoryPageDTO;
 import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StockUpdateItem;
+import com.electrostore.inventory.dto.StockUpdateResult;
 import com.electrostore.inventory.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.Parameter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -23,6 +32,7 @@ import jakarta.validation.Valid;
 public class InventoryController {
     private static final Logger log = LoggerFactory.getLogger(InventoryController.class);
     private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint para consultar el inventario de una tienda.
@@ -46,6 +56,51 @@ public class InventoryController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Endpoint para consultar el inventario de una tienda por paginas.
+     * Pensado para sucursales grandes: cada pagina es un seek por (STORE_ID, ID), sin OFFSET.
+     */
+    @Operation(
+        summary = "Consultar inventario de una tienda paginado",
+        description = "Devuelve hasta 'limit' productos de la sucursal con id mayor a 'afterId', ordenados por id y opcionalmente filtrados por categoria. Para la pagina siguiente enviar como afterId el valor de nextAfterId; es null en la ultima pagina."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Pagina de inventario obtenida correctamente")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{storeId}/products")
+    public ResponseEntity<InventoryPageDTO> getInventoryPage(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "Ultimo id de la pagina anterior") @RequestParam(required = false) Long afterId,
+        @Parameter(description = "Cantidad maxima de productos") @RequestParam(defaultValue = "100") int limit,
+        @Parameter(description = "Categoria a filtrar") @RequestParam(required = false) String category) {
+        log.info("[API] GET pagina de inventario sucursal {} afterId={} limit={}", storeId, afterId, limit);
+        return ResponseEntity.ok(inventoryService.getInventoryPage(storeId, afterId, category, limit));
+    }
+
+    /**
+     * Endpoint para descargar el inventario completo de una tienda en streaming.
+     */
+    @Operation(
+        summary = "Consultar inventario de una tienda en streaming",
+        description = "Devuelve un JSON por linea (NDJSON) por cada producto de la sucursal, escrito a medida que se lee de la base sin armar la lista en memoria. No usa cache."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Inventario en formato NDJSON")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/{storeId}/products:stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamInventoryByStore(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "Categoria a filtrar") @RequestParam(required = false) String category) {
+        log.info("[API] GET inventario sucursal {} en streaming", storeId);
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            inventoryService.streamInventoryByStore(storeId, category, writer::write);
+        };
+        return ResponseEntity.ok().contentType(org.springframework.http.MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
     /**
      * Endpoint para actualizar el stock de un producto en una tienda.
      */
@@ -88,6 +143,175 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Endpoint para ajustar el stock de un producto con un delta relativo (ventas o ingresos).
+     */
+    @Operation(
+        summary = "Ajustar stock de un producto",
+        description = "Suma el delta indicado al stock actual del producto en la sucursal (negativo para ventas, positivo para ingresos). El ajuste es atomico y se rechaza si el stock quedaria negativo.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Objeto con el delta a aplicar. Ejemplo: {\n   \"delta\": -3 \n}",
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    value = "{ 'delta': -3 }"
+                )
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock ajustado correctamente, devuelve la cantidad resultante"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida o datos incorrectos"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado en la sucursal"),
+        @ApiResponse(responseCode = "409", description = "Stock insuficiente para el ajuste solicitado")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{storeId}/products/{productId}/stock/adjust")
+    public ResponseEntity<?> adjustProductStock(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "ID del producto") @PathVariable Long productId,
+        @RequestBody Map<String, Object> payload) {
+        log.info("[API] POST ajuste de stock producto {} sucursal {}", productId, storeId);
+        if (!payload.containsKey("delta")) {
+            return ResponseEntity.badRequest().body("El campo 'delta' es requerido.");
+        }
+        int delta = Integer.parseInt(payload.get("delta").toString());
+        int quantity = inventoryService.adjustProductStock(storeId, productId, delta);
+        return ResponseEntity.ok(Map.of("quantity", quantity));
+    }
+
+    /**
+     * Endpoint para reservar stock de un producto durante un checkout.
+     */
+    @Operation(
+        summary = "Reservar stock de un producto",
+        description = "Reserva unidades del producto sin modificar su stock: dejan de estar disponibles para vender hasta que la reserva se confirma, se libera o vence (ttlSeconds, por defecto el configurado).",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Cantidad a reservar y vigencia opcional en segundos. Ejemplo: {\n   \"quantity\": 2, \"ttlSeconds\": 600 \n}",
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    value = "{ 'quantity': 2, 'ttlSeconds': 600 }"
+                )
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Reserva creada"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida o datos incorrectos"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado en la sucursal"),
+        @ApiResponse(responseCode = "409", description = "Stock disponible insuficiente")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{storeId}/products/{productId}/reservations")
+    public ResponseEntity<?> reserveStock(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "ID del producto") @PathVariable Long productId,
+        @RequestBody Map<String, Object> payload) {
+        log.info("[API] POST reserva de stock producto {} sucursal {}", productId, storeId);
+        if (!payload.containsKey("quantity")) {
+            return ResponseEntity.badRequest().body("El campo 'quantity' es requerido.");
+        }
+        int quantity = Integer.parseInt(payload.get("quantity").toString());
+        if (quantity <= 0) {
+            return ResponseEntity.badRequest().body("El campo 'quantity' debe ser positivo.");
+        }
+        Duration ttl = payload.containsKey("ttlSeconds") ? Duration.ofSeconds(Long.parseLong(payload.get("ttlSeconds").toString())) : null;
+        return ResponseEntity.status(HttpStatus.CREATED).body(inventoryService.reserveStock(storeId, productId, quantity, ttl));
+    }
+
+    /**
+     * Endpoint para confirmar una reserva, descontando sus unidades del stock.
+     */
+    @Operation(
+        summary = "Confirmar reserva",
+        description = "Descuenta del stock las unidades reservadas y cierra la reserva. Devuelve la cantidad resultante."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reserva confirmada"),
+        @ApiResponse(responseCode = "404", description = "Reserva inexistente, vencida o ya cerrada"),
+        @ApiResponse(responseCode = "409", description = "El stock ya no alcanza; la reserva se libera")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<Map<String, Integer>> confirmReservation(
+        @Parameter(description = "ID de la reserva") @PathVariable String reservationId) {
+        log.info("[API] POST confirmar reserva {}", reservationId);
+        return ResponseEntity.ok(Map.of("quantity", inventoryService.confirmReservation(reservationId)));
+    }
+
+    /**
+     * Endpoint para liberar una reserva sin descontar stock.
+     */
+    @Operation(
+        summary = "Liberar reserva",
+        description = "Cierra la reserva y devuelve sus unidades al stock disponible para vender."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+        @ApiResponse(responseCode = "404", description = "Reserva inexistente, vencida o ya cerrada")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(
+        @Parameter(description = "ID de la reserva") @PathVariable String reservationId) {
+        log.info("[API] DELETE reserva {}", reservationId);
+        inventoryService.releaseReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint para consultar el stock disponible para vender de un producto.
+     */
+    @Operation(
+        summary = "Consultar stock disponible para vender",
+        description = "Devuelve el stock del producto en la sucursal menos las reservas activas."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock disponible obtenido correctamente"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado en la sucursal")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{storeId}/products/{productId}/available")
+    public ResponseEntity<Integer> getAvailableToSell(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "ID del producto") @PathVariable Long productId) {
+        log.info("[API] GET stock disponible producto {} sucursal {}", productId, storeId);
+        return ResponseEntity.ok(inventoryService.getAvailableToSell(storeId, productId));
+    }
+
+    /**
+     * Endpoint para actualizar en lote el stock de muchos productos de una tienda.
+     */
+    @Operation(
+        summary = "Actualizar stock en lote",
+        description = "Aplica muchas actualizaciones de stock (valor absoluto) en una sucursal en transacciones por bloques con batching JDBC. Devuelve el resultado de cada item.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Lista de productos y nuevo stock",
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    value = "[\n  { \"productId\": 1, \"quantity\": 18 },\n  { \"productId\": 2, \"quantity\": 0 }\n]"
+                )
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote procesado, ver el estado de cada item"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{storeId}/stock:batch")
+    public ResponseEntity<List<StockUpdateResult>> updateProductStockBatch(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @RequestBody List<StockUpdateItem> items) {
+        log.info("[API] POST stock en lote sucursal {} ({} items)", storeId, items.size());
+        return ResponseEntity.ok(inventoryService.updateProductStockBatch(storeId, items));
+    }
+
     /**
      * Endpoint para consultar el stock consolidado de un producto en la base central.
      */
@@ -108,6 +332,59 @@ public class InventoryController {
         return ResponseEntity.ok(stock);
     }
 
+    /**
+     * Endpoint para consultar el stock central de muchos productos en una sola llamada.
+     */
+    @Operation(
+        summary = "Consultar stock central de varios productos",
+        description = "Devuelve el stock total de cada producto indicado, opcionalmente desglosado por sucursal. Se resuelve con una consulta agregada por bloque de productos."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock central obtenido correctamente")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/central")
+    public ResponseEntity<List<CentralStockDTO>> getCentralStockBatch(
+        @Parameter(description = "IDs de los productos, separados por coma") @RequestParam List<Long> productIds,
+        @Parameter(description = "Incluir desglose por sucursal") @RequestParam(defaultValue = "false") boolean byStore) {
+        log.info("[API] GET stock central de {} productos", productIds.size());
+        return ResponseEntity.ok(inventoryService.getCentralStock(productIds, byStore));
+    }
+
+    /**
+     * Endpoint para consultar el stock central de conjuntos muy grandes de productos, con respuesta en streaming.
+     */
+    @Operation(
+        summary = "Consultar stock central en streaming",
+        description = "Recibe la lista de productos en el cuerpo y devuelve un JSON por linea (NDJSON) a medida que se calcula cada bloque, sin armar la respuesta completa en memoria.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    value = "{ \"productIds\": [1, 2, 3], \"byStore\": true }"
+                )
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock central en formato NDJSON"),
+        @ApiResponse(responseCode = "400", description = "Falta la lista de productos")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping(value = "/central:stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamCentralStock(@RequestBody CentralStockQuery query) {
+        if (query.getProductIds() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("[API] POST stock central en streaming de {} productos", query.getProductIds().size());
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            inventoryService.streamCentralStock(query.getProductIds(), query.isByStore(), writer::write);
+        };
+        return ResponseEntity.ok().contentType(org.springframework.http.MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
     /**
      * Endpoint para crear un nuevo producto en una tienda especifica.
      */
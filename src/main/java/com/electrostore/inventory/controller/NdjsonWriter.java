@@ -0,0 +1,37 @@
+package com.electrostore.inventory.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Escribe objetos como NDJSON (un JSON por linea) directamente sobre la respuesta,
+ * haciendo flush cada cierta cantidad de filas para que el cliente reciba los datos a medida que se generan.
+ */
+final class NdjsonWriter {
+    static final String MEDIA_TYPE = "application/x-ndjson";
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+    private int written;
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    void write(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.electrostore.inventory.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StoreInventoryDTO;
+import com.electrostore.inventory.service.ReactiveInventoryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas de inventario no bloqueantes, pensadas para tableros que consultan muchas sucursales a la vez.
+ * Spring MVC atiende los Mono/Flux en modo asincrono: el hilo del servidor se libera mientras se resuelve la
+ * consulta, y las respuestas NDJSON se escriben elemento por elemento segun las va pidiendo la conexion.
+ */
+@RestController
+@RequestMapping("/reactive/inventory")
+@RequiredArgsConstructor
+public class ReactiveInventoryController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveInventoryController.class);
+    private static final int MAX_FAN_OUT = 64;
+    private final ReactiveInventoryService reactiveInventoryService;
+
+    @Operation(
+        summary = "Consultar inventario de una tienda (no bloqueante)",
+        description = "Igual que GET /inventory/{storeId}, resuelto desde el cache sin bloquear o cargado en un pool acotado."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Inventario obtenido correctamente")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{storeId}")
+    public Mono<List<ProductDTO>> getInventoryByStore(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId) {
+        log.info("[API] GET reactivo inventario sucursal {}", storeId);
+        return reactiveInventoryService.getInventoryByStore(storeId);
+    }
+
+    @Operation(
+        summary = "Consultar inventario de varias tiendas (no bloqueante)",
+        description = "Devuelve un JSON por linea (NDJSON) por sucursal, en el orden pedido. Las sucursales no cacheadas se cargan con a lo sumo 'concurrency' consultas en paralelo."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Inventarios en formato NDJSON")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StoreInventoryDTO> getInventories(
+        @Parameter(description = "IDs de las sucursales, separados por coma") @RequestParam List<Long> storeIds,
+        @Parameter(description = "Cargas desde la base en paralelo") @RequestParam(defaultValue = "8") int concurrency) {
+        log.info("[API] GET reactivo inventario de {} sucursales", storeIds.size());
+        return reactiveInventoryService.getInventories(storeIds, Math.min(Math.max(1, concurrency), MAX_FAN_OUT));
+    }
+
+    @Operation(
+        summary = "Listar productos de una tienda en streaming (no bloqueante)",
+        description = "Devuelve un producto por linea (NDJSON). Las paginas se consultan a medida que el cliente consume la respuesta."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Productos en formato NDJSON")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/{storeId}/products", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> streamInventory(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "Categoria a filtrar") @RequestParam(required = false) String category) {
+        log.info("[API] GET reactivo productos sucursal {}", storeId);
+        return reactiveInventoryService.streamInventory(storeId, category);
+    }
+
+    @Operation(
+        summary = "Consultar stock central de un producto (no bloqueante)",
+        description = "Devuelve el stock total del producto sumando todas las sucursales."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock central obtenido correctamente")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/central/{productId}")
+    public Mono<Integer> getCentralProductStock(
+        @Parameter(description = "ID del producto") @PathVariable Long productId) {
+        log.info("[API] GET reactivo stock central producto {}", productId);
+        return reactiveInventoryService.getCentralStock(productId);
+    }
+
+    @Operation(
+        summary = "Consultar stock central de varios productos (no bloqueante)",
+        description = "Devuelve un JSON por linea (NDJSON) por producto, consultando la base por bloques a medida que el cliente consume."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock central en formato NDJSON")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/central", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CentralStockDTO> getCentralStock(
+        @Parameter(description = "IDs de los productos, separados por coma") @RequestParam List<Long> productIds,
+        @Parameter(description = "Incluir desglose por sucursal") @RequestParam(defaultValue = "false") boolean byStore) {
+        log.info("[API] GET reactivo stock central de {} productos", productIds.size());
+        return reactiveInventoryService.getCentralStock(productIds, byStore);
+    }
+}
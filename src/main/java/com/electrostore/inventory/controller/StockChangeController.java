@@ -0,0 +1,80 @@
+package com.electrostore.inventory.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.electrostore.inventory.service.StockChangeBroadcaster;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Suscripcion por Server-Sent Events a los cambios de stock confirmados, para reemplazar el polling de
+ * GET /inventory/{storeId}. Eventos: "ready" (id desde el que se reanudaria), "stock" (un StockChangeDTO) y
+ * "reset" (se perdieron cambios: volver a leer el inventario y seguir con este stream).
+ */
+@RestController
+@RequestMapping("/inventory")
+@RequiredArgsConstructor
+public class StockChangeController {
+    private static final Logger log = LoggerFactory.getLogger(StockChangeController.class);
+    private final StockChangeBroadcaster stockChangeBroadcaster;
+
+    @Operation(
+        summary = "Suscribirse a los cambios de stock",
+        description = "Stream SSE de los cambios de stock de todas las sucursales o de la indicada, opcionalmente filtrado por productos. Para reanudar enviar el ultimo id recibido en el header Last-Event-ID (o en lastEventId)."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream de eventos abierto"),
+        @ApiResponse(responseCode = "503", description = "Se alcanzo el maximo de suscriptores")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+        @Parameter(description = "ID de la sucursal (todas si se omite)") @RequestParam(required = false) Long storeId,
+        @Parameter(description = "IDs de los productos, separados por coma (todos si se omite)") @RequestParam(required = false) List<Long> productIds,
+        @Parameter(description = "Ultimo id recibido, alternativa al header Last-Event-ID") @RequestParam(required = false) String lastEventId,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.info("[API] GET suscripcion a cambios de stock sucursal {} productos {} desde {}", storeId, productIds, resumeFrom);
+        SseEmitter emitter = stockChangeBroadcaster.subscribe(storeId, productIds, resumeFrom);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @Operation(
+        summary = "Suscribirse a los cambios de stock de una tienda",
+        description = "Igual que /inventory/changes?storeId={storeId}."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream de eventos abierto"),
+        @ApiResponse(responseCode = "503", description = "Se alcanzo el maximo de suscriptores")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/{storeId}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToStore(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "IDs de los productos, separados por coma (todos si se omite)") @RequestParam(required = false) List<Long> productIds,
+        @Parameter(description = "Ultimo id recibido, alternativa al header Last-Event-ID") @RequestParam(required = false) String lastEventId,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        return subscribe(storeId, productIds, lastEventId, lastEventIdHeader);
+    }
+}
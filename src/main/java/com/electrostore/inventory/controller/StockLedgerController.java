@@ -0,0 +1,75 @@
+package com.electrostore.inventory.controller;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.electrostore.inventory.dto.StockAtDTO;
+import com.electrostore.inventory.dto.StockLedgerPageDTO;
+import com.electrostore.inventory.service.StockLedger;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Consultas sobre el libro mayor de stock (StockLedger): movimientos en un intervalo y stock en un momento dado.
+ * Los momentos se envian en formato ISO-8601 (p.ej. 2025-03-01T12:00:00Z).
+ */
+@RestController
+@RequestMapping("/inventory")
+@RequiredArgsConstructor
+public class StockLedgerController {
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerController.class);
+    private final StockLedger stockLedger;
+
+    @Operation(
+        summary = "Consultar movimientos de stock de una tienda",
+        description = "Devuelve los movimientos registrados entre 'from' (excluido) y 'to' (incluido, ahora si se omite), en orden, con la cantidad resultante, el delta, el usuario y el momento de cada uno. Para la pagina siguiente enviar como afterSequence el valor de nextAfterSequence."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Movimientos obtenidos correctamente")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{storeId}/ledger")
+    public ResponseEntity<StockLedgerPageDTO> getMovements(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "Desde (excluido)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @Parameter(description = "Hasta (incluido)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @Parameter(description = "ID del producto (todos si se omite)") @RequestParam(required = false) Long productId,
+        @Parameter(description = "Ultima secuencia de la pagina anterior") @RequestParam(required = false) Long afterSequence,
+        @Parameter(description = "Cantidad maxima de movimientos") @RequestParam(defaultValue = "100") int limit) {
+        Instant until = to != null ? to : Instant.now();
+        log.info("[API] GET movimientos de stock sucursal {} producto {} entre {} y {}", storeId, productId, from, until);
+        return ResponseEntity.ok(stockLedger.movements(storeId, productId, from, until, afterSequence, limit));
+    }
+
+    @Operation(
+        summary = "Consultar el stock de una tienda en un momento dado",
+        description = "Reconstruye el stock de la sucursal (o de un producto) en el momento 'at' a partir de la foto anterior mas cercana y los movimientos posteriores."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock obtenido correctamente"),
+        @ApiResponse(responseCode = "404", description = "No hay historial para ese momento")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{storeId}/stock-at")
+    public ResponseEntity<StockAtDTO> getStockAt(
+        @Parameter(description = "ID de la sucursal") @PathVariable Long storeId,
+        @Parameter(description = "Momento a consultar") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+        @Parameter(description = "ID del producto (todos si se omite)") @RequestParam(required = false) Long productId) {
+        log.info("[API] GET stock de sucursal {} producto {} al {}", storeId, productId, at);
+        return ResponseEntity.ok(stockLedger.stockAt(storeId, productId, at));
+    }
+}
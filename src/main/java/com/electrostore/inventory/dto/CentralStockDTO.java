@@ -0,0 +1,22 @@
+package com.electrostore.inventory.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock central de un producto y, opcionalmente, su desglose por sucursal (storeId -> cantidad).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CentralStockDTO {
+    private Long productId;
+    private long total;
+    private Map<Long, Integer> stores;
+}
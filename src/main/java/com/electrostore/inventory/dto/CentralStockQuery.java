@@ -0,0 +1,14 @@
+package com.electrostore.inventory.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Consulta masiva de stock central: lista de productos y si se quiere el desglose por sucursal.
+ */
+@Data
+public class CentralStockQuery {
+    private List<Long> productIds;
+    private boolean byStore;
+}
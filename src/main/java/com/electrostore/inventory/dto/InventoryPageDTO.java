@@ -0,0 +1,19 @@
+package com.electrostore.inventory.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pagina de inventario de una sucursal con paginacion por clave (keyset).
+ * nextAfterId es el valor a enviar como afterId para pedir la pagina siguiente; null si no hay mas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPageDTO {
+    private List<ProductDTO> items;
+    private Long nextAfterId;
+}
@@ -1,12 +1,16 @@
 package com.electrostore.inventory.dto;
 
+import java.io.Serializable;
+
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
-public class ProductDTO {
+public class ProductDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     @NotNull(message = "El id del producto es obligatorio")
     private Long id;
     @NotBlank(message = "El nombre del producto es obligatorio")
@@ -0,0 +1,21 @@
+package com.electrostore.inventory.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reserva de stock activa. Si no se confirma ni libera antes de expiresAt, vence y las unidades vuelven a estar disponibles.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private String id;
+    private Long storeId;
+    private Long productId;
+    private int quantity;
+    private Instant expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.electrostore.inventory.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock de una sucursal en un momento dado, reconstruido desde el libro mayor.
+ * quantities tiene la cantidad de cada producto que existia en ese momento (id de producto -> cantidad).
+ * snapshotAt es el momento de la foto usada como base y replayedEntries la cantidad de movimientos aplicados sobre ella.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAtDTO {
+    private Long storeId;
+    private Instant at;
+    private Instant snapshotAt;
+    private int replayedEntries;
+    private Map<Long, Integer> quantities;
+}
@@ -0,0 +1,26 @@
+package com.electrostore.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio de stock confirmado, tal como se envia a los suscriptores de /inventory/changes.
+ * quantity es la cantidad resultante; delta la variacion (null si no se conoce, p.ej. eventos de otra sucursal).
+ * Si varios cambios del mismo SKU se agruparon para un suscriptor lento, delta es la suma de todos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockChangeDTO {
+    private long sequence;
+    private Long storeId;
+    private Long productId;
+    private String action;
+    private int quantity;
+    private Integer delta;
+    private long timestamp;
+}
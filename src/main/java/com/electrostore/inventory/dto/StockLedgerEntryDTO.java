@@ -0,0 +1,29 @@
+package com.electrostore.inventory.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Movimiento de stock registrado en el libro mayor (STOCK_LEDGER).
+ * quantity es la cantidad resultante; delta la variacion (null si no se conoce, p.ej. eventos de otra sucursal).
+ * actor es el usuario que hizo el cambio, "system" para procesos internos y "remote" para eventos de otra sucursal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockLedgerEntryDTO {
+    private long sequence;
+    private Long storeId;
+    private Long productId;
+    private String action;
+    private int quantity;
+    private Integer delta;
+    private String actor;
+    private Instant recordedAt;
+}
@@ -0,0 +1,19 @@
+package com.electrostore.inventory.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pagina de movimientos del libro mayor de stock, en orden de secuencia.
+ * nextAfterSequence es el valor a enviar como afterSequence para pedir la pagina siguiente; null si no hay mas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerPageDTO {
+    private List<StockLedgerEntryDTO> items;
+    private Long nextAfterSequence;
+}
@@ -0,0 +1,16 @@
+package com.electrostore.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item de una actualizacion masiva de stock: nuevo valor absoluto para un producto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateItem {
+    private Long productId;
+    private int quantity;
+}
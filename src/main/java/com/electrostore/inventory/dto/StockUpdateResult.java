@@ -0,0 +1,19 @@
+package com.electrostore.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado por item de una actualizacion masiva de stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateResult {
+    public enum Status { UPDATED, NOT_FOUND, INVALID, FAILED }
+
+    private Long productId;
+    private Status status;
+    private String message;
+}
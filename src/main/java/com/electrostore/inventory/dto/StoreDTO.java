@@ -1,9 +1,13 @@
 package com.electrostore.inventory.dto;
 
+import java.io.Serializable;
+
 import lombok.Data;
 
 @Data
-public class StoreDTO {
+public class StoreDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private Long id;
     private String name;
     private String location;
@@ -0,0 +1,18 @@
+package com.electrostore.inventory.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventario completo de una sucursal, para respuestas que agrupan varias sucursales.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreInventoryDTO {
+    private Long storeId;
+    private List<ProductDTO> products;
+}
@@ -0,0 +1,51 @@
+package com.electrostore.inventory.events;
+
+/**
+ * Tipo de cambio de inventario transportado en InventoryEventMessage.
+ * El codigo es el que viaja en el formato binario: nunca reutilizar ni cambiar un codigo existente,
+ * solo agregar nuevos.
+ */
+public enum InventoryAction {
+    UPDATE_STOCK(1),
+    ADJUST_STOCK(2),
+    CREATE_PRODUCT(3),
+    DELETE_PRODUCT(4);
+
+    private static final InventoryAction[] BY_CODE = new InventoryAction[5];
+
+    static {
+        for (InventoryAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final int code;
+
+    InventoryAction(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return la accion con ese codigo, o null si el codigo no es conocido
+     */
+    public static InventoryAction fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Accion guardada por nombre (columna ACTION del outbox).
+     * @return la accion con ese nombre, o null si el nombre no es conocido
+     */
+    public static InventoryAction fromName(String name) {
+        for (InventoryAction action : values()) {
+            if (action.name().equals(name)) {
+                return action;
+            }
+        }
+        return null;
+    }
+}
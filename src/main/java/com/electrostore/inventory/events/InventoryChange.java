@@ -0,0 +1,39 @@
+package com.electrostore.inventory.events;
+
+/**
+ * Celda preasignada del ring buffer de InventoryEventBus. Se reutiliza: los handlers deben copiar lo que
+ * necesiten conservar, nunca guardar la referencia.
+ */
+public final class InventoryChange {
+    private long storeId;
+    private long productId;
+    private String action;
+    private int quantity;
+    private int delta;
+    private long publishedAt;
+
+    void set(long storeId, long productId, String action, int quantity, int delta, long publishedAt) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.action = action;
+        this.quantity = quantity;
+        this.delta = delta;
+        this.publishedAt = publishedAt;
+    }
+
+    public long getStoreId() { return storeId; }
+    public long getProductId() { return productId; }
+    public String getAction() { return action; }
+    public int getQuantity() { return quantity; }
+    public int getDelta() { return delta; }
+    // System.nanoTime() del momento en que se publico en el bus
+    public long getPublishedAt() { return publishedAt; }
+
+    /**
+     * Particion del SKU entre shards: los cambios de un mismo SKU siempre caen en el mismo shard.
+     */
+    public int shard(int shards) {
+        long h = storeId * 31 + productId;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shards);
+    }
+}
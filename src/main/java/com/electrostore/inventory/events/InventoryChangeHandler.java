@@ -0,0 +1,36 @@
+package com.electrostore.inventory.events;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Consumidor de los cambios de inventario confirmados que distribuye InventoryEventBus.
+ * Los handlers de una misma etapa corren en paralelo, cada uno en su hilo; una etapa empieza a procesar un
+ * cambio recien cuando todas las etapas anteriores lo terminaron. Cada handler recibe los cambios en el orden
+ * de publicacion, que para un mismo SKU es el orden de commit.
+ */
+public interface InventoryChangeHandler {
+
+    void onChange(InventoryChange change);
+
+    /**
+     * Etapa del pipeline (las menores primero).
+     */
+    default int stage() {
+        return 0;
+    }
+
+    /**
+     * Cantidad de hilos del handler. Con mas de uno cada hilo procesa un subconjunto fijo de SKUs, asi se
+     * mantiene el orden por SKU; el handler debe ser thread-safe.
+     */
+    default int shards() {
+        return 1;
+    }
+
+    /**
+     * Nombre para las metricas (tag handler).
+     */
+    default String name() {
+        return ClassUtils.getUserClass(getClass()).getSimpleName();
+    }
+}
@@ -0,0 +1,204 @@
+package com.electrostore.inventory.events;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.electrostore.inventory.service.InventoryChangeEvent;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.EventHandlerGroup;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bus en proceso de los cambios de inventario, sobre un ring buffer preasignado (LMAX Disruptor).
+ * Los InventoryChangeEvent se copian al ring una vez confirmada la transaccion y los InventoryChangeHandler
+ * los procesan en sus propios hilos, organizados en etapas (ver InventoryChangeHandler), sin agregar latencia
+ * a la escritura. Publicar no crea objetos: se reclama una celda del ring, se completa y se publica.
+ * Los cambios de un SKU se publican despues del commit con el lock del SKU todavia tomado, por lo que entran
+ * al ring en orden de commit y cada handler los ve en ese orden.
+ * Si el ring se llena, quien publica espera a que se libere una celda (no se descartan cambios).
+ * La estrategia de espera de los consumidores se elige con inventory.events.bus.wait-strategy:
+ * blocking (por defecto, sin consumo de CPU en reposo), sleeping, yielding o busy-spin (menor latencia,
+ * ocupa un nucleo por hilo consumidor).
+ * Metricas: inventory.events.bus.depth (cambios pendientes), inventory.events.bus.handler (latencia desde
+ * la publicacion hasta que cada handler termino) e inventory.events.bus.errors.
+ * El outbox (que debe escribirse en la misma transaccion) y el stock central (lectura inmediata de lo escrito)
+ * siguen escuchando InventoryChangeEvent de forma sincronica.
+ */
+@Component
+public class InventoryEventBus {
+    private static final Logger log = LoggerFactory.getLogger(InventoryEventBus.class);
+
+    private final Disruptor<InventoryChange> disruptor;
+    private final RingBuffer<InventoryChange> ringBuffer;
+    private final Duration shutdownTimeout;
+
+    public InventoryEventBus(List<InventoryChangeHandler> handlers, MeterRegistry meterRegistry,
+                             @Value("${inventory.events.bus.size:65536}") int size,
+                             @Value("${inventory.events.bus.wait-strategy:blocking}") String waitStrategy,
+                             @Value("${inventory.events.bus.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.disruptor = new Disruptor<>(InventoryChange::new, Integer.highestOneBit(Math.max(2, size - 1) << 1), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-bus-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, ProducerType.MULTI, waitStrategy(waitStrategy));
+        Counter errors = meterRegistry.counter("inventory.events.bus.errors");
+        disruptor.setDefaultExceptionHandler(new LoggingExceptionHandler(errors));
+
+        Map<Integer, List<InventoryChangeHandler>> stages = new TreeMap<>();
+        for (InventoryChangeHandler handler : handlers) {
+            stages.computeIfAbsent(handler.stage(), stage -> new ArrayList<>()).add(handler);
+        }
+        EventHandlerGroup<InventoryChange> previous = null;
+        for (List<InventoryChangeHandler> stage : stages.values()) {
+            List<EventHandler<InventoryChange>> processors = new ArrayList<>();
+            for (InventoryChangeHandler handler : stage) {
+                Timer timer = Timer.builder("inventory.events.bus.handler")
+                    .description("Latencia desde la publicacion en el bus hasta que el handler proceso el cambio")
+                    .tag("handler", handler.name())
+                    .register(meterRegistry);
+                int shards = Math.max(1, handler.shards());
+                for (int shard = 0; shard < shards; shard++) {
+                    processors.add(new TimedHandler(handler, timer, shard, shards));
+                }
+            }
+            @SuppressWarnings("unchecked")
+            EventHandler<InventoryChange>[] array = processors.toArray(EventHandler[]::new);
+            previous = previous == null ? disruptor.handleEventsWith(array) : previous.then(array);
+        }
+        this.ringBuffer = disruptor.start();
+        Gauge.builder("inventory.events.bus.depth", ringBuffer, rb -> rb.getBufferSize() - rb.remainingCapacity())
+            .description("Cambios publicados en el bus que todavia no proceso la ultima etapa")
+            .register(meterRegistry);
+        log.info("[BUS] Bus de cambios de inventario iniciado: {} celdas, {} etapas, espera {}", ringBuffer.getBufferSize(), stages.size(), waitStrategy);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        publish(event.getStoreId(), event.getProductId(), event.getAction(), event.getQuantity(), event.getDelta());
+    }
+
+    /**
+     * Publica un cambio ya confirmado. Espera si el ring esta lleno.
+     */
+    public void publish(long storeId, long productId, String action, int quantity, int delta) {
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).set(storeId, productId, action, quantity, delta, System.nanoTime());
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Cambios publicados que todavia no termino de procesar la ultima etapa.
+     */
+    public long depth() {
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * Espera a que se procese todo lo publicado y detiene los consumidores.
+     * Se espera a que la ultima etapa alcance el cursor del ring y no a Disruptor.shutdown(timeout): este solo
+     * cuenta lo pendiente de los consumidores que ya estan corriendo, y si un hilo todavia no arranco lo
+     * publicado se perderia al detenerlo.
+     */
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (ringBuffer.getMinimumGatingSequence() < ringBuffer.getCursor()) {
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                log.warn("[BUS] Quedaron {} cambios sin procesar al detener el bus", ringBuffer.getCursor() - ringBuffer.getMinimumGatingSequence());
+                break;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        disruptor.halt();
+    }
+
+    static WaitStrategy waitStrategy(String name) {
+        return switch (name) {
+            case "blocking" -> new BlockingWaitStrategy();
+            case "sleeping" -> new SleepingWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            default -> throw new IllegalArgumentException("Estrategia de espera desconocida: " + name);
+        };
+    }
+
+    private static final class TimedHandler implements EventHandler<InventoryChange> {
+        private final InventoryChangeHandler handler;
+        private final Timer timer;
+        private final int shard;
+        private final int shards;
+
+        TimedHandler(InventoryChangeHandler handler, Timer timer, int shard, int shards) {
+            this.handler = handler;
+            this.timer = timer;
+            this.shard = shard;
+            this.shards = shards;
+        }
+
+        @Override
+        public void onEvent(InventoryChange change, long sequence, boolean endOfBatch) {
+            if (shards > 1 && change.shard(shards) != shard) {
+                return;
+            }
+            handler.onChange(change);
+            timer.record(System.nanoTime() - change.getPublishedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Un error de un handler se registra y se sigue con el proximo cambio (el Disruptor por defecto detendria el hilo)
+    private static final class LoggingExceptionHandler implements ExceptionHandler<InventoryChange> {
+        private final Counter errors;
+
+        LoggingExceptionHandler(Counter errors) {
+            this.errors = errors;
+        }
+
+        @Override
+        public void handleEventException(Throwable ex, long sequence, InventoryChange change) {
+            errors.increment();
+            log.error("[BUS] Error procesando el cambio del producto {} sucursal {}", change.getProductId(), change.getStoreId(), ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            log.error("[BUS] Error al iniciar un consumidor del bus", ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            log.error("[BUS] Error al detener un consumidor del bus", ex);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.electrostore.inventory.events;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Lee eventos escritos por InventoryEventSerializer. Rechaza versiones desconocidas, acciones
+ * desconocidas y mensajes truncados con SerializationException.
+ * La epoca del publicador se toma del header inventory-epoch; sin el header (publicadores anteriores) queda en 0.
+ */
+public class InventoryEventDeserializer implements Deserializer<InventoryEventMessage> {
+
+    @Override
+    public InventoryEventMessage deserialize(String topic, Headers headers, byte[] data) {
+        InventoryEventMessage event = deserialize(topic, data);
+        Header epoch = headers == null ? null : headers.lastHeader(InventoryEventSerializer.EPOCH_HEADER);
+        if (event == null || epoch == null) {
+            return event;
+        }
+        if (epoch.value() == null || epoch.value().length != Long.BYTES) {
+            throw new SerializationException("Header " + InventoryEventSerializer.EPOCH_HEADER + " mal formado");
+        }
+        return event.withEpoch(ByteBuffer.wrap(epoch.value()).getLong());
+    }
+
+    @Override
+    public InventoryEventMessage deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte version = buffer.get();
+            if (version != InventoryEventSerializer.VERSION) {
+                throw new SerializationException("Version de evento de inventario no soportada: " + version);
+            }
+            int code = buffer.get();
+            InventoryAction action = InventoryAction.fromCode(code);
+            if (action == null) {
+                throw new SerializationException("Accion de inventario desconocida: " + code);
+            }
+            long productId = Varints.readZigZag(buffer);
+            long storeId = Varints.readZigZag(buffer);
+            int quantity = Varints.readZigZagInt(buffer);
+            int delta = Varints.readZigZagInt(buffer);
+            long sequence = Varints.readZigZag(buffer);
+            long timestamp = Varints.readZigZag(buffer);
+            return new InventoryEventMessage(0L, sequence, timestamp, action, productId, storeId, quantity, delta);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new SerializationException("Evento de inventario mal formado (" + data.length + " bytes)", ex);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.electrostore.inventory.events;
+
+/**
+ * Evento de inventario publicado en el topico inventory-events.
+ * @param epoch epoca del publicador (momento de arranque de la instancia, ver InventoryEventOrigin); 0 si no se conoce
+ * @param sequence secuencia creciente asignada por el outbox; para un mismo SKU respeta el orden de commit dentro de una epoca
+ * @param timestamp momento del cambio en milisegundos epoch
+ * @param quantity cantidad resultante en la sucursal
+ * @param delta variacion respecto de la cantidad anterior
+ */
+public record InventoryEventMessage(long epoch, long sequence, long timestamp, InventoryAction action,
+                                    long productId, long storeId, int quantity, int delta) {
+
+    /**
+     * Clave del mensaje en Kafka: "sucursal:producto", para que todos los eventos de un SKU
+     * vayan a la misma particion.
+     */
+    public String key() {
+        return storeId + ":" + productId;
+    }
+
+    /**
+     * Orden de los eventos de un SKU: primero por epoca y dentro de la misma epoca por secuencia.
+     * La secuencia sola no alcanza porque el outbox puede reiniciar su IDENTITY al reiniciar el publicador.
+     */
+    public boolean isAfter(InventoryEventMessage other) {
+        return epoch != other.epoch ? epoch > other.epoch : sequence > other.sequence;
+    }
+
+    public InventoryEventMessage withEpoch(long newEpoch) {
+        return new InventoryEventMessage(newEpoch, sequence, timestamp, action, productId, storeId, quantity, delta);
+    }
+}
@@ -0,0 +1,59 @@
+package com.electrostore.inventory.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identidad de esta instancia como origen de eventos de inventario.
+ * Se envia en el header inventory-origin de cada evento publicado para que el consumidor
+ * descarte los eventos propios (su cambio ya esta aplicado en la base local).
+ * Conviene fijar inventory.instance-id por sucursal; si no se define se genera una al arrancar.
+ * Tambien nombra el grupo de consumidores de la instancia (ver InventoryKafkaListener): con un id generado
+ * cada arranque usa un grupo nuevo y vuelve a leer el topico desde el principio.
+ * La epoca es el momento de arranque en milisegundos: viaja con cada evento y ordena los eventos de un SKU
+ * antes que la secuencia, porque el outbox (IDENTITY) puede volver a empezar desde 1 al reiniciar la instancia,
+ * por ejemplo con H2 en memoria. Supone que el reloj no retrocede entre un arranque y el siguiente.
+ */
+@Component
+public class InventoryEventOrigin {
+    public static final String HEADER = "inventory-origin";
+    private static final Logger log = LoggerFactory.getLogger(InventoryEventOrigin.class);
+
+    private final String name;
+    private final byte[] id;
+    private final long epoch;
+
+    public InventoryEventOrigin(@Value("${inventory.instance-id:}") String configuredId) {
+        String value = configuredId == null || configuredId.isBlank() ? UUID.randomUUID().toString() : configuredId;
+        this.name = value;
+        this.id = value.getBytes(StandardCharsets.UTF_8);
+        this.epoch = System.currentTimeMillis();
+        log.info("[KAFKA] Origen de eventos de inventario: {} (epoca {})", value, epoch);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public Header header() {
+        return new RecordHeader(HEADER, id);
+    }
+
+    public boolean isLocal(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        return header != null && Arrays.equals(header.value(), id);
+    }
+}
@@ -0,0 +1,53 @@
+package com.electrostore.inventory.events;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializa InventoryEventMessage en el formato binario compacto del topico inventory-events.
+ * <pre>
+ * byte    version (1)
+ * byte    codigo de InventoryAction
+ * varint  productId, storeId, quantity, delta, sequence, timestamp (zigzag)
+ * </pre>
+ * Un evento tipico ocupa entre 15 y 20 bytes, contra unos 70 del texto formateado anterior.
+ * Los campos nuevos se agregan al final sin cambiar la version (los lectores ignoran bytes sobrantes);
+ * la version solo se incrementa ante cambios incompatibles.
+ * La epoca del publicador no va en el cuerpo sino en el header inventory-epoch (8 bytes big-endian): es la misma
+ * para todos los eventos de una instancia y asi el evento tipico no crece.
+ */
+public class InventoryEventSerializer implements Serializer<InventoryEventMessage> {
+    public static final byte VERSION = 1;
+    public static final String EPOCH_HEADER = "inventory-epoch";
+    private static final int MAX_SIZE = 2 + 6 * Varints.MAX_LONG_BYTES;
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, InventoryEventMessage event) {
+        if (event != null && headers != null) {
+            headers.remove(EPOCH_HEADER);
+            headers.add(EPOCH_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(event.epoch()).array());
+        }
+        return serialize(topic, event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, InventoryEventMessage event) {
+        if (event == null) {
+            return null;
+        }
+        byte[] buffer = new byte[MAX_SIZE];
+        int position = 0;
+        buffer[position++] = VERSION;
+        buffer[position++] = (byte) event.action().getCode();
+        position = Varints.writeZigZag(buffer, position, event.productId());
+        position = Varints.writeZigZag(buffer, position, event.storeId());
+        position = Varints.writeZigZag(buffer, position, event.quantity());
+        position = Varints.writeZigZag(buffer, position, event.delta());
+        position = Varints.writeZigZag(buffer, position, event.sequence());
+        position = Varints.writeZigZag(buffer, position, event.timestamp());
+        return Arrays.copyOf(buffer, position);
+    }
+}
@@ -1,16 +1,60 @@
 package com.electrostore.inventory.events;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import com.electrostore.inventory.service.InventoryEventApplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Consume inventory-events por lotes (todos los registros de un poll) y los aplica a la base local
+ * con InventoryEventApplier. Los offsets se confirman recien despues del commit del lote en la base:
+ * si la aplicacion falla el lote se vuelve a entregar, lo cual es seguro porque aplicar es idempotente.
+ * Cada instancia consume en su propio grupo (inventory- seguido de inventory.instance-id): todas deben ver todos los eventos,
+ * con un grupo compartido cada particion llegaria a una sola instancia y las demas nunca aplicarian esos cambios.
+ */
 @Component
 public class InventoryKafkaListener {
     private static final Logger log = LoggerFactory.getLogger(InventoryKafkaListener.class);
+    private final InventoryEventApplier inventoryEventApplier;
+    private final InventoryEventOrigin origin;
+    private final Counter ownEventsCounter;
+    private final Counter invalidEventsCounter;
+
+    public InventoryKafkaListener(InventoryEventApplier inventoryEventApplier, InventoryEventOrigin origin, MeterRegistry meterRegistry) {
+        this.inventoryEventApplier = inventoryEventApplier;
+        this.origin = origin;
+        this.ownEventsCounter = meterRegistry.counter("inventory.events.received", "result", "own");
+        this.invalidEventsCounter = meterRegistry.counter("inventory.events.received", "result", "invalid");
+    }
 
-    @KafkaListener(topics = "inventory-events", groupId = "inventory-group")
-    public void listen(String message) {
-        log.info("[KAFKA EVENT] Recibido: {}", message);
+    @KafkaListener(topics = OutboxDispatcher.TOPIC, groupId = "inventory-#{@inventoryEventOrigin.name}", containerFactory = "inventoryEventListenerFactory", batch = "true")
+    public void listen(List<ConsumerRecord<String, InventoryEventMessage>> records, Acknowledgment acknowledgment) {
+        List<InventoryEventMessage> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, InventoryEventMessage> record : records) {
+            if (record.value() == null) {
+                // ErrorHandlingDeserializer deja el valor en null cuando el mensaje no se pudo leer
+                invalidEventsCounter.increment();
+                log.warn("[KAFKA EVENT] Evento ilegible descartado: particion {} offset {}", record.partition(), record.offset());
+            } else if (origin.isLocal(record.headers())) {
+                ownEventsCounter.increment();
+            } else {
+                events.add(record.value());
+            }
+        }
+        if (!events.isEmpty()) {
+            int applied = inventoryEventApplier.apply(events);
+            log.info("[KAFKA EVENT] Lote de {} registros: {} eventos remotos, {} aplicados", records.size(), events.size(), applied);
+        }
+        acknowledgment.acknowledge();
     }
 }
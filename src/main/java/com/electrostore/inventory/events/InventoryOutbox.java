@@ -0,0 +1,31 @@
+package com.electrostore.inventory.events;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.service.InventoryChangeEvent;
+
+/**
+ * Outbox transaccional de eventos de inventario.
+ * Cada InventoryChangeEvent se guarda en la tabla INVENTORY_OUTBOX de forma sincronica, dentro de la
+ * misma transaccion que modifico el stock: si la transaccion se revierte el evento tambien, y si
+ * confirma el evento queda registrado aunque Kafka no este disponible. OutboxDispatcher lo publica despues.
+ */
+@Component
+public class InventoryOutbox {
+    private static final String INSERT_SQL =
+        "INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener
+    public void record(InventoryChangeEvent event) {
+        jdbcTemplate.update(INSERT_SQL, event.getStoreId(), event.getProductId(), event.getAction(),
+            event.getQuantity(), event.getDelta());
+    }
+}
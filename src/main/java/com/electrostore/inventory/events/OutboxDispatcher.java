@@ -0,0 +1,174 @@
+package com.electrostore.inventory.events;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publica en Kafka los eventos pendientes de INVENTORY_OUTBOX desde un hilo en segundo plano,
+ * fuera del camino de las peticiones. Lee los eventos por lotes en orden de insercion, los envia todos
+ * sin esperar uno por uno (el productor los agrupa y comprime segun linger.ms / batch.size) y borra
+ * del outbox solo los confirmados por el broker.
+ * Los mensajes usan el formato binario de InventoryEventSerializer. La clave es "sucursal:producto", asi los eventos de un mismo SKU van a la misma particion
+ * y mantienen su orden. El primer envio que falla corta el lote: no se envian ni se esperan los eventos siguientes
+ * (con el broker caido cada envio bloquearia hasta max.block.ms) y se reintentan en orden en la proxima pasada.
+ * La entrega es al menos una vez: ante un fallo entre el ack y el borrado, con eventos del lote cortado que igual
+ * llegaron al broker, o con varias instancias leyendo el mismo outbox, puede haber duplicados.
+ * Corre en el pool de @Scheduled (spring.task.scheduling.pool.size), asi un lote demorado no frena a los demas jobs.
+ * Un evento con una accion que no existe en InventoryAction no se podria publicar nunca: en lugar de reintentarlo
+ * para siempre (y frenar con el a los eventos siguientes del SKU) se mueve a INVENTORY_OUTBOX_DEAD_LETTER.
+ */
+@Component
+public class OutboxDispatcher {
+    public static final String TOPIC = "inventory-events";
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final String SELECT_SQL =
+        "SELECT ID, STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA, CREATED_AT FROM INVENTORY_OUTBOX ORDER BY ID FETCH FIRST ? ROWS ONLY";
+    private static final String DELETE_SQL = "DELETE FROM INVENTORY_OUTBOX WHERE ID = ?";
+    // Idempotente: si se cae entre el INSERT y el DELETE, la proxima pasada no duplica la fila
+    private static final String DEAD_LETTER_SQL =
+        "INSERT INTO INVENTORY_OUTBOX_DEAD_LETTER (ID, STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA, CREATED_AT, REASON) "
+            + "SELECT ID, STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA, CREATED_AT, ? FROM INVENTORY_OUTBOX o WHERE o.ID = ? "
+            + "AND NOT EXISTS (SELECT 1 FROM INVENTORY_OUTBOX_DEAD_LETTER d WHERE d.ID = o.ID)";
+    private static final RowMapper<OutboxEntry> ROW_MAPPER = (rs, rowNum) -> new OutboxEntry(
+        rs.getLong("ID"), rs.getLong("STORE_ID"), rs.getLong("PRODUCT_ID"), rs.getString("ACTION"),
+        rs.getInt("QUANTITY"), rs.getInt("DELTA"), rs.getTimestamp("CREATED_AT").getTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, InventoryEventMessage> kafkaTemplate;
+    private final InventoryEventOrigin origin;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer dispatchTimer;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            @Qualifier("inventoryEventKafkaTemplate") KafkaTemplate<String, InventoryEventMessage> kafkaTemplate,
+                            InventoryEventOrigin origin, MeterRegistry meterRegistry,
+                            @Value("${inventory.outbox.batch-size:500}") int batchSize,
+                            @Value("${inventory.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.origin = origin;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeout = sendTimeout;
+        this.publishedCounter = meterRegistry.counter("inventory.outbox.published");
+        this.failedCounter = meterRegistry.counter("inventory.outbox.failed");
+        this.deadLetteredCounter = meterRegistry.counter("inventory.outbox.dead-lettered");
+        this.dispatchTimer = Timer.builder("inventory.outbox.dispatch")
+            .description("Tiempo de publicacion de un lote del outbox, incluida la espera de los acks")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publica lotes mientras el outbox tenga lotes completos pendientes; se detiene ante el primer fallo.
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval:PT0.2S}")
+    public void dispatch() {
+        int published;
+        do {
+            published = dispatchTimer.record(this::dispatchBatch);
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publica un lote del outbox; se corta en el primer envio que falla.
+     * @return cantidad de eventos publicados o apartados y borrados, o -1 si algun envio fallo
+     */
+    int dispatchBatch() {
+        List<OutboxEntry> entries = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<SendResult<String, InventoryEventMessage>>> sends = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            InventoryAction action = InventoryAction.fromName(entry.action());
+            CompletableFuture<SendResult<String, InventoryEventMessage>> send = action == null ? null : send(entry, action);
+            sends.add(send);
+            if (send != null && send.isCompletedExceptionally()) {
+                break; // el productor no acepto el evento (p. ej. sin metadatos del broker): no se intentan los siguientes
+            }
+        }
+        List<Object[]> acked = new ArrayList<>(entries.size());
+        int deadLettered = 0;
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxEntry entry = entries.get(i);
+            if (sends.get(i) == null) {
+                deadLetter(entry, "Accion de inventario desconocida: " + entry.action());
+                deadLettered++;
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(new Object[] {entry.id()});
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException ex) {
+                // Los eventos siguientes quedan en el outbox y se reenvian despues de este, en orden
+                log.warn("[OUTBOX] Fallo el envio del evento {} del SKU {}: {}", entry.id(), entry.key(), ex.getMessage());
+                break;
+            }
+        }
+        if (!acked.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, acked);
+            publishedCounter.increment(acked.size());
+        }
+        int handled = acked.size() + deadLettered;
+        if (handled < entries.size()) {
+            failedCounter.increment(entries.size() - handled);
+            log.warn("[OUTBOX] Lote cortado: {} de {} eventos quedan pendientes y se reintentaran", entries.size() - handled, entries.size());
+            return -1;
+        }
+        return handled;
+    }
+
+    private void deadLetter(OutboxEntry entry, String reason) {
+        jdbcTemplate.update(DEAD_LETTER_SQL, reason, entry.id());
+        jdbcTemplate.update(DELETE_SQL, entry.id());
+        deadLetteredCounter.increment();
+        log.error("[OUTBOX] Evento {} del SKU {} apartado en INVENTORY_OUTBOX_DEAD_LETTER: {}", entry.id(), entry.key(), reason);
+    }
+
+    private CompletableFuture<SendResult<String, InventoryEventMessage>> send(OutboxEntry entry, InventoryAction action) {
+        try {
+            return kafkaTemplate.send(new ProducerRecord<>(TOPIC, null, entry.key(), entry.toMessage(origin.getEpoch(), action), List.of(origin.header())));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private record OutboxEntry(long id, long storeId, long productId, String action, int quantity, int delta, long createdAt) {
+        String key() {
+            return storeId + ":" + productId;
+        }
+
+        // El ID del outbox es la secuencia del evento: para un SKU se asigna con su lock tomado, en orden de commit
+        InventoryEventMessage toMessage(long epoch, InventoryAction mapped) {
+            return new InventoryEventMessage(epoch, id, createdAt, mapped, productId, storeId, quantity, delta);
+        }
+    }
+}
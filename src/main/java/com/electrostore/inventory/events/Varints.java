@@ -0,0 +1,48 @@
+package com.electrostore.inventory.events;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Enteros de longitud variable (7 bits por byte, bit alto de continuacion) con codificacion zigzag,
+ * como en Protocol Buffers: los valores chicos, positivos o negativos, ocupan pocos bytes.
+ */
+final class Varints {
+    static final int MAX_LONG_BYTES = 10;
+
+    private Varints() {
+    }
+
+    /**
+     * Escribe el valor en buffer a partir de position.
+     * @return la posicion siguiente al ultimo byte escrito
+     */
+    static int writeZigZag(byte[] buffer, int position, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buffer[position++] = (byte) v;
+        return position;
+    }
+
+    static long readZigZag(ByteBuffer buffer) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IllegalArgumentException("Entero variable mal formado");
+    }
+
+    static int readZigZagInt(ByteBuffer buffer) {
+        long value = readZigZag(buffer);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Entero fuera de rango: " + value);
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,8 @@
+package com.electrostore.inventory.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long productId, Long storeId, int available, int delta) {
+        super("Stock insuficiente para el producto " + productId + " en la sucursal " + storeId
+            + ": disponible " + available + ", ajuste solicitado " + delta);
+    }
+}
@@ -0,0 +1,9 @@
+package com.electrostore.inventory.exception;
+
+import java.time.Instant;
+
+public class LedgerHistoryUnavailableException extends RuntimeException {
+    public LedgerHistoryUnavailableException(Long storeId, Instant at) {
+        super("No hay historial de stock de la sucursal " + storeId + " para el " + at + ".");
+    }
+}
@@ -0,0 +1,7 @@
+package com.electrostore.inventory.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String reservationId) {
+        super("La reserva " + reservationId + " no existe, vencio o ya fue confirmada o liberada.");
+    }
+}
@@ -1,8 +1,17 @@
 package com.electrostore.inventory.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.electrostore.inventory.model.Product;
@@ -14,4 +23,55 @@ public interface ProductRepository extends JpaRepository<Product, ProductId> {
     Product findByProductId_IdAndProductId_StoreId(Long id, Long storeId); // Find product by productId and storeId
     List<Product> findByProductId_StoreId(Long storeId); // Find all products in a store
     List<Product> findByName(String name);
+    List<Product> findByProductId_StoreIdAndProductId_IdIn(Long storeId, Collection<Long> ids); // Find a set of products in a store
+
+    // Inventario de una sucursal con los datos de la tienda en una unica consulta (sin N+1 sobre STORE)
+    @Query("SELECT new com.electrostore.inventory.repository.ProductStoreView("
+        + "p.productId.id, p.name, p.category, p.quantity, s.id, s.name, s.location) "
+        + "FROM Product p JOIN Store s ON s.id = p.productId.storeId "
+        + "WHERE p.productId.storeId = :storeId")
+    List<ProductStoreView> findInventoryViewByStoreId(@Param("storeId") Long storeId);
+
+    // Pagina de inventario por clave (STORE_ID, ID): siempre un seek por indice, sin OFFSET
+    @Query("SELECT new com.electrostore.inventory.repository.ProductStoreView("
+        + "p.productId.id, p.name, p.category, p.quantity, s.id, s.name, s.location) "
+        + "FROM Product p JOIN Store s ON s.id = p.productId.storeId "
+        + "WHERE p.productId.storeId = :storeId AND p.productId.id > :afterId "
+        + "AND (:category IS NULL OR p.category = :category) "
+        + "ORDER BY p.productId.id")
+    List<ProductStoreView> findInventoryPage(@Param("storeId") Long storeId, @Param("afterId") Long afterId,
+                                             @Param("category") String category, Pageable pageable);
+
+    // Inventario completo de una sucursal como stream, para escribirlo sin armar la lista en memoria
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.electrostore.inventory.repository.ProductStoreView("
+        + "p.productId.id, p.name, p.category, p.quantity, s.id, s.name, s.location) "
+        + "FROM Product p JOIN Store s ON s.id = p.productId.storeId "
+        + "WHERE p.productId.storeId = :storeId "
+        + "AND (:category IS NULL OR p.category = :category) "
+        + "ORDER BY p.productId.id")
+    Stream<ProductStoreView> streamInventoryByStoreId(@Param("storeId") Long storeId, @Param("category") String category);
+
+    // Stock total por producto sumando todas las sucursales
+    @Query("SELECT new com.electrostore.inventory.repository.ProductTotalView(p.productId.id, SUM(p.quantity)) "
+        + "FROM Product p GROUP BY p.productId.id")
+    List<ProductTotalView> sumQuantityByProduct();
+
+    // Stock total de un conjunto de productos en una sola consulta
+    @Query("SELECT new com.electrostore.inventory.repository.ProductTotalView(p.productId.id, SUM(p.quantity)) "
+        + "FROM Product p WHERE p.productId.id IN :ids GROUP BY p.productId.id")
+    List<ProductTotalView> sumQuantityByProductIds(@Param("ids") Collection<Long> ids);
+
+    // Stock por sucursal de un conjunto de productos, ordenado para agrupar por producto
+    @Query("SELECT new com.electrostore.inventory.repository.ProductStoreQuantityView(p.productId.id, p.productId.storeId, p.quantity) "
+        + "FROM Product p WHERE p.productId.id IN :ids ORDER BY p.productId.id, p.productId.storeId")
+    List<ProductStoreQuantityView> findStoreQuantitiesByProductIds(@Param("ids") Collection<Long> ids);
+
+    // Ajuste relativo atomico: la condicion evita dejar stock negativo sin cargar la entidad
+    @Modifying
+    @Query(value = "UPDATE PRODUCT SET QUANTITY = QUANTITY + :delta WHERE ID = :productId AND STORE_ID = :storeId AND QUANTITY + :delta >= 0", nativeQuery = true)
+    int adjustQuantity(@Param("storeId") Long storeId, @Param("productId") Long productId, @Param("delta") int delta);
+
+    @Query(value = "SELECT QUANTITY FROM PRODUCT WHERE ID = :productId AND STORE_ID = :storeId", nativeQuery = true)
+    Integer findQuantity(@Param("storeId") Long storeId, @Param("productId") Long productId);
 }
\ No newline at end of file
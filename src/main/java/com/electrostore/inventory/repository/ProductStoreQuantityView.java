@@ -0,0 +1,7 @@
+package com.electrostore.inventory.repository;
+
+/**
+ * Stock de un producto en una sucursal, para desgloses por tienda.
+ */
+public record ProductStoreQuantityView(Long productId, Long storeId, int quantity) {
+}
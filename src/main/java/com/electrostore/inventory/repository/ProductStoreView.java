@@ -0,0 +1,14 @@
+package com.electrostore.inventory.repository;
+
+/**
+ * Fila plana de inventario: producto junto con los datos de su sucursal, obtenida con una sola consulta.
+ */
+public record ProductStoreView(
+    Long id,
+    String name,
+    String category,
+    int quantity,
+    Long storeId,
+    String storeName,
+    String storeLocation) {
+}
@@ -0,0 +1,7 @@
+package com.electrostore.inventory.repository;
+
+/**
+ * Stock total de un producto sumando todas las sucursales.
+ */
+public record ProductTotalView(Long productId, Long total) {
+}
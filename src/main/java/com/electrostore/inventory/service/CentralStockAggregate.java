@@ -0,0 +1,202 @@
+package com.electrostore.inventory.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductTotalView;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agregado en memoria del stock central (suma de todas las sucursales) por producto.
+ * Se construye al arrancar, antes de aceptar peticiones, con una consulta GROUP BY (o desde la tabla de stock
+ * mapeada) y se mantiene aplicando el delta de cada
+ * InventoryChangeEvent una vez confirmada la transaccion, por lo que la consulta de stock central es O(1).
+ * Un job periodico lo compara contra la tabla PRODUCT y publica la diferencia como metrica.
+ */
+@Component
+public class CentralStockAggregate implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(CentralStockAggregate.class);
+    private final ProductRepository productRepository;
+    private final MappedStockTable mappedStockTable;
+    private final Map<Long, LongAdder> totals = new ConcurrentHashMap<>();
+    private final AtomicLong drift = new AtomicLong();
+    private final Counter driftedProductsCounter;
+    private final boolean repairDrift;
+    // Diferencias detectadas en la corrida anterior; solo se corrigen las que se repiten
+    private Map<Long, Long> previousDrift = Map.of();
+    private volatile boolean ready;
+
+    public CentralStockAggregate(ProductRepository productRepository, MappedStockTable mappedStockTable, MeterRegistry meterRegistry,
+                                 @Value("${inventory.central.reconcile.repair:true}") boolean repairDrift) {
+        this.productRepository = productRepository;
+        this.mappedStockTable = mappedStockTable;
+        this.repairDrift = repairDrift;
+        meterRegistry.gauge("inventory.central.drift", drift);
+        meterRegistry.gauge("inventory.central.products", totals, Map::size);
+        this.driftedProductsCounter = meterRegistry.counter("inventory.central.drift.products");
+    }
+
+    /**
+     * Abre la tabla de stock mapeada y construye el agregado cuando terminaron de crearse los beans: todavia no
+     * arrancaron el servidor, los jobs @Scheduled ni los listeners de Kafka, asi que no se confirma ninguna escritura
+     * mientras se lee y ningun commit queda contado dos veces.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        mappedStockTable.open();
+        rebuild();
+    }
+
+    /**
+     * Vuelve a construir el agregado desde la tabla de stock mapeada si esta lista, o desde la base.
+     * Los deltas que llegan durante la construccion se acumulan en totals y la base leida se les suma con
+     * LongAdder.add, en lugar de reemplazar los acumuladores y perderlos; los anteriores al inicio se descartan
+     * porque la lectura ya los incluye. Con escrituras en curso un commit confirmado antes de la lectura cuyo
+     * listener corre despues del inicio quedaria contado dos veces (lo corregiria reconcile()): fuera del arranque
+     * solo debe llamarse sin carga, como los benchmarks despues de cargar datos por JDBC.
+     */
+    public void rebuild() {
+        ready = false;
+        totals.clear();
+        if (mappedStockTable.isReady()) {
+            Map<Long, Long> fromTable = new HashMap<>();
+            mappedStockTable.forEach((storeId, productId, quantity) -> fromTable.merge(productId, (long) quantity, Long::sum));
+            fromTable.forEach(this::addBase);
+            ready = true;
+            log.info("[CENTRAL] Agregado de stock central construido desde la tabla mapeada para {} productos", fromTable.size());
+            return;
+        }
+        List<ProductTotalView> rows = productRepository.sumQuantityByProduct();
+        for (ProductTotalView row : rows) {
+            addBase(row.productId(), row.total());
+        }
+        ready = true;
+        log.info("[CENTRAL] Agregado de stock central construido para {} productos", rows.size());
+    }
+
+    private void addBase(Long productId, long total) {
+        totals.computeIfAbsent(productId, id -> new LongAdder()).add(total);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (event.getDelta() != 0) {
+            totals.computeIfAbsent(event.getProductId(), id -> new LongAdder()).add(event.getDelta());
+        }
+    }
+
+    /**
+     * Recalcula desde la base el total de los productos indicados. Lo usa la aplicacion de eventos
+     * remotos, que modifica PRODUCT sin publicar InventoryChangeEvent. Un cambio local concurrente
+     * sobre el mismo producto puede quedar desfasado; lo corrige la verificacion periodica.
+     */
+    public void refresh(Collection<Long> productIds) {
+        if (!ready || productIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> expected = new HashMap<>();
+        for (ProductTotalView row : productRepository.sumQuantityByProductIds(productIds)) {
+            expected.put(row.productId(), row.total());
+        }
+        for (Long productId : productIds) {
+            long diff = expected.getOrDefault(productId, 0L) - sum(productId);
+            if (diff != 0) {
+                totals.computeIfAbsent(productId, id -> new LongAdder()).add(diff);
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Stock total del producto en todas las sucursales (0 si no existe).
+     */
+    public int getTotal(Long productId) {
+        LongAdder total = totals.get(productId);
+        return total == null ? 0 : (int) total.sum();
+    }
+
+    /**
+     * Verifica el agregado contra la tabla PRODUCT. La diferencia total queda en el gauge
+     * inventory.central.drift. Los productos cuyo total en memoria cambio mientras se consultaba la base
+     * se ignoran (estan en movimiento), y solo se corrigen las diferencias que persisten igual en dos
+     * corridas consecutivas, para no "corregir" escrituras que se estaban confirmando.
+     */
+    @Scheduled(fixedDelayString = "${inventory.central.reconcile.interval:PT5M}", initialDelayString = "${inventory.central.reconcile.interval:PT5M}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        Map<Long, Long> before = snapshot();
+        Map<Long, Long> expected = new HashMap<>();
+        for (ProductTotalView row : productRepository.sumQuantityByProduct()) {
+            expected.put(row.productId(), row.total());
+        }
+        Map<Long, Long> currentDrift = new HashMap<>();
+        long totalDrift = 0;
+        for (Long productId : union(before.keySet(), expected.keySet())) {
+            long memory = before.getOrDefault(productId, 0L);
+            long after = sum(productId);
+            if (memory != after) {
+                continue; // cambio durante la verificacion
+            }
+            long diff = expected.getOrDefault(productId, 0L) - memory;
+            if (diff != 0) {
+                currentDrift.put(productId, diff);
+                totalDrift += Math.abs(diff);
+            }
+        }
+        drift.set(totalDrift);
+        if (!currentDrift.isEmpty()) {
+            driftedProductsCounter.increment(currentDrift.size());
+            log.warn("[CENTRAL] Diferencia entre agregado y base: {} unidades en {} productos", totalDrift, currentDrift.size());
+            if (repairDrift) {
+                currentDrift.forEach((productId, diff) -> {
+                    if (diff.equals(previousDrift.get(productId))) {
+                        totals.computeIfAbsent(productId, id -> new LongAdder()).add(diff);
+                        log.warn("[CENTRAL] Corrigiendo stock central del producto {} en {}", productId, diff);
+                    }
+                });
+            }
+        }
+        previousDrift = currentDrift;
+    }
+
+    private Map<Long, Long> snapshot() {
+        Map<Long, Long> copy = new HashMap<>(totals.size() * 2);
+        totals.forEach((productId, total) -> copy.put(productId, total.sum()));
+        return copy;
+    }
+
+    private long sum(Long productId) {
+        LongAdder total = totals.get(productId);
+        return total == null ? 0 : total.sum();
+    }
+
+    private static Set<Long> union(Set<Long> a, Set<Long> b) {
+        Set<Long> all = new HashSet<>(a);
+        all.addAll(b);
+        return all;
+    }
+}
@@ -0,0 +1,225 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.dto.ProductDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-through sobre el cache "inventoryByStore".
+ * En cada escritura parchea solo la entrada modificada dentro de la lista cacheada de la sucursal,
+ * de modo que una tienda muy consultada no se recarga desde la base por un cambio de stock.
+ * Si la sucursal no esta cacheada no hay nada que parchear; si el parche no es posible (producto ausente, error
+ * del cache) invalida la entrada. Las listas se reemplazan copiando (copy-on-write), nunca se modifican en el
+ * lugar, porque con cache en memoria pueden estar siendo leidas o serializadas por otros hilos.
+ * Las cargas por miss pasan por getOrLoad: cada escritura (parche o invalidacion) avanza una generacion por
+ * sucursal, y una carga solo se guarda si ninguna escritura la cruzo. Asi una lista leida antes de un commit
+ * no queda en el cache despues del parche que ya no la encontro.
+ * Funciona con cualquier Cache de Spring (simple, Redis, Caffeine): solo usa get/put/evict.
+ * Los parches de una misma sucursal se serializan localmente; con Redis compartido entre instancias
+ * dos parches simultaneos de distintas instancias sobre la misma sucursal pueden pisarse.
+ */
+@Component
+public class InventoryCacheWriter {
+    public static final String CACHE_NAME = "inventoryByStore";
+    private static final Logger log = LoggerFactory.getLogger(InventoryCacheWriter.class);
+    private static final int STORE_STRIPES = 64;
+
+    private final CacheManager cacheManager;
+    private final ReentrantLock[] storeLocks = new ReentrantLock[STORE_STRIPES];
+    // Escrituras por stripe de sucursal, protegidas por el lock del stripe
+    private final long[] generations = new long[STORE_STRIPES];
+    private final Counter patchedCounter;
+    private final Counter evictedCounter;
+    private final Counter discardedCounter;
+
+    public InventoryCacheWriter(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        for (int i = 0; i < STORE_STRIPES; i++) {
+            storeLocks[i] = new ReentrantLock();
+        }
+        this.patchedCounter = meterRegistry.counter("inventory.cache.writes", "result", "patched");
+        this.evictedCounter = meterRegistry.counter("inventory.cache.writes", "result", "evicted");
+        this.discardedCounter = meterRegistry.counter("inventory.cache.writes", "result", "discarded");
+    }
+
+    /**
+     * Devuelve la lista cacheada de la sucursal o la carga con el loader y la guarda.
+     * Si mientras cargaba se confirmo una escritura sobre la sucursal, la lista puede ser anterior a ese commit:
+     * se devuelve igual (es lo que habia en la base al leer) pero no se guarda, y la proxima lectura vuelve a cargar.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ProductDTO> getOrLoad(Long storeId, Function<Long, List<ProductDTO>> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loader.apply(storeId);
+        }
+        List<ProductDTO> cached = cache.get(storeId, List.class);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(storeId);
+        ReentrantLock lock = storeLocks[stripe];
+        long generation;
+        lock.lock();
+        try {
+            generation = generations[stripe];
+        } finally {
+            lock.unlock();
+        }
+        List<ProductDTO> loaded = loader.apply(storeId);
+        lock.lock();
+        try {
+            if (generations[stripe] == generation) {
+                cache.put(storeId, loaded);
+            } else {
+                discardedCounter.increment();
+                log.debug("[CACHE] Inventario de la sucursal {} cargado durante una escritura, no se guarda", storeId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    /**
+     * Reemplaza la cantidad de un producto en la lista cacheada de su sucursal.
+     */
+    public void patchQuantity(Long storeId, Long productId, int quantity) {
+        patch(storeId, current -> {
+            int index = indexOf(current, productId);
+            if (index < 0) {
+                return null;
+            }
+            List<ProductDTO> patched = new ArrayList<>(current);
+            ProductDTO updated = copy(current.get(index));
+            updated.setQuantity(quantity);
+            patched.set(index, updated);
+            return patched;
+        });
+    }
+
+    /**
+     * Agrega (o reemplaza si ya estaba) un producto recien creado en la lista cacheada de su sucursal.
+     */
+    public void patchCreated(Long storeId, ProductDTO product) {
+        patch(storeId, current -> {
+            List<ProductDTO> patched = new ArrayList<>(current.size() + 1);
+            patched.addAll(current);
+            int index = indexOf(current, product.getId());
+            if (index < 0) {
+                patched.add(product);
+            } else {
+                patched.set(index, product);
+            }
+            return patched;
+        });
+    }
+
+    /**
+     * Quita un producto eliminado de la lista cacheada de su sucursal.
+     */
+    public void patchRemoved(Long storeId, Long productId) {
+        patch(storeId, current -> {
+            int index = indexOf(current, productId);
+            if (index < 0) {
+                return current;
+            }
+            List<ProductDTO> patched = new ArrayList<>(current);
+            patched.remove(index);
+            return patched;
+        });
+    }
+
+    /**
+     * Invalida la entrada completa de la sucursal.
+     */
+    public void evict(Long storeId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        int stripe = stripe(storeId);
+        ReentrantLock lock = storeLocks[stripe];
+        lock.lock();
+        try {
+            generations[stripe]++;
+            cache.evict(storeId);
+            evictedCounter.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void patch(Long storeId, UnaryOperator<List<ProductDTO>> patcher) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        int stripe = stripe(storeId);
+        ReentrantLock lock = storeLocks[stripe];
+        lock.lock();
+        try {
+            // Aun sin entrada: una carga en curso que leyo antes de este commit no debe guardarse
+            generations[stripe]++;
+            List<ProductDTO> current = cache.get(storeId, List.class);
+            if (current == null) {
+                return; // Sin entrada: la proxima lectura la carga desde la base
+            }
+            List<ProductDTO> patched = patcher.apply(current);
+            if (patched == null) {
+                cache.evict(storeId);
+                evictedCounter.increment();
+            } else if (patched != current) {
+                cache.put(storeId, patched);
+                patchedCounter.increment();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("[CACHE] No se pudo parchear el inventario de la sucursal {}, se invalida: {}", storeId, ex.getMessage());
+            try {
+                cache.evict(storeId);
+                evictedCounter.increment();
+            } catch (RuntimeException evictEx) {
+                log.error("[CACHE] No se pudo invalidar el inventario de la sucursal {}: {}", storeId, evictEx.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripe(Long storeId) {
+        return Math.floorMod(storeId.hashCode(), STORE_STRIPES);
+    }
+
+    private static int indexOf(List<ProductDTO> products, Long productId) {
+        for (int i = 0; i < products.size(); i++) {
+            if (productId.equals(products.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ProductDTO copy(ProductDTO source) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setCategory(source.getCategory());
+        dto.setQuantity(source.getQuantity());
+        dto.setStore(source.getStore());
+        return dto;
+    }
+}
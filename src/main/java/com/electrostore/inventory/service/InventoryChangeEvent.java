@@ -7,17 +7,26 @@ public class InventoryChangeEvent extends ApplicationEvent {
     private final Long storeId;
     private final String action;
     private final int quantity;
+    // Variacion de stock que produjo el cambio (cantidad nueva - cantidad anterior)
+    private final int delta;
+    // ID del movimiento en STOCK_LEDGER: lo asigna StockLedger al registrarlo dentro de la transaccion (0 si no se registro)
+    private long ledgerSequence;
 
-    public InventoryChangeEvent(Object source, Long productId, Long storeId, String action, int quantity) {
+    public InventoryChangeEvent(Object source, Long productId, Long storeId, String action, int quantity, int delta) {
         super(source);
         this.productId = productId;
         this.storeId = storeId;
         this.action = action;
         this.quantity = quantity;
+        this.delta = delta;
     }
 
     public Long getProductId() { return productId; }
     public Long getStoreId() { return storeId; }
     public String getAction() { return action; }
     public int getQuantity() { return quantity; }
+    public int getDelta() { return delta; }
+    public long getLedgerSequence() { return ledgerSequence; }
+
+    void setLedgerSequence(long ledgerSequence) { this.ledgerSequence = ledgerSequence; }
 }
@@ -0,0 +1,203 @@
+package com.electrostore.inventory.service;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.electrostore.inventory.events.InventoryAction;
+import com.electrostore.inventory.events.InventoryEventMessage;
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Aplica a la tabla PRODUCT local los eventos de inventario recibidos de otras sucursales.
+ * Por cada lote: se queda con el evento mas nuevo de cada SKU (una sola escritura por SKU),
+ * y en una transaccion actualiza o borra la fila solo si el evento es posterior al ultimo aplicado
+ * para ese SKU (INVENTORY_APPLIED_SEQUENCE). Reaplicar un lote o recibir eventos viejos no tiene efecto.
+ * Se asume que cada SKU lo modifica una sola sucursal (la duenia del stock), cuyo outbox define la secuencia.
+ * Los eventos se ordenan por (epoca, secuencia): si el publicador reinicia y su outbox vuelve a numerar desde 1,
+ * la epoca nueva es mayor y sus eventos se aplican en lugar de descartarse como viejos.
+ * La transaccion y las actualizaciones posteriores se hacen con los locks de los SKUs del lote tomados, igual que las
+ * escrituras locales, para que el cache y los modelos en memoria reciban los cambios en el orden en que se confirmaron.
+ * Los eventos no generan InventoryChangeEvent (no vuelven a publicarse): se registran en el StockLedger dentro de la
+ * misma transaccion, y el cache, el modelo de lectura, la tabla de stock mapeada, el stock central, las reservas y
+ * los suscriptores de cambios (StockChangeBroadcaster) se actualizan directamente despues del commit. Un reintento
+ * local pendiente (StockRetryLog) de un SKU que cambio se descarta, porque pisaria el valor mas nuevo recibido. Un evento
+ * sobre un producto que no existe localmente se omite: el evento no trae nombre ni categoria para crearlo.
+ */
+@Component
+public class InventoryEventApplier {
+    private static final Logger log = LoggerFactory.getLogger(InventoryEventApplier.class);
+    private static final String NOT_APPLIED_YET =
+        " AND NOT EXISTS (SELECT 1 FROM INVENTORY_APPLIED_SEQUENCE a WHERE a.STORE_ID = ? AND a.PRODUCT_ID = ?"
+        + " AND (a.LAST_EPOCH > ? OR (a.LAST_EPOCH = ? AND a.LAST_SEQUENCE >= ?)))";
+    private static final String UPDATE_SQL = "UPDATE PRODUCT SET QUANTITY = ? WHERE STORE_ID = ? AND ID = ?" + NOT_APPLIED_YET;
+    private static final String DELETE_SQL = "DELETE FROM PRODUCT WHERE STORE_ID = ? AND ID = ?" + NOT_APPLIED_YET;
+    private static final String SEQUENCE_SQL =
+        "MERGE INTO INVENTORY_APPLIED_SEQUENCE t "
+        + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) s (STORE_ID, PRODUCT_ID, EPOCH, SEQUENCE) "
+        + "ON t.STORE_ID = s.STORE_ID AND t.PRODUCT_ID = s.PRODUCT_ID "
+        + "WHEN MATCHED AND (t.LAST_EPOCH < s.EPOCH OR (t.LAST_EPOCH = s.EPOCH AND t.LAST_SEQUENCE < s.SEQUENCE)) "
+        + "THEN UPDATE SET LAST_EPOCH = s.EPOCH, LAST_SEQUENCE = s.SEQUENCE "
+        + "WHEN NOT MATCHED THEN INSERT (STORE_ID, PRODUCT_ID, LAST_EPOCH, LAST_SEQUENCE) VALUES (s.STORE_ID, s.PRODUCT_ID, s.EPOCH, s.SEQUENCE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryCacheWriter inventoryCacheWriter;
+    private final CentralStockAggregate centralStockAggregate;
+    private final StockChangeBroadcaster stockChangeBroadcaster;
+    private final StockLedger stockLedger;
+    private final StockReservations stockReservations;
+    private final InventoryIndex inventoryIndex;
+    private final MappedStockTable mappedStockTable;
+    private final StockLockManager stockLockManager;
+    private final StockRetryLog stockRetryLog;
+    // Ultima epoca vista por sucursal de origen, solo para detectar y registrar reinicios de publicadores
+    private final Map<Long, Long> epochsByStore = new ConcurrentHashMap<>();
+    private final Counter appliedCounter;
+    private final Counter skippedCounter;
+    private final Counter coalescedCounter;
+    private final Counter epochChangesCounter;
+    private final Timer batchTimer;
+
+    public InventoryEventApplier(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 InventoryCacheWriter inventoryCacheWriter, CentralStockAggregate centralStockAggregate,
+                                 StockChangeBroadcaster stockChangeBroadcaster, StockLedger stockLedger,
+                                 StockReservations stockReservations, InventoryIndex inventoryIndex,
+                                 MappedStockTable mappedStockTable, StockLockManager stockLockManager,
+                                 StockRetryLog stockRetryLog, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inventoryCacheWriter = inventoryCacheWriter;
+        this.centralStockAggregate = centralStockAggregate;
+        this.stockChangeBroadcaster = stockChangeBroadcaster;
+        this.stockLedger = stockLedger;
+        this.stockReservations = stockReservations;
+        this.inventoryIndex = inventoryIndex;
+        this.mappedStockTable = mappedStockTable;
+        this.stockLockManager = stockLockManager;
+        this.stockRetryLog = stockRetryLog;
+        this.appliedCounter = meterRegistry.counter("inventory.events.applied", "result", "applied");
+        this.skippedCounter = meterRegistry.counter("inventory.events.applied", "result", "skipped");
+        this.coalescedCounter = meterRegistry.counter("inventory.events.applied", "result", "coalesced");
+        this.epochChangesCounter = meterRegistry.counter("inventory.events.epoch-changes");
+        this.batchTimer = Timer.builder("inventory.events.apply")
+            .description("Tiempo de aplicacion de un lote de eventos remotos en la base")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Aplica un lote de eventos.
+     * @return cantidad de SKUs efectivamente modificados
+     */
+    public int apply(List<InventoryEventMessage> events) {
+        Map<ProductId, InventoryEventMessage> latest = new LinkedHashMap<>();
+        for (InventoryEventMessage event : events) {
+            trackEpoch(event);
+            latest.merge(new ProductId(event.productId(), event.storeId()), event,
+                (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        }
+        coalescedCounter.increment(events.size() - latest.size());
+
+        List<InventoryEventMessage> updates = new ArrayList<>();
+        List<InventoryEventMessage> deletes = new ArrayList<>();
+        for (InventoryEventMessage event : latest.values()) {
+            (event.action() == InventoryAction.DELETE_PRODUCT ? deletes : updates).add(event);
+        }
+
+        return stockLockManager.withLocks(latest.keySet(), () -> {
+            Applied result = batchTimer.record(() -> transactionTemplate.execute(status -> {
+                List<InventoryEventMessage> changed = new ArrayList<>(latest.size());
+                collectApplied(updates, jdbcTemplate.batchUpdate(UPDATE_SQL, guardedArgs(updates, true)), changed);
+                collectApplied(deletes, jdbcTemplate.batchUpdate(DELETE_SQL, guardedArgs(deletes, false)), changed);
+                List<Object[]> sequences = new ArrayList<>(latest.size());
+                for (InventoryEventMessage event : latest.values()) {
+                    sequences.add(new Object[] {event.storeId(), event.productId(), event.epoch(), event.sequence()});
+                }
+                jdbcTemplate.batchUpdate(SEQUENCE_SQL, sequences);
+                return new Applied(changed, stockLedger.recordRemote(changed));
+            }));
+            List<InventoryEventMessage> applied = result.events();
+
+            appliedCounter.increment(applied.size());
+            skippedCounter.increment(latest.size() - applied.size());
+            Set<Long> productIds = new LinkedHashSet<>();
+            for (int i = 0; i < applied.size(); i++) {
+                InventoryEventMessage event = applied.get(i);
+                long ledgerSequence = result.ledgerSequences()[i];
+                if (event.action() == InventoryAction.DELETE_PRODUCT) {
+                    inventoryCacheWriter.patchRemoved(event.storeId(), event.productId());
+                    inventoryIndex.onRemoved(event.storeId(), event.productId());
+                    mappedStockTable.onRemoved(event.storeId(), event.productId(), ledgerSequence);
+                } else {
+                    inventoryCacheWriter.patchQuantity(event.storeId(), event.productId(), event.quantity());
+                    inventoryIndex.onQuantity(event.storeId(), event.productId(), event.quantity());
+                    mappedStockTable.onQuantity(event.storeId(), event.productId(), event.quantity(), ledgerSequence);
+                }
+                int quantity = event.action() == InventoryAction.DELETE_PRODUCT ? 0 : event.quantity();
+                stockChangeBroadcaster.publish(event.storeId(), event.productId(), event.action().name(), quantity, null);
+                stockReservations.onQuantity(event.storeId(), event.productId(), quantity);
+                stockRetryLog.cancel(event.storeId(), event.productId());
+                productIds.add(event.productId());
+            }
+            centralStockAggregate.refresh(productIds);
+            return applied.size();
+        });
+    }
+
+    private void trackEpoch(InventoryEventMessage event) {
+        Long previous = epochsByStore.get(event.storeId());
+        if (previous != null && event.epoch() <= previous) {
+            return;
+        }
+        epochsByStore.merge(event.storeId(), event.epoch(), Math::max);
+        if (previous != null) {
+            epochChangesCounter.increment();
+            log.info("[KAFKA EVENT] La sucursal {} publica con una epoca nueva ({} -> {}): reinicio del publicador, sus secuencias vuelven a empezar",
+                event.storeId(), previous, event.epoch());
+        }
+    }
+
+    private static List<Object[]> guardedArgs(List<InventoryEventMessage> events, boolean withQuantity) {
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (InventoryEventMessage event : events) {
+            Object[] guard = {event.storeId(), event.productId(), event.storeId(), event.productId(), event.epoch(), event.epoch(), event.sequence()};
+            if (withQuantity) {
+                Object[] row = new Object[guard.length + 1];
+                row[0] = event.quantity();
+                System.arraycopy(guard, 0, row, 1, guard.length);
+                args.add(row);
+            } else {
+                args.add(guard);
+            }
+        }
+        return args;
+    }
+
+    private static void collectApplied(List<InventoryEventMessage> events, int[] counts, List<InventoryEventMessage> changed) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                changed.add(events.get(i));
+            }
+        }
+    }
+
+    // Eventos aplicados y el ID de STOCK_LEDGER de cada uno, en el mismo orden
+    private record Applied(List<InventoryEventMessage> events, long[] ledgerSequences) {
+    }
+}
@@ -2,15 +2,21 @@ package com.electrostore.inventory.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.electrostore.inventory.events.InventoryChange;
+import com.electrostore.inventory.events.InventoryChangeHandler;
+
+/**
+ * Registro de auditoria de los cambios de inventario. Corre en un hilo del InventoryEventBus, despues del
+ * commit, por lo que no suma latencia a la escritura.
+ */
 @Component
-public class InventoryEventListener {
+public class InventoryEventListener implements InventoryChangeHandler {
     private static final Logger log = LoggerFactory.getLogger(InventoryEventListener.class);
 
-    @EventListener
-    public void handleInventoryChange(InventoryChangeEvent event) {
-        log.info("[EVENT] Accion: {} | Producto: {} | Sucursal: {} | Cantidad: {}", event.getAction(), event.getProductId(), event.getStoreId(), event.getQuantity());
+    @Override
+    public void onChange(InventoryChange change) {
+        log.info("[EVENT] Accion: {} | Producto: {} | Sucursal: {} | Cantidad: {}", change.getAction(), change.getProductId(), change.getStoreId(), change.getQuantity());
     }
 }
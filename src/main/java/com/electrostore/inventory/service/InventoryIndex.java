@@ -0,0 +1,596 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.locks.StampedLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StoreDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Modelo de lectura en memoria de todo el inventario (opcional, inventory.read-model.enabled).
+ * Cuando esta listo, getInventoryByStore y el stock central se responden desde aca sin ir a la base ni al cache.
+ * Cada SKU es una fila en arreglos paralelos de primitivos (clave empaquetada sucursal/producto, cantidad y
+ * referencias a nombre y categoria, que se guardan una sola vez en un pool de strings). Un mapa long -> int de
+ * direccionamiento abierto ubica la fila de un SKU, y dos indices secundarios guardan las filas de cada sucursal
+ * (ordenadas por producto) y de cada producto (ordenadas por sucursal). No hay un objeto por SKU.
+ * Se carga al arrancar y se mantiene con cada InventoryChangeEvent confirmado (con el lock del SKU tomado, en orden de
+ * commit) y con los eventos remotos que aplica InventoryEventApplier. Los cambios que llegan durante la carga se
+ * encolan y se aplican al terminar; como llevan la cantidad absoluta, reaplicar uno ya incluido no cambia nada.
+ * Los ids de sucursal y producto deben estar entre 0 y Integer.MAX_VALUE; si no, el modelo no se activa.
+ * Lecturas y escrituras se coordinan con un StampedLock: las escrituras son O(1) salvo altas y bajas, que
+ * desplazan la lista de la sucursal y del producto.
+ */
+@Component("inventoryIndex")
+public class InventoryIndex {
+    private static final Logger log = LoggerFactory.getLogger(InventoryIndex.class);
+    private static final String DELETE_ACTION = "DELETE_PRODUCT";
+    private static final String CREATE_ACTION = "CREATE_PRODUCT";
+    // Encabezado y referencia aproximados de cada objeto auxiliar (listas, strings) en una JVM de 64 bits
+    private static final int OBJECT_OVERHEAD = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final StampedLock lock = new StampedLock();
+    private final Queue<Change> pending = new ArrayDeque<>();
+
+    // Filas: clave empaquetada, cantidad, nombre y categoria (indices en strings)
+    private long[] rowKeys = new long[0];
+    private int[] quantities = new int[0];
+    private int[] names = new int[0];
+    private int[] categories = new int[0];
+    private int rowCount;
+    private IntList freeRows = new IntList();
+    private LongIntHashMap rowBySku = new LongIntHashMap(16);
+    private LongIntHashMap storeLists = new LongIntHashMap(16);
+    private LongIntHashMap productLists = new LongIntHashMap(16);
+    private List<IntList> rowsByStore = new ArrayList<>();
+    private List<IntList> rowsByProduct = new ArrayList<>();
+    private Map<String, Integer> stringIds = new HashMap<>();
+    private List<String> strings = new ArrayList<>();
+    private Map<Long, StoreDTO> stores = new HashMap<>();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public InventoryIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                          @Value("${inventory.read-model.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        meterRegistry.gauge("inventory.read-model.skus", this, InventoryIndex::size);
+        meterRegistry.gauge("inventory.read-model.bytes", this, InventoryIndex::memoryBytes);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Carga todo el inventario desde la base. Las lecturas siguen yendo a la base (o al cache) hasta que termina.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            loading = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        long start = System.nanoTime();
+        try {
+            // Nadie mas toca la estructura mientras no esta lista: los cambios quedan en pending
+            jdbcTemplate.query("SELECT ID, NAME, LOCATION FROM STORE", rs -> {
+                StoreDTO store = new StoreDTO();
+                store.setId(rs.getLong("ID"));
+                store.setName(rs.getString("NAME"));
+                store.setLocation(rs.getString("LOCATION"));
+                stores.put(store.getId(), store);
+            });
+            jdbcTemplate.query("SELECT STORE_ID, ID, NAME, CATEGORY, QUANTITY FROM PRODUCT ORDER BY STORE_ID, ID", rs -> {
+                upsert(rs.getLong("STORE_ID"), rs.getLong("ID"), rs.getInt("QUANTITY"), rs.getString("NAME"), rs.getString("CATEGORY"));
+            });
+        } catch (RuntimeException ex) {
+            log.error("[READ MODEL] No se pudo cargar el modelo de lectura, se sigue leyendo de la base: {}", ex.getMessage());
+            stamp = lock.writeLock();
+            try {
+                loading = false;
+                pending.clear();
+                clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return;
+        }
+        int applied = 0;
+        stamp = lock.writeLock();
+        try {
+            for (Change change; (change = pending.poll()) != null; applied++) {
+                apply(change);
+            }
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("[READ MODEL] No se pudieron aplicar los cambios encolados, se sigue leyendo de la base: {}", ex.getMessage());
+            pending.clear();
+            clear();
+            return;
+        } finally {
+            loading = false;
+            lock.unlockWrite(stamp);
+        }
+        long bytes = memoryBytes();
+        int skus = size();
+        log.info("[READ MODEL] {} SKUs cargados en {} ms ({} cambios encolados durante la carga). Memoria: {} MB, {} bytes por SKU (~{} MB por millon de SKUs)",
+            skus, (System.nanoTime() - start) / 1_000_000, applied, bytes / (1024 * 1024),
+            skus == 0 ? 0 : bytes / skus, skus == 0 ? 0 : bytes * 1_000_000L / skus / (1024 * 1024));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (!active()) {
+            return;
+        }
+        if (DELETE_ACTION.equals(event.getAction())) {
+            onRemoved(event.getStoreId(), event.getProductId());
+        } else if (CREATE_ACTION.equals(event.getAction())) {
+            submit(loadChange(event.getStoreId(), event.getProductId()));
+        } else {
+            onQuantity(event.getStoreId(), event.getProductId(), event.getQuantity());
+        }
+    }
+
+    /**
+     * Actualiza la cantidad de un SKU. Si el SKU no esta en el modelo se lee su fila de la base.
+     */
+    public void onQuantity(Long storeId, Long productId, int quantity) {
+        if (!active()) {
+            return;
+        }
+        if (!contains(storeId, productId)) {
+            submit(loadChange(storeId, productId));
+            return;
+        }
+        submit(new Change(storeId, productId, quantity, null, null, false));
+    }
+
+    public void onRemoved(Long storeId, Long productId) {
+        if (active()) {
+            submit(new Change(storeId, productId, 0, null, null, true));
+        }
+    }
+
+    /**
+     * Productos de la sucursal ordenados por id, todos con la misma instancia de StoreDTO (lista vacia si no hay).
+     */
+    public List<ProductDTO> getInventoryByStore(Long storeId) {
+        long stamp = lock.readLock();
+        try {
+            int list = storeLists.get(storeId);
+            if (list < 0) {
+                return new ArrayList<>();
+            }
+            IntList rows = rowsByStore.get(list);
+            StoreDTO store = copy(stores.get(storeId), storeId);
+            List<ProductDTO> products = new ArrayList<>(rows.size);
+            for (int i = 0; i < rows.size; i++) {
+                int row = rows.values[i];
+                ProductDTO dto = new ProductDTO();
+                dto.setId(productId(rowKeys[row]));
+                dto.setName(strings.get(names[row]));
+                dto.setCategory(categories[row] < 0 ? null : strings.get(categories[row]));
+                dto.setQuantity(quantities[row]);
+                dto.setStore(store);
+                products.add(dto);
+            }
+            return products;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stock total del producto en todas las sucursales y, si se pide, el desglose por sucursal (ordenado por id).
+     */
+    public CentralStockDTO getCentralStock(Long productId, boolean byStore) {
+        long stamp = lock.readLock();
+        try {
+            int list = productLists.get(productId);
+            Map<Long, Integer> breakdown = byStore ? new LinkedHashMap<>() : null;
+            long total = 0;
+            if (list >= 0) {
+                IntList rows = rowsByProduct.get(list);
+                for (int i = 0; i < rows.size; i++) {
+                    int row = rows.values[i];
+                    total += quantities[row];
+                    if (byStore) {
+                        breakdown.put(storeId(rowKeys[row]), quantities[row]);
+                    }
+                }
+            }
+            return new CentralStockDTO(productId, total, breakdown);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Cantidad de SKUs en el modelo (0 mientras no esta listo).
+     */
+    public int size() {
+        if (!ready) {
+            return 0;
+        }
+        long stamp = lock.readLock();
+        try {
+            return rowBySku.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Memoria aproximada ocupada por el modelo, en bytes: arreglos de filas y de los mapas (por su capacidad,
+     * no por su uso), listas de los indices secundarios y pool de strings. 0 mientras no esta listo.
+     */
+    public long memoryBytes() {
+        if (!ready) {
+            return 0;
+        }
+        long stamp = lock.readLock();
+        try {
+            long bytes = (long) rowKeys.length * Long.BYTES + (long) quantities.length * Integer.BYTES * 3
+                + (long) freeRows.values.length * Integer.BYTES;
+            bytes += rowBySku.memoryBytes() + storeLists.memoryBytes() + productLists.memoryBytes();
+            for (IntList rows : rowsByStore) {
+                bytes += OBJECT_OVERHEAD + (long) rows.values.length * Integer.BYTES;
+            }
+            for (IntList rows : rowsByProduct) {
+                bytes += OBJECT_OVERHEAD + (long) rows.values.length * Integer.BYTES;
+            }
+            for (String value : strings) {
+                // String compacto (Latin-1): objeto, arreglo de un byte por caracter y entrada en stringIds
+                bytes += 3L * OBJECT_OVERHEAD + value.length();
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Listo o cargando: fuera de esos estados los cambios se descartan
+    private boolean active() {
+        return enabled && (ready || loading);
+    }
+
+    private boolean contains(Long storeId, Long productId) {
+        long stamp = lock.readLock();
+        try {
+            return ready && rowBySku.get(pack(storeId, productId)) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Lee la fila del SKU desde la base; si ya no existe el cambio es una baja.
+     */
+    private Change loadChange(Long storeId, Long productId) {
+        List<Change> rows = jdbcTemplate.query("SELECT NAME, CATEGORY, QUANTITY FROM PRODUCT WHERE STORE_ID = ? AND ID = ?",
+            (rs, rowNum) -> new Change(storeId, productId, rs.getInt("QUANTITY"), rs.getString("NAME"), rs.getString("CATEGORY"), false),
+            storeId, productId);
+        return rows.isEmpty() ? new Change(storeId, productId, 0, null, null, true) : rows.get(0);
+    }
+
+    private void submit(Change change) {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (ready) {
+                apply(change);
+            } else if (loading) {
+                pending.add(change);
+            }
+        } catch (RuntimeException ex) {
+            // Un id fuera de rango u otro error deja el modelo desactualizado: se vuelve a leer de la base
+            ready = false;
+            log.error("[READ MODEL] No se pudo aplicar el cambio del producto {} en la sucursal {}, se desactiva el modelo de lectura: {}",
+                change.productId(), change.storeId(), ex.getMessage());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void apply(Change change) {
+        if (change.removed()) {
+            remove(change.storeId(), change.productId());
+        } else if (change.name() != null) {
+            upsert(change.storeId(), change.productId(), change.quantity(), change.name(), change.category());
+        } else {
+            int row = rowBySku.get(pack(change.storeId(), change.productId()));
+            if (row >= 0) {
+                quantities[row] = change.quantity();
+            }
+        }
+    }
+
+    private void upsert(long storeId, long productId, int quantity, String name, String category) {
+        long key = pack(storeId, productId);
+        int row = rowBySku.get(key);
+        if (row < 0) {
+            row = freeRows.size > 0 ? freeRows.removeLast() : newRow();
+            rowKeys[row] = key;
+            rowBySku.put(key, row);
+            insertSorted(list(storeLists, rowsByStore, storeId), row, true);
+            insertSorted(list(productLists, rowsByProduct, productId), row, false);
+        }
+        quantities[row] = quantity;
+        names[row] = intern(name);
+        categories[row] = category == null ? -1 : intern(category);
+    }
+
+    private void remove(long storeId, long productId) {
+        long key = pack(storeId, productId);
+        int row = rowBySku.remove(key);
+        if (row < 0) {
+            return;
+        }
+        rowsByStore.get(storeLists.get(storeId)).remove(row);
+        rowsByProduct.get(productLists.get(productId)).remove(row);
+        rowKeys[row] = -1;
+        freeRows.add(row);
+    }
+
+    private int newRow() {
+        if (rowCount == rowKeys.length) {
+            int capacity = Math.max(1024, rowKeys.length + (rowKeys.length >> 1));
+            rowKeys = Arrays.copyOf(rowKeys, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            names = Arrays.copyOf(names, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+        return rowCount++;
+    }
+
+    private static IntList list(LongIntHashMap lists, List<IntList> rows, long id) {
+        int index = lists.get(id);
+        if (index < 0) {
+            index = rows.size();
+            rows.add(new IntList());
+            lists.put(id, index);
+        }
+        return rows.get(index);
+    }
+
+    /**
+     * Inserta la fila manteniendo la lista ordenada por producto (lista de una sucursal) o por sucursal
+     * (lista de un producto). En la carga las filas llegan ordenadas y siempre se agregan al final.
+     */
+    private void insertSorted(IntList rows, int row, boolean byProduct) {
+        long id = byProduct ? productId(rowKeys[row]) : storeId(rowKeys[row]);
+        int position = rows.size;
+        while (position > 0) {
+            long previous = byProduct ? productId(rowKeys[rows.values[position - 1]]) : storeId(rowKeys[rows.values[position - 1]]);
+            if (previous < id) {
+                break;
+            }
+            position--;
+        }
+        rows.insert(position, row);
+    }
+
+    private int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    private void clear() {
+        rowKeys = new long[0];
+        quantities = new int[0];
+        names = new int[0];
+        categories = new int[0];
+        rowCount = 0;
+        freeRows = new IntList();
+        rowBySku = new LongIntHashMap(16);
+        storeLists = new LongIntHashMap(16);
+        productLists = new LongIntHashMap(16);
+        rowsByStore = new ArrayList<>();
+        rowsByProduct = new ArrayList<>();
+        stringIds = new HashMap<>();
+        strings = new ArrayList<>();
+        stores = new HashMap<>();
+    }
+
+    private static StoreDTO copy(StoreDTO source, Long storeId) {
+        StoreDTO store = new StoreDTO();
+        store.setId(storeId);
+        if (source != null) {
+            store.setName(source.getName());
+            store.setLocation(source.getLocation());
+        }
+        return store;
+    }
+
+    static long pack(long storeId, long productId) {
+        if (storeId < 0 || storeId > Integer.MAX_VALUE || productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id fuera de rango para el modelo de lectura: sucursal " + storeId + ", producto " + productId);
+        }
+        return storeId << 32 | productId;
+    }
+
+    static long storeId(long key) {
+        return key >>> 32;
+    }
+
+    static long productId(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    private record Change(Long storeId, Long productId, int quantity, String name, String category, boolean removed) {
+    }
+
+    /**
+     * Lista creciente de int sin boxing.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            insert(size, value);
+        }
+
+        void insert(int index, int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+    }
+
+    /**
+     * Mapa long -> int de direccionamiento abierto con sondeo lineal. Las claves no pueden ser negativas
+     * (-1 marca un casillero libre) y get devuelve -1 si la clave no esta.
+     */
+    static final class LongIntHashMap {
+        private static final long FREE = -1L;
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        LongIntHashMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1) << 1);
+            allocate(capacity);
+        }
+
+        int get(long key) {
+            for (int i = index(key); ; i = (i + 1) & mask) {
+                long current = keys[i];
+                if (current == key) {
+                    return values[i];
+                }
+                if (current == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            for (int i = index(key); ; i = (i + 1) & mask) {
+                long current = keys[i];
+                if (current == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (current == FREE) {
+                    keys[i] = key;
+                    values[i] = value;
+                    // Factor de carga maximo 0.75
+                    if (++size > (mask + 1) - ((mask + 1) >> 2)) {
+                        rehash(keys.length * 2);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Quita la clave y devuelve su valor (-1 si no estaba). Reacomoda las claves siguientes del mismo
+         * grupo para no dejar marcas de borrado.
+         */
+        int remove(long key) {
+            int i = index(key);
+            while (keys[i] != key) {
+                if (keys[i] == FREE) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+            int gap = i;
+            for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+                int home = index(keys[j]);
+                // La clave en j puede ocupar el hueco si su casillero ideal no esta entre el hueco y j
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = FREE;
+            size--;
+            return value;
+        }
+
+        long memoryBytes() {
+            return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+        }
+
+        private int index(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            values = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+    }
+}
@@ -1,36 +1,51 @@
 package com.electrostore.inventory.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.InventoryPageDTO;
 import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.ReservationDTO;
+import com.electrostore.inventory.dto.StockUpdateItem;
+import com.electrostore.inventory.dto.StockUpdateResult;
 import com.electrostore.inventory.dto.StoreDTO;
+import com.electrostore.inventory.exception.InsufficientStockException;
 import com.electrostore.inventory.exception.ProductNotInStoreException;
 import com.electrostore.inventory.model.Product;
 import com.electrostore.inventory.model.ProductId;
 import com.electrostore.inventory.model.Store;
 import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductStoreQuantityView;
+import com.electrostore.inventory.repository.ProductStoreView;
+import com.electrostore.inventory.repository.ProductTotalView;
 import com.electrostore.inventory.repository.StoreRepository;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import jakarta.transaction.Transactional;
 
 @Service
 public class InventoryService {
@@ -39,14 +54,32 @@ public class InventoryService {
     private final StoreRepository storeRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final MeterRegistry meterRegistry;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final StockLockManager stockLockManager;
+    private final InventoryCacheWriter inventoryCacheWriter;
+    private final StoreInventoryLoader storeInventoryLoader;
+    private final CentralStockAggregate centralStockAggregate;
+    private final StockRetryLog stockRetryLog;
+    private final StockReservations stockReservations;
+    private final InventoryIndex inventoryIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
     private Counter stockUpdateCounter;
 
-    // Control de concurrencia por producto
-    private final Map<Long, ReentrantLock> productLocks = new ConcurrentHashMap<>();
+    // Tamaño de cada transaccion en las actualizaciones masivas
+    @Value("${inventory.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
 
-    // Cola en memoria para operaciones fallidas
-    private final Queue<Runnable> failedOperationsQueue = new ConcurrentLinkedQueue<>();
+    // Stripes de lock que puede tomar como maximo cada transaccion de una actualizacion masiva
+    @Value("${inventory.batch.max-stripes-per-chunk:64}")
+    private int batchMaxStripes = 64;
+
+    // Tamaño maximo de pagina en la consulta paginada de inventario
+    @Value("${inventory.page.max-size:1000}")
+    private int maxPageSize = 1000;
+
+    // Cantidad de productos por consulta en el stock central masivo (limita el tamaño del IN)
+    @Value("${inventory.central.query-chunk-size:1000}")
+    private int centralQueryChunkSize = 1000;
 
     // Mapeo de entidades a DTOs
     private StoreDTO toStoreDTO(Store store) {
@@ -58,71 +91,330 @@ public class InventoryService {
         return dto;
     }
 
-    private ProductDTO toProductDTO(Product product) {
+    private ProductDTO toProductDTO(Product product, StoreDTO store) {
         if (product == null) return null;
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getProductId().getId());
         dto.setName(product.getName());
         dto.setCategory(product.getCategory());
         dto.setQuantity(product.getQuantity());
-        Store store = storeRepository.findById(product.getProductId().getStoreId()).orElse(null);
-        dto.setStore(toStoreDTO(store));
+        dto.setStore(store);
         return dto;
     }
 
     /**
      * Consulta el inventario de una tienda, usando cache distribuido Redis o en memoria para lecturas rapidas.
-     * Si el cache expira, se consulta la base de datos.
-     * Devuelve una lista de ProductDTO.
+     * Si el cache expira, se consulta la base de datos con una unica consulta que trae productos y sucursal.
+     * Devuelve una lista de ProductDTO que comparten el mismo StoreDTO.
+     * Con el modelo de lectura en memoria activo (InventoryIndex) se responde desde el y no se usa el cache.
+     * La carga pasa por InventoryCacheWriter.getOrLoad y no por @Cacheable: una lista leida mientras se confirmaba
+     * una escritura no se guarda, porque el parche de esa escritura ya no la encontro en el cache.
      */
-    @Cacheable(value = "inventoryByStore", key = "#storeId")
     public List<ProductDTO> getInventoryByStore(Long storeId) {
-        log.info("[CACHE MISS] Consultando inventario en base de datos para la sucursal {}", storeId);
-        List<Product> products = productRepository.findByProductId_StoreId(storeId);
-        List<ProductDTO> dtos = new ArrayList<>();
-        for (Product p : products) {
-            dtos.add(toProductDTO(p));
+        if (inventoryIndex.isReady()) {
+            return inventoryIndex.getInventoryByStore(storeId);
         }
-        return dtos;
+        return inventoryCacheWriter.getOrLoad(storeId, storeInventoryLoader::load);
+    }
+
+    /**
+     * Consulta una pagina del inventario de una tienda usando paginacion por clave (keyset):
+     * devuelve los productos con id mayor a afterId, ordenados por id, opcionalmente filtrados por categoria.
+     * A diferencia de OFFSET, el costo de cada pagina no crece con la posicion.
+     * @param afterId ultimo id de la pagina anterior (null para la primera)
+     * @param limit cantidad maxima de productos (se acota a inventory.page.max-size)
+     */
+    public InventoryPageDTO getInventoryPage(Long storeId, Long afterId, String category, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        log.info("Consultando pagina de inventario de sucursal {} despues de {} (limite {})", storeId, afterId, size);
+        // Se pide una fila de mas para saber si existe una pagina siguiente
+        List<ProductStoreView> rows = productRepository.findInventoryPage(storeId, afterId == null ? Long.MIN_VALUE : afterId,
+            category, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<ProductStoreView> page = hasMore ? rows.subList(0, size) : rows;
+        Long nextAfterId = hasMore ? page.get(page.size() - 1).id() : null;
+        return new InventoryPageDTO(storeInventoryLoader.toProductDTOs(page), nextAfterId);
+    }
+
+    /**
+     * Recorre el inventario completo de una tienda entregando cada producto al consumidor a medida que
+     * se lee de la base, sin construir la lista en memoria. No usa el cache.
+     */
+    public void streamInventoryByStore(Long storeId, String category, Consumer<ProductDTO> consumer) {
+        log.info("Recorriendo inventario de sucursal {} en streaming", storeId);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductStoreView> rows = productRepository.streamInventoryByStoreId(storeId, category)) {
+                StoreDTO[] store = new StoreDTO[1];
+                rows.forEach(row -> {
+                    if (store[0] == null) {
+                        store[0] = storeInventoryLoader.toStoreDTO(row);
+                    }
+                    consumer.accept(storeInventoryLoader.toProductDTO(row, store[0]));
+                });
+            }
+        });
     }
 
     /**
      * Actualiza el stock de un producto en una tienda especifica.
-     * Prioriza consistencia sobre disponibilidad: usa @Transactional y control de concurrencia.
-     * Si falla la operacion, se guarda en la cola para reintento.
+     * Prioriza consistencia sobre disponibilidad: el lock del SKU se toma antes de abrir la transaccion
+     * y se libera despues del commit, asi dos actualizaciones concurrentes nunca se intercalan.
+     * El evento para Kafka se registra en el outbox dentro de la misma transaccion (ver InventoryOutbox),
+     * por lo que solo se publican los cambios confirmados.
+     * Si falla la operacion por un error transitorio, se registra en el StockRetryLog y StockRetryDrainer la reintenta.
      */
     @Retry(name = "updateProductStockRetry")
     @CircuitBreaker(name = "updateProductStockCB", fallbackMethod = "updateProductStockFallback")
-    @Transactional
     public boolean updateProductStock(Long storeId, Long productId, int quantity) {
         log.info("Actualizando stock del producto {} en sucursal {} a {} unidades", productId, storeId, quantity);
         stockUpdateCounter.increment(); // Metrica personalizada
-        // Publicar evento en Kafka
-        kafkaTemplate.send("inventory-events", String.format("Stock actualizado: producto=%d, sucursal=%d, cantidad=%d", productId, storeId, quantity));
-        // Simulacion de fallo de base de datos
-        if (quantity == 9999) {
-            log.error("Simulacion de fallo de base de datos en updateProductStock");
-            throw new DataAccessException("Simulacion de fallo de base de datos") {};
+        return applyStockUpdate(storeId, productId, quantity);
+    }
+
+    /**
+     * Aplica la actualizacion de stock con el lock del SKU tomado, sin reintentos ni circuit breaker.
+     * La usa updateProductStock y el reintento de StockRetryDrainer.
+     */
+    public boolean applyStockUpdate(Long storeId, Long productId, int quantity) {
+        return stockLockManager.withLock(new ProductId(productId, storeId), () -> {
+            boolean updated = transactionTemplate.execute(status -> {
+                Store store = storeRepository.findById(storeId)
+                    .orElseThrow(() -> new com.electrostore.inventory.exception.StoreNotFoundException(storeId));
+                Product product = productRepository.findByProductId_IdAndProductId_StoreId(productId, storeId);
+                if (product == null) {
+                    throw new ProductNotInStoreException(productId, storeId);
+                }
+                if (quantity < 0) {
+                    return false;
+                }
+                int previous = product.getQuantity();
+                product.setQuantity(quantity);
+                productRepository.save(product);
+                eventPublisher.publishEvent(new InventoryChangeEvent(this, productId, storeId, "UPDATE_STOCK", quantity, quantity - previous));
+                return true;
+            });
+            // Ya confirmada la transaccion y todavia con el lock del SKU: los parches quedan en orden de commit
+            if (updated) {
+                inventoryCacheWriter.patchQuantity(storeId, productId, quantity);
+                // Un reintento pendiente de este SKU tiene un valor mas viejo: ya no debe aplicarse
+                stockRetryLog.cancel(storeId, productId);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Ajusta el stock de un producto sumando un delta (positivo para ingresos, negativo para ventas).
+     * Se resuelve con un unico UPDATE condicional en la base, sin cargar la entidad:
+     * si el ajuste dejaria el stock negativo la base no modifica la fila y se rechaza la operacion.
+     * El UPDATE ya bloquea la fila, pero ademas se toma el lock del SKU durante toda la transaccion, incluidos el
+     * commit, los listeners AFTER_COMMIT (bus de eventos, tabla mapeada, stock central, reservas) y el parche del
+     * cache: asi todos reciben las cantidades en el mismo orden en que se confirmaron, y StockReservations compara
+     * lo reservado contra una cantidad que no cambia hasta que el ajuste esta confirmado y publicado.
+     * Un reintento pendiente del SKU se descarta: es un valor absoluto anterior y pisaria el ajuste.
+     * Un ajuste negativo tampoco puede dejar el stock por debajo de las unidades reservadas (ver StockReservations).
+     * @return la cantidad resultante luego del ajuste
+     */
+    public int adjustProductStock(Long storeId, Long productId, int delta) {
+        log.info("Ajustando stock del producto {} en sucursal {} en {} unidades", productId, storeId, delta);
+        return adjustStock(storeId, productId, delta, 0);
+    }
+
+    /**
+     * @param ownHold unidades reservadas que se estan confirmando con este ajuste: no cuentan como reservadas
+     */
+    private int adjustStock(Long storeId, Long productId, int delta, int ownHold) {
+        return stockLockManager.withLock(new ProductId(productId, storeId), () -> {
+            int quantity = transactionTemplate.execute(status -> {
+                int updated = productRepository.adjustQuantity(storeId, productId, delta);
+                Integer current = productRepository.findQuantity(storeId, productId);
+                if (current == null) {
+                    throw new ProductNotInStoreException(productId, storeId);
+                }
+                if (updated == 0) {
+                    throw new InsufficientStockException(productId, storeId, current, delta);
+                }
+                // Con el lock del SKU tomado la cantidad no cambia hasta el commit; una reserva simultanea todavia ve la
+                // cantidad anterior y puede quedar sin stock, en cuyo caso se rechaza al confirmarla
+                int held = delta < 0 ? stockReservations.reserved(storeId, productId) - ownHold : 0;
+                if (current < held) {
+                    throw new InsufficientStockException(productId, storeId, Math.max(0, current - delta - held), delta);
+                }
+                eventPublisher.publishEvent(new InventoryChangeEvent(this, productId, storeId, "ADJUST_STOCK", current, delta));
+                return current;
+            });
+            inventoryCacheWriter.patchQuantity(storeId, productId, quantity);
+            stockRetryLog.cancel(storeId, productId);
+            return quantity;
+        });
+    }
+
+    /**
+     * Reserva unidades de un producto para un checkout, sin modificar el stock en la base.
+     * Las unidades reservadas dejan de estar disponibles para vender hasta que la reserva se confirma, se libera o vence.
+     * @param ttl vigencia de la reserva; null para usar la configurada por defecto
+     */
+    public ReservationDTO reserveStock(Long storeId, Long productId, int quantity, Duration ttl) {
+        log.info("Reservando {} unidades del producto {} en sucursal {}", quantity, productId, storeId);
+        StockReservations.Reservation reservation = stockReservations.reserve(storeId, productId, quantity, ttl);
+        return new ReservationDTO(reservation.id(), reservation.storeId(), reservation.productId(), reservation.quantity(), reservation.expiresAt());
+    }
+
+    /**
+     * Confirma una reserva descontando sus unidades del stock con el ajuste condicional de adjustProductStock.
+     * Si el stock ya no alcanza (p.ej. una actualizacion absoluta lo redujo) la reserva se libera y se rechaza.
+     * @return la cantidad resultante luego del descuento
+     */
+    public int confirmReservation(String reservationId) {
+        StockReservations.Reservation reservation = stockReservations.claim(reservationId);
+        log.info("Confirmando reserva {} de {} unidades del producto {} en sucursal {}", reservationId,
+            reservation.quantity(), reservation.productId(), reservation.storeId());
+        boolean confirmed = false;
+        try {
+            int quantity = adjustStock(reservation.storeId(), reservation.productId(), -reservation.quantity(), reservation.quantity());
+            confirmed = true;
+            return quantity;
+        } finally {
+            // La cantidad ya descontada llego al SKU despues del commit: recien ahora se quita lo reservado
+            stockReservations.settle(reservation, confirmed);
+        }
+    }
+
+    /**
+     * Libera una reserva sin modificar el stock.
+     */
+    public void releaseReservation(String reservationId) {
+        log.info("Liberando reserva {}", reservationId);
+        stockReservations.release(reservationId);
+    }
+
+    /**
+     * Stock disponible para vender de un producto en una sucursal: cantidad menos reservas activas.
+     */
+    public int getAvailableToSell(Long storeId, Long productId) {
+        return stockReservations.availableToSell(storeId, productId);
+    }
+
+    /**
+     * Actualiza en lote el stock (valor absoluto) de muchos productos de una misma tienda.
+     * Los items se aplican en transacciones de a lo sumo batchChunkSize items que tomen como mucho batchMaxStripes
+     * stripes de lock (ver partitionBatch): cada bloque carga sus productos con una sola consulta y Hibernate envia
+     * los UPDATE agrupados en batches JDBC. Un bloque que falla (en la base o al abrir o confirmar su transaccion)
+     * no afecta a los demas y sus items se reportan como FAILED. El cache de la tienda se invalida una unica vez.
+     * @return resultado por item, en el mismo orden recibido
+     */
+    public List<StockUpdateResult> updateProductStockBatch(Long storeId, List<StockUpdateItem> items) {
+        log.info("Actualizacion masiva de stock en sucursal {}: {} items", storeId, items.size());
+        if (!storeRepository.existsById(storeId)) {
+            throw new com.electrostore.inventory.exception.StoreNotFoundException(storeId);
+        }
+        List<StockUpdateResult> results = new ArrayList<>(items.size());
+        for (List<StockUpdateItem> chunk : partitionBatch(storeId, items)) {
+            results.addAll(applyStockChunk(storeId, chunk));
+        }
+        inventoryCacheWriter.evict(storeId);
+        stockUpdateCounter.increment(items.size());
+        return results;
+    }
+
+    /**
+     * Parte los items, en orden, en bloques de hasta batchChunkSize items cuyos SKUs caigan en a lo sumo
+     * batchMaxStripes stripes de lock. Sin ese tope un bloque de 500 productos tomaria casi todos los stripes
+     * durante su transaccion y frenaria cualquier otra escritura de stock.
+     */
+    List<List<StockUpdateItem>> partitionBatch(Long storeId, List<StockUpdateItem> items) {
+        int chunkSize = Math.max(1, batchChunkSize);
+        int maxStripes = Math.max(1, batchMaxStripes);
+        List<List<StockUpdateItem>> chunks = new ArrayList<>();
+        List<StockUpdateItem> current = new ArrayList<>();
+        Set<Integer> stripes = new HashSet<>();
+        for (StockUpdateItem item : items) {
+            Integer stripe = item.getProductId() == null ? null
+                : stockLockManager.stripeIndex(new ProductId(item.getProductId(), storeId));
+            boolean needsNewStripe = stripe != null && !stripes.contains(stripe);
+            if (current.size() == chunkSize || (needsNewStripe && stripes.size() == maxStripes)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                stripes.clear();
+            }
+            current.add(item);
+            if (stripe != null) {
+                stripes.add(stripe);
+            }
         }
-        Store store = storeRepository.findById(storeId)
-            .orElseThrow(() -> new com.electrostore.inventory.exception.StoreNotFoundException(storeId));
-        Product product = productRepository.findByProductId_IdAndProductId_StoreId(productId, storeId);
-        if (product == null) {
-            throw new ProductNotInStoreException(productId, storeId);
+        if (!current.isEmpty()) {
+            chunks.add(current);
         }
-        if (quantity < 0) {
-            return false;
+        return chunks;
+    }
+
+    private List<StockUpdateResult> applyStockChunk(Long storeId, List<StockUpdateItem> chunk) {
+        List<ProductId> ids = new ArrayList<>(chunk.size());
+        List<Long> productIds = new ArrayList<>(chunk.size());
+        for (StockUpdateItem item : chunk) {
+            if (item.getProductId() != null) {
+                ids.add(new ProductId(item.getProductId(), storeId));
+                productIds.add(item.getProductId());
+            }
         }
-        product.setQuantity(quantity);
-        productRepository.save(product);
-        eventPublisher.publishEvent(new InventoryChangeEvent(this, productId, storeId, "UPDATE_STOCK", quantity));
-        return true;
+        return stockLockManager.withLocks(ids, () -> {
+            List<StockUpdateResult> results;
+            try {
+                results = applyStockChunkInTransaction(storeId, chunk, productIds);
+            } catch (RuntimeException ex) {
+                // Cualquier falla de la transaccion (DataAccessException, TransactionException al abrir o confirmar)
+                // deja el bloque sin aplicar; los bloques ya confirmados conservan su resultado
+                log.error("Fallo un bloque de la actualizacion masiva en sucursal {}: {}", storeId, ex.getMessage());
+                results = new ArrayList<>(chunk.size());
+                for (StockUpdateItem item : chunk) {
+                    results.add(new StockUpdateResult(item.getProductId(), StockUpdateResult.Status.FAILED, ex.getMessage()));
+                }
+                return results;
+            }
+            for (StockUpdateResult result : results) {
+                if (result.getStatus() == StockUpdateResult.Status.UPDATED) {
+                    stockRetryLog.cancel(storeId, result.getProductId());
+                }
+            }
+            return results;
+        });
+    }
+
+    private List<StockUpdateResult> applyStockChunkInTransaction(Long storeId, List<StockUpdateItem> chunk, List<Long> productIds) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Product> products = new HashMap<>();
+            for (Product p : productRepository.findByProductId_StoreIdAndProductId_IdIn(storeId, productIds)) {
+                products.put(p.getProductId().getId(), p);
+            }
+            List<StockUpdateResult> results = new ArrayList<>(chunk.size());
+            List<Product> changed = new ArrayList<>(chunk.size());
+            for (StockUpdateItem item : chunk) {
+                Product product = item.getProductId() == null ? null : products.get(item.getProductId());
+                if (item.getProductId() == null || item.getQuantity() < 0) {
+                    results.add(new StockUpdateResult(item.getProductId(), StockUpdateResult.Status.INVALID, "Producto o cantidad invalidos"));
+                } else if (product == null) {
+                    results.add(new StockUpdateResult(item.getProductId(), StockUpdateResult.Status.NOT_FOUND,
+                        "El producto " + item.getProductId() + " no existe en la sucursal " + storeId));
+                } else {
+                    int previous = product.getQuantity();
+                    product.setQuantity(item.getQuantity());
+                    changed.add(product);
+                    results.add(new StockUpdateResult(item.getProductId(), StockUpdateResult.Status.UPDATED, null));
+                    eventPublisher.publishEvent(new InventoryChangeEvent(this, item.getProductId(), storeId, "UPDATE_STOCK", item.getQuantity(), item.getQuantity() - previous));
+                }
+            }
+            productRepository.saveAll(changed);
+            return results;
+        });
     }
 
-    // Fallback para circuit breaker
+    // Fallback para circuit breaker: los errores transitorios quedan en el log de reintentos
     public boolean updateProductStockFallback(Long storeId, Long productId, int quantity, Throwable t) {
         log.error("Fallo en updateProductStock con circuit breaker: {}", t.getMessage());
-        failedOperationsQueue.add(() -> updateProductStock(storeId, productId, quantity));
+        OperationOutcome.markFallback(t);
+        if (t instanceof DataAccessException || t instanceof CallNotPermittedException) {
+            stockRetryLog.append(storeId, productId, quantity);
+        }
         return false;
     }
 
@@ -135,68 +427,134 @@ public class InventoryService {
 
     /**
      * Consulta el stock total de un producto sumando todas las sucursales.
+     * Se resuelve en O(1) desde el agregado mantenido en memoria; mientras el agregado no termino
+     * de construirse al arrancar, suma las filas en la base.
      * @param productId ID del producto
      * @return cantidad total en stock
      */
     public int getCentralStock(Long productId) {
         log.info("Consultando stock central para producto {}", productId);
+        if (inventoryIndex.isReady()) {
+            return (int) inventoryIndex.getCentralStock(productId, false).getTotal();
+        }
+        if (centralStockAggregate.isReady()) {
+            return centralStockAggregate.getTotal(productId);
+        }
         List<Product> products = productRepository.findByProductId_Id(productId);
         return products.stream().mapToInt(Product::getQuantity).sum();
     }
 
+    /**
+     * Consulta el stock central de muchos productos a la vez.
+     * @param productIds productos a consultar (los duplicados se ignoran)
+     * @param byStore si se incluye el desglose por sucursal
+     * @return un elemento por producto, en el orden pedido; los productos inexistentes devuelven total 0
+     */
+    public List<CentralStockDTO> getCentralStock(List<Long> productIds, boolean byStore) {
+        List<CentralStockDTO> results = new ArrayList<>(productIds.size());
+        streamCentralStock(productIds, byStore, results::add);
+        return results;
+    }
+
+    /**
+     * Igual que getCentralStock(List, boolean) pero entrega cada resultado al consumidor apenas se calcula.
+     * Los ids se procesan en bloques de centralQueryChunkSize, cada uno con una unica consulta agregada
+     * (GROUP BY, o las filas ordenadas por producto si se pide el desglose), por lo que la memoria usada
+     * no depende de la cantidad total de productos pedidos.
+     */
+    public void streamCentralStock(List<Long> productIds, boolean byStore, Consumer<CentralStockDTO> consumer) {
+        log.info("Consultando stock central para {} productos (desglose por sucursal: {})", productIds.size(), byStore);
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        if (inventoryIndex.isReady()) {
+            for (Long id : ids) {
+                consumer.accept(inventoryIndex.getCentralStock(id, byStore));
+            }
+            return;
+        }
+        int chunkSize = Math.max(1, centralQueryChunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Map<Long, CentralStockDTO> found = new HashMap<>();
+            if (byStore) {
+                for (ProductStoreQuantityView row : productRepository.findStoreQuantitiesByProductIds(chunk)) {
+                    CentralStockDTO dto = found.computeIfAbsent(row.productId(), id -> new CentralStockDTO(id, 0, new LinkedHashMap<>()));
+                    dto.setTotal(dto.getTotal() + row.quantity());
+                    dto.getStores().put(row.storeId(), row.quantity());
+                }
+            } else {
+                for (ProductTotalView row : productRepository.sumQuantityByProductIds(chunk)) {
+                    found.put(row.productId(), new CentralStockDTO(row.productId(), row.total(), null));
+                }
+            }
+            for (Long id : chunk) {
+                CentralStockDTO dto = found.get(id);
+                consumer.accept(dto != null ? dto : new CentralStockDTO(id, 0, byStore ? Map.of() : null));
+            }
+        }
+    }
+
     /**
      * Crea un nuevo producto en una tienda especifica.
      * Lanza excepcion si la tienda no existe.
      */
-    @Transactional
     public ProductDTO createProduct(Long storeId, ProductDTO productDTO) {
         log.info("Creando producto {} en sucursal {}", productDTO.getId(), storeId);
-        Store store = storeRepository.findById(storeId)
-            .orElseThrow(() -> new com.electrostore.inventory.exception.StoreNotFoundException(storeId));
         ProductId pid = new ProductId(productDTO.getId(), storeId);
-        Product product = Product.builder()
-            .productId(pid)
-            .name(productDTO.getName())
-            .category(productDTO.getCategory())
-            .quantity(productDTO.getQuantity())
-            .build();
-        Product saved = productRepository.save(product);
-        eventPublisher.publishEvent(new InventoryChangeEvent(this, productDTO.getId(), storeId, "CREATE_PRODUCT", productDTO.getQuantity()));
-        return toProductDTO(saved);
+        return stockLockManager.withLock(pid, () -> {
+            ProductDTO created = transactionTemplate.execute(status -> {
+                Store store = storeRepository.findById(storeId)
+                    .orElseThrow(() -> new com.electrostore.inventory.exception.StoreNotFoundException(storeId));
+                Product product = Product.builder()
+                    .productId(pid)
+                    .name(productDTO.getName())
+                    .category(productDTO.getCategory())
+                    .quantity(productDTO.getQuantity())
+                    .build();
+                Product saved = productRepository.save(product);
+                eventPublisher.publishEvent(new InventoryChangeEvent(this, productDTO.getId(), storeId, "CREATE_PRODUCT", productDTO.getQuantity(), productDTO.getQuantity()));
+                return toProductDTO(saved, toStoreDTO(store));
+            });
+            inventoryCacheWriter.patchCreated(storeId, created);
+            return created;
+        });
     }
 
     /**
      * Elimina un producto por su ID y tienda.
      * Lanza excepcion si el producto no existe o no pertenece a la tienda.
      */
-    @Transactional
     public void deleteProductFromStore(Long storeId, Long productId) {
         log.info("Eliminando producto {} de sucursal {}", productId, storeId);
-        Product product = productRepository.findByProductId_IdAndProductId_StoreId(productId, storeId);
-        if (product == null) {
-            throw new ProductNotInStoreException(productId, storeId);
-        }
-        productRepository.delete(product);
-        eventPublisher.publishEvent(new InventoryChangeEvent(this, productId, storeId, "DELETE_PRODUCT", 0));
-    }
-
-    /**
-     * Reintenta operaciones fallidas guardadas en la cola local.
-     * Útil para garantizar consistencia eventual en escenarios de error.
-     */
-    public void retryFailedOperations() {
-        while (!failedOperationsQueue.isEmpty()) {
-            Runnable op = failedOperationsQueue.poll();
-            if (op != null) op.run();
-        }
+        stockLockManager.withLock(new ProductId(productId, storeId), () -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.findByProductId_IdAndProductId_StoreId(productId, storeId);
+                if (product == null) {
+                    throw new ProductNotInStoreException(productId, storeId);
+                }
+                productRepository.delete(product);
+                eventPublisher.publishEvent(new InventoryChangeEvent(this, productId, storeId, "DELETE_PRODUCT", 0, -product.getQuantity()));
+            });
+            inventoryCacheWriter.patchRemoved(storeId, productId);
+            stockRetryLog.cancel(storeId, productId);
+            return null;
+        });
     }
 
-    public InventoryService(ProductRepository productRepository, StoreRepository storeRepository, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, KafkaTemplate<String, String> kafkaTemplate) {
+    public InventoryService(ProductRepository productRepository, StoreRepository storeRepository, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, StockLockManager stockLockManager, InventoryCacheWriter inventoryCacheWriter, StoreInventoryLoader storeInventoryLoader, CentralStockAggregate centralStockAggregate, StockRetryLog stockRetryLog, StockReservations stockReservations, InventoryIndex inventoryIndex, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
         this.storeRepository = storeRepository;
         this.eventPublisher = eventPublisher;
         this.meterRegistry = meterRegistry;
-        this.kafkaTemplate = kafkaTemplate;
+        this.stockLockManager = stockLockManager;
+        this.inventoryCacheWriter = inventoryCacheWriter;
+        this.storeInventoryLoader = storeInventoryLoader;
+        this.centralStockAggregate = centralStockAggregate;
+        this.stockRetryLog = stockRetryLog;
+        this.stockReservations = stockReservations;
+        this.inventoryIndex = inventoryIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
         this.stockUpdateCounter = meterRegistry.counter("inventory.stock.updates");
     }
 }
\ No newline at end of file
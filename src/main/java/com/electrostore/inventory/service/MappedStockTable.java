@@ -0,0 +1,548 @@
+package com.electrostore.inventory.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tabla de stock (sucursal, producto) -> cantidad y ultimo movimiento del ledger reflejado, en un archivo mapeado en
+ * memoria fuera del heap (opcional, inventory.mapped-stock.enabled). Sirve de arranque en caliente: si al arrancar el
+ * archivo quedo de un cierre ordenado y corresponde a la misma base, se mapea y solo se aplican los movimientos del
+ * StockLedger posteriores al cierre, en lugar de recorrer PRODUCT. El agregado de stock central se construye desde
+ * aca y StockReservations lee de aca la cantidad de los SKUs sin reservas.
+ * Registros fijos de 16 bytes: la clave empaquetada (0 = libre) y un long con la secuencia (32 bits altos) y la
+ * cantidad (-1 = producto borrado). La secuencia es el ID del movimiento en STOCK_LEDGER relativo a la base guardada
+ * en el encabezado (0 = cargado de PRODUCT). Direccionamiento abierto con sondeo lineal; las claves nunca se quitan,
+ * un producto borrado y vuelto a crear reutiliza su registro. Altas y cambios son compare-and-set sobre el buffer
+ * mapeado (VarHandle), sin locks, y una escritura con una secuencia menor a la guardada se descarta: un cambio viejo
+ * que llega tarde no pisa uno posterior.
+ * Se mantiene con cada InventoryChangeEvent confirmado y con los eventos remotos de InventoryEventApplier.
+ * Mientras la aplicacion corre el archivo se marca como sucio: si el proceso se cae, al arrancar se reconstruye.
+ * Los ids de sucursal y producto deben estar entre 0 y Integer.MAX_VALUE.
+ */
+@Component
+public class MappedStockTable {
+    private static final Logger log = LoggerFactory.getLogger(MappedStockTable.class);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long MAGIC = 0x454C_5354_4F43_4B31L; // "ELSTOCK1"
+    private static final int FORMAT = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final String DELETE_ACTION = "DELETE_PRODUCT";
+    private static final int REMOVED = -1;
+    private static final int DIRTY = 0;
+    private static final int CLEAN = 1;
+    // Secuencias relativas representables en 32 bits; pasada la mitad al arrancar se reconstruye con una base nueva
+    private static final long MAX_RELATIVE = 0xFFFF_FFFFL;
+    private static final long REBASE_THRESHOLD = 1L << 31;
+    // Encabezado: magic, formato, capacidad, estado, claves usadas, ultimo ID del ledger al cerrar y su RECORDED_AT, cierre,
+    // base de las secuencias
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int STATE_OFFSET = 16;
+    private static final int USED_OFFSET = 24;
+    private static final int WATERMARK_OFFSET = 32;
+    private static final int WATERMARK_STAMP_OFFSET = 40;
+    private static final int CLOSED_AT_OFFSET = 48;
+    private static final int BASE_OFFSET = 56;
+
+    private static final String MAX_LEDGER_ID_SQL = "SELECT COALESCE(MAX(ID), 0) FROM STOCK_LEDGER";
+    private static final String LEDGER_STAMP_SQL = "SELECT RECORDED_AT FROM STOCK_LEDGER WHERE ID = ?";
+    // Dos consultas en lugar de un OR: una recorre la clave primaria y la otra IDX_STOCK_LEDGER_RECORDED_AT
+    private static final String CHANGED_SKUS_BY_ID_SQL =
+        "SELECT STORE_ID, PRODUCT_ID, MAX(ID) LAST_ID FROM STOCK_LEDGER WHERE ID > ? GROUP BY STORE_ID, PRODUCT_ID";
+    private static final String CHANGED_SKUS_BY_TIME_SQL =
+        "SELECT STORE_ID, PRODUCT_ID, MAX(ID) LAST_ID FROM STOCK_LEDGER WHERE RECORDED_AT >= ? GROUP BY STORE_ID, PRODUCT_ID";
+    private static final String QUANTITY_SQL = "SELECT QUANTITY FROM PRODUCT WHERE STORE_ID = ? AND ID = ?";
+    private static final String TOTALS_SQL = "SELECT COUNT(*), COALESCE(SUM(QUANTITY), 0) FROM PRODUCT";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLockManager stockLockManager;
+    private final boolean enabled;
+    private final Path path;
+    private final int capacity;
+    private final Duration replayOverlap;
+    private final boolean verifyTotals;
+    private final int verifySample;
+    private final AtomicLong used = new AtomicLong();
+    private final Counter staleCounter;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    // Se fija antes de aceptar escrituras (accepting es volatile)
+    private long base;
+    private volatile boolean accepting;
+    private volatile boolean ready;
+    private boolean warmStart;
+
+    public MappedStockTable(JdbcTemplate jdbcTemplate, StockLockManager stockLockManager, MeterRegistry meterRegistry,
+                            @Value("${inventory.mapped-stock.enabled:false}") boolean enabled,
+                            @Value("${inventory.mapped-stock.path:data/stock-table.bin}") String path,
+                            @Value("${inventory.mapped-stock.capacity:4194304}") int capacity,
+                            @Value("${inventory.mapped-stock.replay-overlap:PT1M}") Duration replayOverlap,
+                            @Value("${inventory.mapped-stock.verify-totals:false}") boolean verifyTotals,
+                            @Value("${inventory.mapped-stock.verify-sample:1000}") int verifySample) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("inventory.mapped-stock.capacity debe estar entre 1 y " + MAX_CAPACITY);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockLockManager = stockLockManager;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1) << 1);
+        this.replayOverlap = replayOverlap;
+        this.verifyTotals = verifyTotals;
+        this.verifySample = Math.max(0, verifySample);
+        this.staleCounter = meterRegistry.counter("inventory.mapped-stock.writes", "result", "stale");
+        meterRegistry.gauge("inventory.mapped-stock.keys", used);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indica si en el ultimo arranque se reutilizo el archivo existente (sin recorrer PRODUCT).
+     */
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    /**
+     * Mapea el archivo y lo valida contra la base; si no sirve, lo reconstruye desde PRODUCT.
+     * La abre CentralStockAggregate al terminar de crearse los beans, antes de aceptar peticiones, para construirse
+     * desde la tabla.
+     */
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            map();
+            warmStart = headerMatches() && openWarm();
+            if (!warmStart) {
+                rebuild();
+            }
+            if (!accepting) {
+                throw new IllegalStateException("fallo una escritura durante la carga");
+            }
+            buffer.putInt(STATE_OFFSET, DIRTY);
+            buffer.force();
+            ready = true;
+        } catch (RuntimeException | IOException ex) {
+            log.error("[MAPPED STOCK] No se pudo abrir la tabla de stock mapeada, se sigue sin ella: {}", ex.getMessage());
+            accepting = false;
+            closeChannel();
+            return;
+        }
+        log.info("[MAPPED STOCK] Tabla {} en {} ms: {} claves, {} MB mapeados. Lista a {} ms del arranque de la JVM",
+            warmStart ? "reutilizada" : "reconstruida", (System.nanoTime() - start) / 1_000_000, used.get(),
+            ((long) HEADER_SIZE + (long) capacity * RECORD_SIZE) / (1024 * 1024),
+            ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * Cierre ordenado: guarda hasta que movimiento del ledger refleja la tabla y la marca como limpia.
+     */
+    @PreDestroy
+    public void close() {
+        if (!ready) {
+            return;
+        }
+        ready = false;
+        accepting = false;
+        try {
+            long watermark = jdbcTemplate.queryForObject(MAX_LEDGER_ID_SQL, Long.class);
+            buffer.putLong(USED_OFFSET, used.get());
+            buffer.putLong(BASE_OFFSET, base);
+            buffer.putLong(WATERMARK_OFFSET, watermark);
+            buffer.putLong(WATERMARK_STAMP_OFFSET, ledgerStamp(watermark));
+            buffer.putLong(CLOSED_AT_OFFSET, System.currentTimeMillis());
+            buffer.force();
+            buffer.putInt(STATE_OFFSET, CLEAN);
+            buffer.force();
+        } catch (RuntimeException ex) {
+            log.warn("[MAPPED STOCK] No se pudo cerrar la tabla de stock limpia, se reconstruira al arrancar: {}", ex.getMessage());
+        } finally {
+            closeChannel();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (DELETE_ACTION.equals(event.getAction())) {
+            onRemoved(event.getStoreId(), event.getProductId(), event.getLedgerSequence());
+        } else {
+            onQuantity(event.getStoreId(), event.getProductId(), event.getQuantity(), event.getLedgerSequence());
+        }
+    }
+
+    /**
+     * Registra la cantidad de un SKU. Lo usa tambien la aplicacion de eventos remotos.
+     * @param ledgerSequence ID del movimiento en STOCK_LEDGER; 0 si no se conoce (se escribe sin comparar)
+     */
+    public void onQuantity(Long storeId, Long productId, int quantity, long ledgerSequence) {
+        if (accepting) {
+            write(storeId, productId, quantity, ledgerSequence);
+        }
+    }
+
+    public void onRemoved(Long storeId, Long productId, long ledgerSequence) {
+        if (accepting) {
+            write(storeId, productId, REMOVED, ledgerSequence);
+        }
+    }
+
+    /**
+     * Cantidad del SKU y ultimo movimiento del ledger reflejado, o null si no existe o si la tabla no esta lista
+     * (en ese caso hay que leer PRODUCT).
+     */
+    public Stock get(Long storeId, Long productId) {
+        if (!ready) {
+            return null;
+        }
+        long key = key(storeId, productId);
+        int slot = find(key, false);
+        if (slot < 0) {
+            return null;
+        }
+        long value = (long) LONGS.getVolatile(buffer, valueOffset(slot));
+        return quantity(value) == REMOVED ? null : new Stock(quantity(value), base + Integer.toUnsignedLong(sequence(value)));
+    }
+
+    /**
+     * Recorre los SKUs existentes. Se usa al arrancar; con escrituras concurrentes cada SKU se ve con alguna de sus
+     * cantidades confirmadas, no necesariamente la ultima.
+     */
+    public void forEach(StockConsumer consumer) {
+        for (int slot = 0; slot < capacity; slot++) {
+            long key = (long) LONGS.getVolatile(buffer, keyOffset(slot));
+            if (key != 0) {
+                int quantity = quantity((long) LONGS.getVolatile(buffer, valueOffset(slot)));
+                if (quantity != REMOVED) {
+                    consumer.accept(InventoryIndex.storeId(key & Long.MAX_VALUE), InventoryIndex.productId(key & Long.MAX_VALUE), quantity);
+                }
+            }
+        }
+    }
+
+    private void write(Long storeId, Long productId, int quantity, long ledgerSequence) {
+        try {
+            int sequence = relative(ledgerSequence);
+            int slot = find(key(storeId, productId), true);
+            int offset = valueOffset(slot);
+            long current;
+            long next;
+            do {
+                current = (long) LONGS.getVolatile(buffer, offset);
+                if (ledgerSequence <= 0) {
+                    next = value(sequence(current), quantity);
+                } else if (Integer.compareUnsigned(sequence(current), sequence) > 0) {
+                    staleCounter.increment();
+                    return;
+                } else {
+                    next = value(sequence, quantity);
+                }
+            } while (!LONGS.compareAndSet(buffer, offset, current, next));
+        } catch (RuntimeException ex) {
+            // La tabla queda sucia en disco: se reconstruye en el proximo arranque
+            log.error("[MAPPED STOCK] No se pudo registrar el stock de {}/{}, se deja de usar la tabla: {}", storeId, productId, ex.getMessage());
+            ready = false;
+            accepting = false;
+        }
+    }
+
+    /**
+     * Secuencia relativa a la base. Los movimientos anteriores a la base quedan en 0, como los cargados de PRODUCT.
+     */
+    private int relative(long ledgerSequence) {
+        if (ledgerSequence <= base) {
+            return 0;
+        }
+        long relative = ledgerSequence - base;
+        if (relative > MAX_RELATIVE) {
+            throw new IllegalStateException("el ledger supero la secuencia representable desde la base " + base);
+        }
+        return (int) relative;
+    }
+
+    /**
+     * Ubica el registro de la clave; si no esta y insert es true, lo toma con un compare-and-set sobre la clave.
+     * @return el registro, o -1 si no esta y no se pidio insertar
+     */
+    private int find(long key, boolean insert) {
+        int mask = capacity - 1;
+        int slot = (int) mix(key) & mask;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            int offset = keyOffset(slot);
+            long current = (long) LONGS.getVolatile(buffer, offset);
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0) {
+                if (!insert) {
+                    return -1;
+                }
+                if (used.get() >= capacity - (capacity >> 2)) {
+                    throw new IllegalStateException("tabla llena (" + used.get() + " claves), aumentar inventory.mapped-stock.capacity");
+                }
+                if (LONGS.compareAndSet(buffer, offset, 0L, key)) {
+                    used.incrementAndGet();
+                    return slot;
+                }
+                if ((long) LONGS.getVolatile(buffer, offset) == key) {
+                    return slot; // la inserto otro hilo
+                }
+            }
+        }
+        if (insert) {
+            throw new IllegalStateException("tabla llena, aumentar inventory.mapped-stock.capacity");
+        }
+        return -1;
+    }
+
+    private void map() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long size = (long) HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() != size) {
+            // Tamaño distinto (otra capacidad o archivo cortado): se empieza de cero; mapear extiende el archivo
+            channel.truncate(0);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private boolean headerMatches() {
+        return buffer.getLong(MAGIC_OFFSET) == MAGIC && buffer.getInt(FORMAT_OFFSET) == FORMAT
+            && buffer.getInt(CAPACITY_OFFSET) == capacity && buffer.getInt(STATE_OFFSET) == CLEAN;
+    }
+
+    /**
+     * Valida que el archivo corresponda a esta base (el ultimo movimiento del ledger que refleja sigue ahi, con la misma
+     * fecha) y aplica los movimientos posteriores al cierre. Despues compara con PRODUCT una muestra de
+     * inventory.mapped-stock.verify-sample SKUs repartidos por la tabla y, si inventory.mapped-stock.verify-totals esta
+     * activo, la cantidad de SKUs y el stock total (recorre PRODUCT entero).
+     */
+    private boolean openWarm() {
+        long watermark = buffer.getLong(WATERMARK_OFFSET);
+        if (watermark > 0 && ledgerStamp(watermark) != buffer.getLong(WATERMARK_STAMP_OFFSET)) {
+            log.info("[MAPPED STOCK] El archivo no corresponde al historial de la base, se reconstruye");
+            return false;
+        }
+        base = buffer.getLong(BASE_OFFSET);
+        long lastLedgerId = jdbcTemplate.queryForObject(MAX_LEDGER_ID_SQL, Long.class);
+        if (lastLedgerId - base > REBASE_THRESHOLD) {
+            log.info("[MAPPED STOCK] Las secuencias del archivo estan cerca de su limite, se reconstruye con una base nueva");
+            return false;
+        }
+        used.set(buffer.getLong(USED_OFFSET));
+        accepting = true;
+        int replayed = replay(watermark, buffer.getLong(CLOSED_AT_OFFSET) - replayOverlap.toMillis());
+        int mismatches = sampleMismatches();
+        if (mismatches > 0) {
+            log.info("[MAPPED STOCK] {} SKUs de la muestra no coinciden con PRODUCT, se reconstruye", mismatches);
+            return false;
+        }
+        if (verifyTotals) {
+            long[] expected = jdbcTemplate.queryForObject(TOTALS_SQL, (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2)});
+            long[] actual = totals();
+            if (expected[0] != actual[0] || expected[1] != actual[1]) {
+                log.info("[MAPPED STOCK] El archivo no coincide con PRODUCT ({} SKUs y {} unidades contra {} y {}), se reconstruye",
+                    actual[0], actual[1], expected[0], expected[1]);
+                return false;
+            }
+        }
+        log.info("[MAPPED STOCK] Archivo valido, {} SKUs actualizados desde el ledger", replayed);
+        return true;
+    }
+
+    /**
+     * Compara con PRODUCT, con el lock de cada SKU, hasta verifySample registros tomados a intervalos regulares de la tabla.
+     * @return cantidad de SKUs que no coinciden
+     */
+    private int sampleMismatches() {
+        if (verifySample == 0) {
+            return 0;
+        }
+        int stride = Math.max(1, capacity / verifySample);
+        int mismatches = 0;
+        for (int start = 0; start < capacity; start += stride) {
+            for (int slot = start; slot < Math.min(capacity, start + stride); slot++) {
+                long key = (long) LONGS.getVolatile(buffer, keyOffset(slot));
+                if (key == 0) {
+                    continue;
+                }
+                int valueOffset = valueOffset(slot);
+                long storeId = InventoryIndex.storeId(key & Long.MAX_VALUE);
+                long productId = InventoryIndex.productId(key & Long.MAX_VALUE);
+                boolean matches = stockLockManager.withLock(new ProductId(productId, storeId), () -> {
+                    List<Integer> rows = jdbcTemplate.queryForList(QUANTITY_SQL, Integer.class, storeId, productId);
+                    int expected = rows.isEmpty() ? REMOVED : rows.get(0);
+                    return quantity((long) LONGS.getVolatile(buffer, valueOffset)) == expected;
+                });
+                if (!matches) {
+                    mismatches++;
+                }
+                break;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Carga la tabla desde PRODUCT. Las escrituras confirmadas durante el recorrido ya se registran en la tabla, pero
+     * el recorrido puede pisarlas con la cantidad que leyo antes: por eso al terminar se vuelven a leer, con el lock
+     * del SKU, los SKUs con movimientos en el ledger desde que empezo.
+     */
+    private void rebuild() {
+        long fromId = jdbcTemplate.queryForObject(MAX_LEDGER_ID_SQL, Long.class);
+        long scanStart = System.currentTimeMillis();
+        accepting = false;
+        clear();
+        base = fromId;
+        accepting = true;
+        jdbcTemplate.query("SELECT STORE_ID, ID, QUANTITY FROM PRODUCT", rs -> {
+            int slot = find(key(rs.getLong("STORE_ID"), rs.getLong("ID")), true);
+            int offset = valueOffset(slot);
+            long current = (long) LONGS.getVolatile(buffer, offset);
+            // Un solo intento y solo si ningun cambio confirmado escribio el registro con una secuencia propia
+            if (sequence(current) == 0) {
+                LONGS.compareAndSet(buffer, offset, current, value(0, rs.getInt("QUANTITY")));
+            }
+        });
+        replay(fromId, scanStart - replayOverlap.toMillis());
+        buffer.putLong(BASE_OFFSET, base);
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(FORMAT_OFFSET, FORMAT);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+    }
+
+    /**
+     * Relee de PRODUCT los SKUs con movimientos en el ledger posteriores al ID indicado (o registrados desde el momento
+     * indicado, para cubrir transacciones que tomaron su ID antes pero confirmaron despues). Cada uno se lee con el lock
+     * del SKU, el mismo con el que se confirman y registran las escrituras locales, y se escribe con el ultimo ID del
+     * ledger visto para el SKU: si mientras tanto se registro un cambio posterior, la escritura se descarta.
+     */
+    private int replay(long afterId, long sinceMillis) {
+        Map<ProductId, Long> skus = new LinkedHashMap<>();
+        RowCallbackHandler collect = rs -> skus.merge(new ProductId(rs.getLong("PRODUCT_ID"), rs.getLong("STORE_ID")),
+            rs.getLong("LAST_ID"), Math::max);
+        jdbcTemplate.query(CHANGED_SKUS_BY_ID_SQL, collect, afterId);
+        jdbcTemplate.query(CHANGED_SKUS_BY_TIME_SQL, collect, new Timestamp(sinceMillis));
+        skus.forEach((id, lastLedgerId) -> stockLockManager.withLock(id, () -> {
+            List<Integer> quantity = jdbcTemplate.queryForList(QUANTITY_SQL, Integer.class, id.getStoreId(), id.getId());
+            write(id.getStoreId(), id.getId(), quantity.isEmpty() ? REMOVED : quantity.get(0), lastLedgerId);
+            return null;
+        }));
+        return skus.size();
+    }
+
+    private long[] totals() {
+        long[] totals = new long[2];
+        forEach((storeId, productId, quantity) -> {
+            totals[0]++;
+            totals[1] += quantity;
+        });
+        return totals;
+    }
+
+    private long ledgerStamp(long id) {
+        if (id == 0) {
+            return 0;
+        }
+        List<Timestamp> stamps = jdbcTemplate.queryForList(LEDGER_STAMP_SQL, Timestamp.class, id);
+        return stamps.isEmpty() ? -1 : stamps.get(0).getTime();
+    }
+
+    private void clear() {
+        for (int offset = HEADER_SIZE; offset < buffer.capacity(); offset += 8) {
+            buffer.putLong(offset, 0L);
+        }
+        used.set(0);
+    }
+
+    private void closeChannel() {
+        // El buffer sigue mapeado hasta que se libere: una escritura concurrente no falla, solo se pierde
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            log.warn("[MAPPED STOCK] No se pudo cerrar {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private static long key(long storeId, long productId) {
+        // El bit alto distingue la clave (0, 0) de un registro libre
+        return InventoryIndex.pack(storeId, productId) | Long.MIN_VALUE;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static long value(int sequence, int quantity) {
+        return ((long) sequence << 32) | (quantity & 0xFFFF_FFFFL);
+    }
+
+    private static int sequence(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int quantity(long value) {
+        return (int) value;
+    }
+
+    private static int keyOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static int valueOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE + 8;
+    }
+
+    /**
+     * Cantidad de un SKU e ID del ultimo movimiento de STOCK_LEDGER reflejado (la base si se cargo de PRODUCT).
+     */
+    public record Stock(int quantity, long ledgerSequence) {
+    }
+
+    @FunctionalInterface
+    public interface StockConsumer {
+        void accept(long storeId, long productId, int quantity);
+    }
+}
@@ -0,0 +1,74 @@
+package com.electrostore.inventory.service;
+
+import org.springframework.security.access.AccessDeniedException;
+
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.exception.ProductNotFoundException;
+import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.exception.ReservationNotFoundException;
+import com.electrostore.inventory.exception.StoreNotFoundException;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+/**
+ * Resultado de una operacion para el tag "outcome" de las metricas de latencia.
+ * Los fallbacks devuelven un valor normal en lugar de lanzar, por lo que marcan aqui (por hilo) como
+ * terminaron; InventoryMetricsAspect lee la marca al cerrar la medicion del servicio y del controlador.
+ */
+public final class OperationOutcome {
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not-found";
+    public static final String CONFLICT = "conflict";
+    public static final String FALLBACK = "fallback";
+    public static final String CIRCUIT_OPEN = "circuit-open";
+    public static final String CLIENT_ERROR = "client-error";
+    public static final String ERROR = "error";
+
+    private static final ThreadLocal<String> MARKED = new ThreadLocal<>();
+
+    private OperationOutcome() {
+    }
+
+    /**
+     * Marca el resultado de la operacion en curso en este hilo.
+     */
+    public static void mark(String outcome) {
+        MARKED.set(outcome);
+    }
+
+    /**
+     * Marca el resultado de un fallback segun la excepcion que lo disparo.
+     */
+    public static void markFallback(Throwable cause) {
+        String outcome = classify(cause);
+        mark(ERROR.equals(outcome) ? FALLBACK : outcome);
+    }
+
+    /**
+     * Resultado marcado en este hilo, o null si no hay marca.
+     */
+    public static String marked() {
+        return MARKED.get();
+    }
+
+    public static void clear() {
+        MARKED.remove();
+    }
+
+    public static String classify(Throwable t) {
+        if (t instanceof ProductNotFoundException || t instanceof ProductNotInStoreException || t instanceof StoreNotFoundException
+            || t instanceof ReservationNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (t instanceof InsufficientStockException) {
+            return CONFLICT;
+        }
+        if (t instanceof CallNotPermittedException) {
+            return CIRCUIT_OPEN;
+        }
+        if (t instanceof AccessDeniedException) {
+            return CLIENT_ERROR;
+        }
+        return ERROR;
+    }
+}
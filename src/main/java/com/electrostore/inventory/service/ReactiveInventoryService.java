@@ -0,0 +1,127 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.InventoryPageDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StoreInventoryDTO;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Lecturas de inventario no bloqueantes (Mono/Flux) sobre InventoryService.
+ * Lo que ya esta en memoria (cache inventoryByStore, agregado de stock central) se responde sin cambiar
+ * de hilo. Lo que requiere la base se ejecuta en un scheduler acotado (inventory.reactive.db-concurrency),
+ * asi un pedido que abarca cientos de sucursales no ocupa un hilo por sucursal ni mas conexiones que esas.
+ * Los listados grandes se leen por paginas keyset a demanda: se consulta a lo sumo una pagina por delante de
+ * lo que el cliente ya consumio (backpressure), y entre paginas no queda ningun cursor ni conexion abierta.
+ * Con el cache two-tier, un miss de L1 consulta Redis en el hilo que atiende el pedido.
+ */
+@Service
+public class ReactiveInventoryService {
+    private final InventoryService inventoryService;
+    private final CentralStockAggregate centralStockAggregate;
+    private final CacheManager cacheManager;
+    private final Scheduler dbScheduler;
+    private final int pageSize;
+    private final int centralChunkSize;
+
+    public ReactiveInventoryService(InventoryService inventoryService, CentralStockAggregate centralStockAggregate, CacheManager cacheManager,
+                                    @Value("${inventory.reactive.db-concurrency:16}") int dbConcurrency,
+                                    @Value("${inventory.reactive.page-size:500}") int pageSize,
+                                    @Value("${inventory.central.query-chunk-size:1000}") int centralChunkSize) {
+        this.inventoryService = inventoryService;
+        this.centralStockAggregate = centralStockAggregate;
+        this.cacheManager = cacheManager;
+        this.dbScheduler = Schedulers.newBoundedElastic(Math.max(1, dbConcurrency), Integer.MAX_VALUE, "inventory-reactive-db");
+        this.pageSize = Math.max(1, pageSize);
+        this.centralChunkSize = Math.max(1, centralChunkSize);
+    }
+
+    /**
+     * Inventario de una sucursal: desde el cache si esta, si no se carga (y se cachea) en el scheduler de base.
+     */
+    public Mono<List<ProductDTO>> getInventoryByStore(Long storeId) {
+        List<ProductDTO> cached = cached(storeId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> inventoryService.getInventoryByStore(storeId)).subscribeOn(dbScheduler);
+    }
+
+    /**
+     * Inventario de varias sucursales, en el orden pedido, con a lo sumo concurrency cargas desde la base en curso.
+     */
+    public Flux<StoreInventoryDTO> getInventories(List<Long> storeIds, int concurrency) {
+        return Flux.fromIterable(new LinkedHashSet<>(storeIds))
+            .flatMapSequential(storeId -> getInventoryByStore(storeId).map(products -> new StoreInventoryDTO(storeId, products)),
+                Math.max(1, concurrency));
+    }
+
+    /**
+     * Productos de una sucursal uno por uno. Sin filtro y con la sucursal cacheada se recorre la lista del cache;
+     * si no, se leen paginas keyset de inventory.reactive.page-size a medida que el suscriptor pide mas.
+     */
+    public Flux<ProductDTO> streamInventory(Long storeId, String category) {
+        if (category == null) {
+            List<ProductDTO> cached = cached(storeId);
+            if (cached != null) {
+                return Flux.fromIterable(cached);
+            }
+        }
+        return page(storeId, null, category)
+            .expand(page -> page.getNextAfterId() == null ? Mono.empty() : page(storeId, page.getNextAfterId(), category))
+            .concatMapIterable(InventoryPageDTO::getItems, 1);
+    }
+
+    /**
+     * Stock central de un producto; con el agregado construido no toca la base.
+     */
+    public Mono<Integer> getCentralStock(Long productId) {
+        if (centralStockAggregate.isReady()) {
+            return Mono.just(centralStockAggregate.getTotal(productId));
+        }
+        return Mono.fromCallable(() -> inventoryService.getCentralStock(productId)).subscribeOn(dbScheduler);
+    }
+
+    /**
+     * Stock central de muchos productos, consultado por bloques a medida que el suscriptor los consume.
+     */
+    public Flux<CentralStockDTO> getCentralStock(List<Long> productIds, boolean byStore) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += centralChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + centralChunkSize, ids.size())));
+        }
+        return Flux.fromIterable(chunks)
+            .concatMap(chunk -> Mono.fromCallable(() -> inventoryService.getCentralStock(chunk, byStore)).subscribeOn(dbScheduler), 1)
+            .concatMapIterable(results -> results, 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dbScheduler.dispose();
+    }
+
+    private Mono<InventoryPageDTO> page(Long storeId, Long afterId, String category) {
+        return Mono.fromCallable(() -> inventoryService.getInventoryPage(storeId, afterId, category, pageSize)).subscribeOn(dbScheduler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductDTO> cached(Long storeId) {
+        Cache cache = cacheManager.getCache(InventoryCacheWriter.CACHE_NAME);
+        return cache == null ? null : cache.get(storeId, List.class);
+    }
+}
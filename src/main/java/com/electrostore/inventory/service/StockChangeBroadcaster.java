@@ -0,0 +1,350 @@
+package com.electrostore.inventory.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.electrostore.inventory.dto.StockChangeDTO;
+import com.electrostore.inventory.events.InventoryChange;
+import com.electrostore.inventory.events.InventoryChangeHandler;
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Difunde los cambios de stock confirmados a los suscriptores SSE, filtrados por sucursal y/o producto.
+ * Cada cambio recibe una secuencia de esta instancia; el id de cada evento SSE es "epoca-secuencia", donde la
+ * epoca identifica el arranque. Se guardan los ultimos inventory.sse.replay-size cambios para que un cliente
+ * que se reconecta con Last-Event-ID reciba lo que se perdio.
+ * Cada suscriptor tiene un buffer acotado (inventory.sse.buffer-size) que agrupa los cambios de un mismo SKU:
+ * un cliente lento recibe la ultima cantidad de cada SKU y no todos los intermedios. Si aun asi el buffer se
+ * llena, o el cambio pedido al reanudar ya no esta guardado, se descarta lo pendiente y se envia un evento
+ * "reset" para que el cliente vuelva a leer el inventario y siga desde ahi.
+ * Los cambios locales llegan por InventoryEventBus. Publicar solo deja el cambio en los buffers: el envio lo
+ * hace un hilo virtual por suscriptor, asi una conexion lenta no demora el bus ni a los demas suscriptores.
+ */
+@Component
+public class StockChangeBroadcaster implements InventoryChangeHandler {
+    public static final String RESET_OVERFLOW = "overflow";
+    public static final String RESET_RESUME_UNAVAILABLE = "resume-unavailable";
+    private static final Logger log = LoggerFactory.getLogger(StockChangeBroadcaster.class);
+
+    private final long epoch = System.currentTimeMillis();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final StockChangeDTO[] replay;
+    private final Map<Long, Set<Subscription>> byStore = new HashMap<>();
+    private final Set<Subscription> allStores = new HashSet<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Counter sentCounter;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter resetCounter;
+    private long sequence;
+    private int subscribers;
+
+    public StockChangeBroadcaster(MeterRegistry meterRegistry,
+                                  @Value("${inventory.sse.replay-size:10000}") int replaySize,
+                                  @Value("${inventory.sse.buffer-size:1000}") int bufferSize,
+                                  @Value("${inventory.sse.max-subscribers:1000}") int maxSubscribers,
+                                  @Value("${inventory.sse.timeout:PT30M}") Duration timeout) {
+        this.replay = new StockChangeDTO[Math.max(1, replaySize)];
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.sentCounter = meterRegistry.counter("inventory.sse.events", "result", "sent");
+        this.coalescedCounter = meterRegistry.counter("inventory.sse.events", "result", "coalesced");
+        this.droppedCounter = meterRegistry.counter("inventory.sse.events", "result", "dropped");
+        this.resetCounter = meterRegistry.counter("inventory.sse.resets");
+        meterRegistry.gauge("inventory.sse.subscribers", this, StockChangeBroadcaster::subscriberCount);
+    }
+
+    @Override
+    public void onChange(InventoryChange change) {
+        publish(change.getStoreId(), change.getProductId(), change.getAction(), change.getQuantity(), change.getDelta());
+    }
+
+    /**
+     * Difunde un cambio ya confirmado. La usa tambien la aplicacion de eventos de otras sucursales.
+     */
+    public void publish(Long storeId, Long productId, String action, int quantity, Integer delta) {
+        publishLock.lock();
+        try {
+            StockChangeDTO change = new StockChangeDTO(++sequence, storeId, productId, action, quantity, delta, System.currentTimeMillis());
+            replay[(int) (change.getSequence() % replay.length)] = change;
+            if (subscribers == 0) {
+                return;
+            }
+            offerAll(allStores, change);
+            offerAll(byStore.getOrDefault(storeId, Set.of()), change);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Registra un suscriptor.
+     * @param storeId sucursal a seguir (null para todas)
+     * @param productIds productos a seguir (vacio para todos)
+     * @param lastEventId id del ultimo evento recibido antes de reconectarse (null si es una suscripcion nueva)
+     * @return el emisor SSE, o null si se alcanzo inventory.sse.max-subscribers
+     */
+    public SseEmitter subscribe(Long storeId, Collection<Long> productIds, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscription subscription = new Subscription(emitter, storeId, productIds == null ? Set.of() : Set.copyOf(productIds));
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(ex -> unsubscribe(subscription));
+        publishLock.lock();
+        try {
+            if (subscribers >= maxSubscribers) {
+                return null;
+            }
+            // Repeticion y alta bajo el mismo publishLock: ningun publish entra entre el ultimo cambio repetido y el
+            // primero en vivo, asi el suscriptor no pierde ni recibe dos veces un cambio
+            boolean resumed = lastEventId != null && resume(subscription, lastEventId);
+            // "ready" sale antes que los cambios repetidos: si se reanudo lleva el id que mando el cliente, para que
+            // el Last-Event-ID no adelante cambios que aun no recibio
+            subscription.ready = resumed && subscription.reset == null ? lastEventId : eventId(sequence);
+            (storeId == null ? allStores : byStore.computeIfAbsent(storeId, id -> new HashSet<>())).add(subscription);
+            subscribers++;
+        } finally {
+            publishLock.unlock();
+        }
+        subscription.scheduleDrain();
+        return emitter;
+    }
+
+    /**
+     * Envia un comentario a cada suscriptor para mantener viva la conexion y detectar clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sse.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscription subscription : snapshot()) {
+            subscription.heartbeat = true;
+            subscription.scheduleDrain();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : snapshot()) {
+            subscription.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Con publishLock tomado. Devuelve false si hay que enviar un reset en lugar de repetir cambios
+    private boolean resume(Subscription subscription, String lastEventId) {
+        long last;
+        try {
+            int dash = lastEventId.indexOf('-');
+            if (dash < 0 || Long.parseLong(lastEventId.substring(0, dash)) != epoch) {
+                subscription.reset = RESET_RESUME_UNAVAILABLE;
+                return false;
+            }
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            subscription.reset = RESET_RESUME_UNAVAILABLE;
+            return false;
+        }
+        if (last > sequence || sequence - last > replay.length) {
+            subscription.reset = RESET_RESUME_UNAVAILABLE;
+            return false;
+        }
+        for (long seq = last + 1; seq <= sequence; seq++) {
+            StockChangeDTO change = replay[(int) (seq % replay.length)];
+            if (subscription.matches(change)) {
+                subscription.offer(change);
+            }
+        }
+        return true;
+    }
+
+    // Con publishLock tomado
+    private void offerAll(Set<Subscription> candidates, StockChangeDTO change) {
+        for (Subscription subscription : candidates) {
+            if (subscription.matches(change)) {
+                subscription.offer(change);
+                subscription.scheduleDrain();
+            }
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        publishLock.lock();
+        try {
+            Set<Subscription> set = subscription.storeId == null ? allStores : byStore.get(subscription.storeId);
+            if (set != null && set.remove(subscription)) {
+                subscribers--;
+                if (set.isEmpty() && subscription.storeId != null) {
+                    byStore.remove(subscription.storeId);
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        subscription.closed = true;
+    }
+
+    private List<Subscription> snapshot() {
+        publishLock.lock();
+        try {
+            List<Subscription> all = new ArrayList<>(allStores);
+            byStore.values().forEach(all::addAll);
+            return all;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Long storeId;
+        private final Set<Long> productIds;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Ultimo cambio pendiente de envio por SKU, en orden de secuencia
+        private final LinkedHashMap<ProductId, StockChangeDTO> buffer = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private String ready;
+        private String reset;
+        private volatile boolean heartbeat;
+        private volatile boolean closed;
+
+        Subscription(SseEmitter emitter, Long storeId, Set<Long> productIds) {
+            this.emitter = emitter;
+            this.storeId = storeId;
+            this.productIds = productIds;
+        }
+
+        boolean matches(StockChangeDTO change) {
+            return (storeId == null || storeId.equals(change.getStoreId()))
+                && (productIds.isEmpty() || productIds.contains(change.getProductId()));
+        }
+
+        void offer(StockChangeDTO change) {
+            lock.lock();
+            try {
+                ProductId key = new ProductId(change.getProductId(), change.getStoreId());
+                StockChangeDTO previous = buffer.remove(key);
+                if (previous != null) {
+                    coalescedCounter.increment();
+                    Integer delta = previous.getDelta() == null || change.getDelta() == null ? null : previous.getDelta() + change.getDelta();
+                    change = new StockChangeDTO(change.getSequence(), change.getStoreId(), change.getProductId(), change.getAction(),
+                        change.getQuantity(), delta, change.getTimestamp());
+                } else if (buffer.size() >= bufferSize) {
+                    droppedCounter.increment(buffer.size());
+                    buffer.clear();
+                    reset = RESET_OVERFLOW;
+                }
+                buffer.put(key, change);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    draining.set(false); // el executor ya se cerro
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    String readyId;
+                    String resetReason;
+                    boolean ping;
+                    List<StockChangeDTO> pending;
+                    lock.lock();
+                    try {
+                        readyId = ready;
+                        ready = null;
+                        resetReason = reset;
+                        reset = null;
+                        ping = heartbeat;
+                        heartbeat = false;
+                        pending = new ArrayList<>(buffer.values());
+                        buffer.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (readyId == null && resetReason == null && !ping && pending.isEmpty()) {
+                        draining.set(false);
+                        // Un offer pudo llegar despues de vaciar el buffer y antes de liberar draining
+                        if (!hasWork() || !draining.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (resetReason != null) {
+                        resetCounter.increment();
+                        emitter.send(SseEmitter.event().name("reset").data(Map.of("reason", resetReason), MediaType.APPLICATION_JSON));
+                    }
+                    if (readyId != null) {
+                        emitter.send(SseEmitter.event().id(readyId).name("ready").data(Map.of("id", readyId), MediaType.APPLICATION_JSON));
+                    }
+                    for (StockChangeDTO change : pending) {
+                        emitter.send(SseEmitter.event().id(eventId(change.getSequence())).name("stock").data(change, MediaType.APPLICATION_JSON));
+                    }
+                    sentCounter.increment(pending.size());
+                    if (ping) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("[SSE] Suscriptor desconectado: {}", ex.getMessage());
+                unsubscribe(this);
+                emitter.completeWithError(ex);
+            }
+        }
+
+        private boolean hasWork() {
+            lock.lock();
+            try {
+                return ready != null || reset != null || heartbeat || !buffer.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.electrostore.inventory.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.electrostore.inventory.dto.StockAtDTO;
+import com.electrostore.inventory.dto.StockLedgerEntryDTO;
+import com.electrostore.inventory.dto.StockLedgerPageDTO;
+import com.electrostore.inventory.events.InventoryAction;
+import com.electrostore.inventory.events.InventoryEventMessage;
+import com.electrostore.inventory.exception.LedgerHistoryUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Libro mayor de stock: registro append-only de cada movimiento (STOCK_LEDGER) con fotos periodicas de las
+ * cantidades por sucursal (STOCK_SNAPSHOT / STOCK_SNAPSHOT_ITEM).
+ * Cada InventoryChangeEvent se inserta de forma sincronica, en la misma transaccion que modifico el stock
+ * (como InventoryOutbox), con la cantidad resultante, el delta, el usuario y el momento. Los eventos de otras
+ * sucursales los registra InventoryEventApplier con delta null.
+ * Como cada fila lleva la cantidad resultante, el stock en un momento T se obtiene partiendo de la ultima foto
+ * anterior a T y aplicando en orden de secuencia los movimientos posteriores hasta T (gana el ultimo de cada SKU),
+ * sin recorrer toda la historia. Para un mismo SKU la secuencia respeta el orden de commit (se asigna con el lock
+ * del SKU tomado). Las consultas siempre acotan por RECORDED_AT, por lo que la tabla se puede particionar por rango
+ * de fecha en una base que lo soporte.
+ * Al arrancar se toma una foto inicial de cada sucursal desde PRODUCT; los momentos anteriores no tienen historia.
+ * Despues, un job toma una foto nueva de las sucursales que acumularon al menos minEntries movimientos. Ambas fotos
+ * se fechan en "ahora - settle" para no dejar afuera transacciones que todavia no confirmaron.
+ */
+@Component
+public class StockLedger {
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    private static final String SYSTEM_ACTOR = "system";
+    private static final String REMOTE_ACTOR = "remote";
+    private static final int MAX_ACTOR_LENGTH = 128;
+    private static final String INSERT_SQL =
+        "INSERT INTO STOCK_LEDGER (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA, ACTOR, RECORDED_AT) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ENTRY_COLUMNS = "ID, STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA, ACTOR, RECORDED_AT";
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO STOCK_SNAPSHOT (STORE_ID, TAKEN_AT) VALUES (?, ?)";
+    private static final String INSERT_SNAPSHOT_ITEM_SQL = "INSERT INTO STOCK_SNAPSHOT_ITEM (SNAPSHOT_ID, PRODUCT_ID, QUANTITY) VALUES (?, ?, ?)";
+    private static final String LATEST_SNAPSHOT_SQL =
+        "SELECT ID, TAKEN_AT FROM STOCK_SNAPSHOT WHERE STORE_ID = ? AND TAKEN_AT <= ? ORDER BY TAKEN_AT DESC, ID DESC FETCH FIRST 1 ROWS ONLY";
+    private static final String STORES_WITHOUT_SNAPSHOT_SQL =
+        "SELECT ID FROM STORE s WHERE NOT EXISTS (SELECT 1 FROM STOCK_SNAPSHOT p WHERE p.STORE_ID = s.ID) ORDER BY ID";
+    private static final String STORES_DUE_SQL =
+        "SELECT l.STORE_ID FROM STOCK_LEDGER l "
+        + "JOIN (SELECT STORE_ID, MAX(TAKEN_AT) LAST_AT FROM STOCK_SNAPSHOT GROUP BY STORE_ID) s ON s.STORE_ID = l.STORE_ID "
+        + "WHERE l.RECORDED_AT > s.LAST_AT AND l.RECORDED_AT <= ? GROUP BY l.STORE_ID HAVING COUNT(*) >= ? ORDER BY l.STORE_ID";
+    private static final RowMapper<StockLedgerEntryDTO> ENTRY_MAPPER = (rs, rowNum) -> new StockLedgerEntryDTO(
+        rs.getLong("ID"), rs.getLong("STORE_ID"), rs.getLong("PRODUCT_ID"), rs.getString("ACTION"),
+        rs.getInt("QUANTITY"), rs.getObject("DELTA", Integer.class), rs.getString("ACTOR"),
+        rs.getTimestamp("RECORDED_AT").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settle;
+    private final int minEntries;
+    private final int maxPageSize;
+    private final Counter recordedCounter;
+    private final Counter snapshotCounter;
+    private final Timer replayTimer;
+
+    public StockLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                       @Value("${inventory.ledger.snapshot.settle:PT1M}") Duration settle,
+                       @Value("${inventory.ledger.snapshot.min-entries:10000}") int minEntries,
+                       @Value("${inventory.ledger.page.max-size:1000}") int maxPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settle = settle;
+        this.minEntries = Math.max(1, minEntries);
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.recordedCounter = meterRegistry.counter("inventory.ledger.entries");
+        this.snapshotCounter = meterRegistry.counter("inventory.ledger.snapshots");
+        this.replayTimer = Timer.builder("inventory.ledger.replay")
+            .description("Tiempo de reconstruccion del stock de una sucursal en un momento dado")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registra el movimiento en la transaccion que lo produjo: si se revierte, el movimiento tambien.
+     * Deja en el evento el ID asignado, que los listeners posteriores al commit usan para ordenar los cambios.
+     */
+    @EventListener
+    public void record(InventoryChangeEvent event) {
+        Object[] row = {event.getStoreId(), event.getProductId(), event.getAction(), event.getQuantity(),
+            event.getDelta(), currentActor(), Timestamp.from(Instant.now())};
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] {"ID"});
+            new ArgumentPreparedStatementSetter(row).setValues(statement);
+            return statement;
+        }, keyHolder);
+        event.setLedgerSequence(keyHolder.getKey().longValue());
+        recordedCounter.increment();
+    }
+
+    /**
+     * Registra los eventos de otras sucursales efectivamente aplicados. Debe llamarse dentro de la transaccion
+     * que los aplico. El delta queda en null: los eventos de un SKU se agrupan antes de aplicarse.
+     * @return el ID asignado a cada evento, en el mismo orden (0 si el driver no devuelve las claves del lote)
+     */
+    public long[] recordRemote(List<InventoryEventMessage> applied) {
+        if (applied.isEmpty()) {
+            return new long[0];
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(applied.size());
+        for (InventoryEventMessage event : applied) {
+            int quantity = event.action() == InventoryAction.DELETE_PRODUCT ? 0 : event.quantity();
+            rows.add(new Object[] {event.storeId(), event.productId(), event.action().name(), quantity, null, REMOTE_ACTOR, now});
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] {"ID"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    new ArgumentPreparedStatementSetter(rows.get(i)).setValues(statement);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            }, keyHolder);
+        recordedCounter.increment(applied.size());
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        long[] ids = new long[applied.size()];
+        if (keys.size() == ids.length) {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ((Number) keys.get(i).values().iterator().next()).longValue();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Movimientos de una sucursal (opcionalmente de un producto) registrados en el intervalo (from, to],
+     * en orden de secuencia y paginados por clave.
+     * @param afterSequence ultima secuencia de la pagina anterior (null para la primera)
+     */
+    public StockLedgerPageDTO movements(Long storeId, Long productId, Instant from, Instant to, Long afterSequence, int limit) {
+        int size = Math.min(Math.max(1, limit), maxPageSize);
+        List<Object> args = new ArrayList<>(List.of(storeId));
+        StringBuilder sql = new StringBuilder("SELECT ").append(ENTRY_COLUMNS).append(" FROM STOCK_LEDGER WHERE STORE_ID = ?");
+        if (productId != null) {
+            sql.append(" AND PRODUCT_ID = ?");
+            args.add(productId);
+        }
+        sql.append(" AND RECORDED_AT > ? AND RECORDED_AT <= ?");
+        args.add(Timestamp.from(from));
+        args.add(Timestamp.from(to));
+        if (afterSequence != null) {
+            sql.append(" AND ID > ?");
+            args.add(afterSequence);
+        }
+        sql.append(" ORDER BY ID FETCH FIRST ? ROWS ONLY");
+        args.add(size + 1);
+        List<StockLedgerEntryDTO> items = jdbcTemplate.query(sql.toString(), ENTRY_MAPPER, args.toArray());
+        Long next = null;
+        if (items.size() > size) {
+            items = new ArrayList<>(items.subList(0, size));
+            next = items.get(size - 1).getSequence();
+        }
+        return new StockLedgerPageDTO(items, next);
+    }
+
+    /**
+     * Stock de una sucursal (o de uno de sus productos si productId no es null) en el momento indicado,
+     * reconstruido desde la foto mas cercana anterior. Los productos que no existian en ese momento no aparecen.
+     * @throws LedgerHistoryUnavailableException si el momento es anterior a la primera foto de la sucursal
+     */
+    public StockAtDTO stockAt(Long storeId, Long productId, Instant at) {
+        return replayTimer.record(() -> {
+            Snapshot base = latestSnapshot(storeId, at);
+            if (base == null) {
+                throw new LedgerHistoryUnavailableException(storeId, at);
+            }
+            Map<Long, Integer> quantities = new TreeMap<>(loadSnapshot(base.id(), productId));
+            int replayed = replay(storeId, productId, base.takenAt(), at, quantities);
+            return new StockAtDTO(storeId, at, base.takenAt(), replayed, quantities);
+        });
+    }
+
+    /**
+     * Foto inicial de las sucursales que todavia no tienen ninguna, tomada de PRODUCT. Se fecha en "ahora - settle",
+     * el mismo corte que usa snapshotDueStores: un movimiento registrado antes de la lectura pero confirmado despues
+     * no esta en PRODUCT, y con la foto fechada en "ahora" su fila del ledger quedaria antes de la foto y no se
+     * reaplicaria nunca. Los movimientos confirmados entre el corte y la lectura se vuelven a aplicar al reconstruir
+     * (reaplicar una cantidad absoluta no cambia el resultado); a cambio, el stock de los momentos entre el corte y
+     * la lectura puede mostrar cantidades posteriores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialSnapshots() {
+        List<Long> storeIds = jdbcTemplate.queryForList(STORES_WITHOUT_SNAPSHOT_SQL, Long.class);
+        Instant cutoff = Instant.now().minus(settle);
+        for (Long storeId : storeIds) {
+            Map<Long, Integer> quantities = new HashMap<>();
+            jdbcTemplate.query("SELECT ID, QUANTITY FROM PRODUCT WHERE STORE_ID = ?",
+                rs -> { quantities.put(rs.getLong("ID"), rs.getInt("QUANTITY")); }, storeId);
+            saveSnapshot(storeId, cutoff, quantities);
+        }
+        if (!storeIds.isEmpty()) {
+            log.info("[LEDGER] Foto inicial de stock tomada para {} sucursales al {}", storeIds.size(), cutoff);
+        }
+    }
+
+    /**
+     * Toma una foto nueva de las sucursales con al menos minEntries movimientos desde su ultima foto.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot.interval:PT10M}", initialDelayString = "${inventory.ledger.snapshot.interval:PT10M}")
+    public void snapshotDueStores() {
+        Instant cutoff = Instant.now().minus(settle);
+        for (Long storeId : jdbcTemplate.queryForList(STORES_DUE_SQL, Long.class, Timestamp.from(cutoff), minEntries)) {
+            try {
+                snapshot(storeId, cutoff);
+            } catch (RuntimeException ex) {
+                log.error("[LEDGER] No se pudo tomar la foto de stock de la sucursal {}: {}", storeId, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Toma una foto de la sucursal al momento cutoff a partir de la foto anterior y los movimientos posteriores.
+     * @return false si la sucursal no tiene una foto anterior a cutoff
+     */
+    boolean snapshot(Long storeId, Instant cutoff) {
+        Snapshot base = latestSnapshot(storeId, cutoff);
+        if (base == null) {
+            return false;
+        }
+        Map<Long, Integer> quantities = loadSnapshot(base.id(), null);
+        int replayed = replay(storeId, null, base.takenAt(), cutoff, quantities);
+        saveSnapshot(storeId, cutoff, quantities);
+        log.info("[LEDGER] Foto de stock de la sucursal {} al {}: {} productos, {} movimientos aplicados",
+            storeId, cutoff, quantities.size(), replayed);
+        return true;
+    }
+
+    private Snapshot latestSnapshot(Long storeId, Instant at) {
+        List<Snapshot> rows = jdbcTemplate.query(LATEST_SNAPSHOT_SQL,
+            (rs, rowNum) -> new Snapshot(rs.getLong("ID"), rs.getTimestamp("TAKEN_AT").toInstant()), storeId, Timestamp.from(at));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Map<Long, Integer> loadSnapshot(long snapshotId, Long productId) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        if (productId == null) {
+            jdbcTemplate.query("SELECT PRODUCT_ID, QUANTITY FROM STOCK_SNAPSHOT_ITEM WHERE SNAPSHOT_ID = ?",
+                rs -> { quantities.put(rs.getLong("PRODUCT_ID"), rs.getInt("QUANTITY")); }, snapshotId);
+        } else {
+            jdbcTemplate.query("SELECT PRODUCT_ID, QUANTITY FROM STOCK_SNAPSHOT_ITEM WHERE SNAPSHOT_ID = ? AND PRODUCT_ID = ?",
+                rs -> { quantities.put(rs.getLong("PRODUCT_ID"), rs.getInt("QUANTITY")); }, snapshotId, productId);
+        }
+        return quantities;
+    }
+
+    /**
+     * Aplica sobre quantities los movimientos registrados en (from, to], en orden de secuencia.
+     * @return cantidad de movimientos aplicados
+     */
+    private int replay(Long storeId, Long productId, Instant from, Instant to, Map<Long, Integer> quantities) {
+        int[] replayed = {0};
+        StringBuilder sql = new StringBuilder("SELECT PRODUCT_ID, ACTION, QUANTITY FROM STOCK_LEDGER WHERE STORE_ID = ?");
+        List<Object> args = new ArrayList<>(List.of(storeId));
+        if (productId != null) {
+            sql.append(" AND PRODUCT_ID = ?");
+            args.add(productId);
+        }
+        sql.append(" AND RECORDED_AT > ? AND RECORDED_AT <= ? ORDER BY ID");
+        args.add(Timestamp.from(from));
+        args.add(Timestamp.from(to));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            long id = rs.getLong("PRODUCT_ID");
+            if (InventoryAction.DELETE_PRODUCT.name().equals(rs.getString("ACTION"))) {
+                quantities.remove(id);
+            } else {
+                quantities.put(id, rs.getInt("QUANTITY"));
+            }
+            replayed[0]++;
+        }, args.toArray());
+        return replayed[0];
+    }
+
+    private void saveSnapshot(Long storeId, Instant takenAt, Map<Long, Integer> quantities) {
+        transactionTemplate.executeWithoutResult(status -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                var statement = connection.prepareStatement(INSERT_SNAPSHOT_SQL, new String[] {"ID"});
+                statement.setLong(1, storeId);
+                statement.setTimestamp(2, Timestamp.from(takenAt));
+                return statement;
+            }, keyHolder);
+            long snapshotId = keyHolder.getKey().longValue();
+            List<Object[]> items = new ArrayList<>(quantities.size());
+            quantities.forEach((productId, quantity) -> items.add(new Object[] {snapshotId, productId, quantity}));
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_ITEM_SQL, items);
+        });
+        snapshotCounter.increment();
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null) {
+            return SYSTEM_ACTOR;
+        }
+        String name = authentication.getName();
+        return name.length() > MAX_ACTOR_LENGTH ? name.substring(0, MAX_ACTOR_LENGTH) : name;
+    }
+
+    private record Snapshot(long id, Instant takenAt) {
+    }
+}
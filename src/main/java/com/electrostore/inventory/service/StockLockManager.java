@@ -0,0 +1,119 @@
+package com.electrostore.inventory.service;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Control de concurrencia por SKU (producto + sucursal) usando locks particionados (striping).
+ * Cada ProductId se asigna a uno de un numero fijo de ReentrantLock, por lo que la memoria
+ * usada no crece con la cantidad de SKUs. Dos SKUs distintos pueden compartir stripe, lo cual
+ * solo serializa operaciones que de otro modo serian independientes, nunca rompe la exclusion.
+ * Exporta metricas de espera y contencion en el MeterRegistry.
+ */
+@Component
+public class StockLockManager {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final Timer lockWaitTimer;
+    private final Timer lockContentionTimer;
+    private final Timer lockHoldTimer;
+
+    public StockLockManager(MeterRegistry meterRegistry, @Value("${inventory.locks.stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.lockWaitTimer = Timer.builder("inventory.lock.wait")
+            .description("Tiempo de espera para adquirir el lock de un SKU")
+            .register(meterRegistry);
+        this.lockContentionTimer = Timer.builder("inventory.lock.contention")
+            .description("Tiempo de espera de las adquisiciones que encontraron el lock ocupado")
+            .register(meterRegistry);
+        this.lockHoldTimer = Timer.builder("inventory.lock.hold")
+            .description("Tiempo que se mantiene tomado el lock de un SKU")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la accion con el lock del SKU tomado.
+     * @param productId clave compuesta del producto en la sucursal
+     * @param action operacion a ejecutar en exclusion mutua
+     * @return el resultado de la accion
+     */
+    public <T> T withLock(ProductId productId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(productId)];
+        acquire(lock);
+        long heldSince = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            lockHoldTimer.record(System.nanoTime() - heldSince, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Ejecuta la accion con los locks de todos los SKUs indicados tomados.
+     * Los stripes se adquieren una sola vez cada uno y en orden ascendente, de modo que dos
+     * lotes concurrentes no pueden bloquearse mutuamente.
+     * @param productIds SKUs involucrados en la operacion
+     * @param action operacion a ejecutar en exclusion mutua
+     * @return el resultado de la accion
+     */
+    public <T> T withLocks(Collection<ProductId> productIds, Supplier<T> action) {
+        int[] indexes = productIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                acquired++;
+            }
+            long heldSince = System.nanoTime();
+            try {
+                return action.get();
+            } finally {
+                lockHoldTimer.record(System.nanoTime() - heldSince, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Cantidad de stripes (potencia de dos), fija durante toda la vida del componente.
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(ProductId productId) {
+        int h = productId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            lockWaitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        lockWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+        lockContentionTimer.record(waited, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,287 @@
+package com.electrostore.inventory.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.exception.ReservationNotFoundException;
+import com.electrostore.inventory.model.ProductId;
+import com.electrostore.inventory.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reservas de stock con vencimiento para el checkout, mantenidas en memoria.
+ * Por SKU se guarda la cantidad confirmada en la base (se carga la primera vez que se usa el SKU y despues se
+ * actualiza con cada InventoryChangeEvent confirmado) y el total reservado. Disponible para vender = cantidad - reservado.
+ * Reservar no toca la base ni toma locks: es un compare-and-set sobre el total reservado del SKU, por lo que miles
+ * de reservas simultaneas sobre un producto muy vendido no se serializan en su fila. La fila solo se modifica al
+ * confirmar, con el ajuste condicional de InventoryService, que vuelve a validar el stock.
+ * Los vencimientos se programan en una TimerWheel que se avanza cada tick; una reserva confirmada o liberada
+ * antes de vencer simplemente se ignora cuando llega su vencimiento.
+ * Solo se guardan los SKUs con unidades reservadas: cuando el total reservado vuelve a 0 la entrada se retira
+ * (se marca con RETIRED y se quita del mapa) y una reserva posterior vuelve a cargar la cantidad de la base.
+ * Los ajustes negativos de InventoryService no pueden dejar el stock por debajo de lo reservado. Las
+ * actualizaciones absolutas (conteos, lotes, eventos de otras sucursales) si pueden: las reservas que queden sin
+ * stock se rechazan al confirmar.
+ * Las reservas son locales a la instancia: con varias instancias las de un mismo SKU deben atenderse en la misma.
+ */
+@Component
+public class StockReservations {
+    private static final Logger log = LoggerFactory.getLogger(StockReservations.class);
+    private static final int WHEEL_SLOTS = 512;
+    // Total reservado de una entrada ya quitada del mapa: quien la tenga debe volver a buscar el SKU
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final ProductRepository productRepository;
+    private final StockLockManager stockLockManager;
+    private final MappedStockTable mappedStockTable;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Map<ProductId, SkuStock> skus = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final TimerWheel<Reservation> expirations;
+    private final ReentrantLock expireLock = new ReentrantLock();
+    private final Counter heldCounter;
+    private final Counter rejectedCounter;
+    private final Counter confirmedCounter;
+    private final Counter releasedCounter;
+    private final Counter expiredCounter;
+
+    public StockReservations(ProductRepository productRepository, StockLockManager stockLockManager,
+                             MappedStockTable mappedStockTable, MeterRegistry meterRegistry,
+                             @Value("${inventory.reservations.default-ttl:PT10M}") Duration defaultTtl,
+                             @Value("${inventory.reservations.max-ttl:PT1H}") Duration maxTtl,
+                             @Value("${inventory.reservations.tick:PT1S}") Duration tick) {
+        this.productRepository = productRepository;
+        this.stockLockManager = stockLockManager;
+        this.mappedStockTable = mappedStockTable;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.expirations = new TimerWheel<>(tick.toMillis(), WHEEL_SLOTS, System.currentTimeMillis());
+        meterRegistry.gauge("inventory.reservations.active", reservations, Map::size);
+        this.heldCounter = meterRegistry.counter("inventory.reservations", "result", "held");
+        this.rejectedCounter = meterRegistry.counter("inventory.reservations", "result", "rejected");
+        this.confirmedCounter = meterRegistry.counter("inventory.reservations", "result", "confirmed");
+        this.releasedCounter = meterRegistry.counter("inventory.reservations", "result", "released");
+        this.expiredCounter = meterRegistry.counter("inventory.reservations", "result", "expired");
+    }
+
+    /**
+     * Reserva unidades de un producto.
+     * @param ttl vigencia de la reserva (la configurada por defecto si es null, acotada a la maxima)
+     * @throws InsufficientStockException si no hay suficiente stock disponible para vender
+     * @throws ProductNotInStoreException si el producto no existe en la sucursal
+     */
+    public Reservation reserve(Long storeId, Long productId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("La cantidad a reservar debe ser positiva");
+        }
+        while (true) {
+            SkuStock sku = sku(storeId, productId);
+            int reserved = sku.reserved.get();
+            if (reserved == RETIRED) {
+                Thread.onSpinWait(); // se esta quitando del mapa
+                continue;
+            }
+            int available = sku.onHand - reserved;
+            if (available < quantity) {
+                rejectedCounter.increment();
+                if (reserved == 0) {
+                    retireIfUnused(new ProductId(productId, storeId), sku);
+                }
+                throw new InsufficientStockException(productId, storeId, Math.max(0, available), -quantity);
+            }
+            if (sku.reserved.compareAndSet(reserved, reserved + quantity)) {
+                break;
+            }
+        }
+
+        Duration effectiveTtl = ttl == null || ttl.isNegative() || ttl.isZero() ? defaultTtl
+            : ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+        Instant expiresAt = Instant.now().plus(effectiveTtl);
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), storeId, productId, quantity, expiresAt);
+        reservations.put(reservation.id(), reservation);
+        expirations.schedule(reservation, expiresAt.toEpochMilli());
+        heldCounter.increment();
+        return reservation;
+    }
+
+    /**
+     * Quita la reserva para confirmarla. Las unidades siguen contando como reservadas hasta settle(),
+     * que debe llamarse una vez descontado (o no) el stock en la base.
+     * @throws ReservationNotFoundException si la reserva no existe, vencio o ya se confirmo o libero
+     */
+    public Reservation claim(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        return reservation;
+    }
+
+    /**
+     * Libera las unidades de una reserva tomada con claim().
+     */
+    public void settle(Reservation reservation, boolean confirmed) {
+        unreserve(reservation);
+        (confirmed ? confirmedCounter : releasedCounter).increment();
+    }
+
+    /**
+     * Libera una reserva sin descontar stock.
+     * @throws ReservationNotFoundException si la reserva no existe, vencio o ya se confirmo o libero
+     */
+    public void release(String reservationId) {
+        settle(claim(reservationId), false);
+    }
+
+    /**
+     * Stock disponible para vender: cantidad confirmada menos reservas activas (nunca negativo).
+     * Un SKU sin reservas se lee sin guardarlo, de la tabla mapeada si esta activa o de la base.
+     * @throws ProductNotInStoreException si el producto no existe en la sucursal
+     */
+    public int availableToSell(Long storeId, Long productId) {
+        SkuStock sku = skus.get(new ProductId(productId, storeId));
+        int reserved = sku == null ? RETIRED : sku.reserved.get();
+        return reserved == RETIRED ? onHand(storeId, productId) : Math.max(0, sku.onHand - reserved);
+    }
+
+    /**
+     * Unidades reservadas de un SKU (0 si no tiene reservas). No carga el SKU.
+     */
+    public int reserved(Long storeId, Long productId) {
+        SkuStock sku = skus.get(new ProductId(productId, storeId));
+        return sku == null ? 0 : Math.max(0, sku.reserved.get());
+    }
+
+    /**
+     * Mantiene la cantidad de los SKUs en uso. Corre despues del commit con el lock del SKU todavia tomado,
+     * por lo que las cantidades llegan en orden de commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        onQuantity(event.getStoreId(), event.getProductId(), event.getQuantity());
+    }
+
+    /**
+     * Actualiza la cantidad confirmada de un SKU si esta en uso. Lo usa tambien la aplicacion de eventos remotos.
+     */
+    public void onQuantity(Long storeId, Long productId, int quantity) {
+        SkuStock sku = skus.get(new ProductId(productId, storeId));
+        if (sku != null) {
+            sku.onHand = quantity;
+        }
+    }
+
+    /**
+     * Vence las reservas cuyo plazo ya paso. La rueda se avanza de a un hilo por vez.
+     */
+    @Scheduled(fixedRateString = "${inventory.reservations.tick:PT1S}")
+    public void expire() {
+        int expired;
+        expireLock.lock();
+        try {
+            expired = expirations.advance(System.currentTimeMillis(), reservation -> {
+                if (reservations.remove(reservation.id(), reservation)) {
+                    unreserve(reservation);
+                    expiredCounter.increment();
+                }
+            });
+        } finally {
+            expireLock.unlock();
+        }
+        if (expired > 0) {
+            log.debug("[RESERVAS] {} vencimientos procesados", expired);
+        }
+    }
+
+    int trackedSkus() {
+        return skus.size();
+    }
+
+    /**
+     * Devuelve las unidades de la reserva y retira el SKU si ya no le quedan reservas. La entrada sigue en el mapa
+     * mientras tenga unidades reservadas, y una reserva que la encuentre retirada vuelve a buscar el SKU.
+     */
+    private void unreserve(Reservation reservation) {
+        ProductId id = new ProductId(reservation.productId(), reservation.storeId());
+        SkuStock sku = skus.get(id);
+        if (sku.reserved.addAndGet(-reservation.quantity()) == 0) {
+            retireIfUnused(id, sku);
+        }
+    }
+
+    private void retireIfUnused(ProductId id, SkuStock sku) {
+        if (sku.reserved.compareAndSet(0, RETIRED)) {
+            skus.remove(id, sku);
+        }
+    }
+
+    /**
+     * Estado del SKU, cargado con onHand la primera vez. La carga se hace con el lock del SKU, el mismo con el
+     * que se confirman las escrituras, asi ninguna cantidad confirmada se pierde entre la lectura y el registro.
+     */
+    private SkuStock sku(Long storeId, Long productId) {
+        ProductId id = new ProductId(productId, storeId);
+        SkuStock sku = skus.get(id);
+        if (sku != null) {
+            return sku;
+        }
+        return stockLockManager.withLock(id, () -> {
+            SkuStock current = skus.get(id);
+            if (current != null) {
+                return current;
+            }
+            SkuStock loaded = new SkuStock(onHand(storeId, productId));
+            skus.put(id, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Cantidad confirmada del SKU. La tabla mapeada se actualiza despues de cada commit con el lock del SKU tomado,
+     * asi que leida con ese lock coincide con la base; si no esta lista (o no tiene el SKU) se lee PRODUCT.
+     */
+    private int onHand(Long storeId, Long productId) {
+        MappedStockTable.Stock stock = mappedStockTable.get(storeId, productId);
+        if (stock != null) {
+            return stock.quantity();
+        }
+        Integer quantity = productRepository.findQuantity(storeId, productId);
+        if (quantity == null) {
+            throw new ProductNotInStoreException(productId, storeId);
+        }
+        return quantity;
+    }
+
+    private static final class SkuStock {
+        private volatile int onHand;
+        private final AtomicInteger reserved = new AtomicInteger();
+
+        private SkuStock(int onHand) {
+            this.onHand = onHand;
+        }
+    }
+
+    /**
+     * Reserva activa de unidades de un producto en una sucursal.
+     */
+    public record Reservation(String id, Long storeId, Long productId, int quantity, Instant expiresAt) {
+    }
+}
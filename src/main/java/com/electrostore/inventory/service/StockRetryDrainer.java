@@ -0,0 +1,175 @@
+package com.electrostore.inventory.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.exception.StoreNotFoundException;
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reintenta periodicamente las actualizaciones de stock del StockRetryLog.
+ * Cada pasada toma las entradas cuyo proximo intento ya vencio y las aplica en un pool de tamaño fijo
+ * (inventory.retry.concurrency), asi un backlog grande no satura la base al recuperarse.
+ * Ante un error transitorio la entrada se reprograma con backoff exponencial con jitter; los errores
+ * definitivos (producto o sucursal inexistente, cantidad invalida) y las entradas que agotan
+ * inventory.retry.max-attempts se descartan con un log de error.
+ * La entrada se vuelve a verificar con el lock del SKU tomado: si mientras tanto una actualizacion
+ * posterior la reemplazo o la cancelo, no se aplica.
+ * Con spring.threads.virtual.enabled los reintentos corren en hilos virtuales; el pool sigue siendo de
+ * tamaño fijo para acotar la concurrencia contra la base.
+ */
+@Component
+public class StockRetryDrainer {
+    private static final Logger log = LoggerFactory.getLogger(StockRetryDrainer.class);
+
+    private final StockRetryLog stockRetryLog;
+    private final InventoryService inventoryService;
+    private final StockLockManager stockLockManager;
+    private final ExecutorService executor;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    public StockRetryDrainer(StockRetryLog stockRetryLog, InventoryService inventoryService, StockLockManager stockLockManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.retry.concurrency:4}") int concurrency,
+                             @Value("${inventory.retry.backoff.initial:PT1S}") Duration initialBackoff,
+                             @Value("${inventory.retry.backoff.max:PT5M}") Duration maxBackoff,
+                             @Value("${inventory.retry.max-attempts:20}") int maxAttempts,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.stockRetryLog = stockRetryLog;
+        this.inventoryService = inventoryService;
+        this.stockLockManager = stockLockManager;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), threadFactory(virtualThreads));
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.succeededCounter = meterRegistry.counter("inventory.retry.replays", "result", "success");
+        this.failedCounter = meterRegistry.counter("inventory.retry.replays", "result", "failed");
+        this.droppedCounter = meterRegistry.counter("inventory.retry.replays", "result", "dropped");
+        Gauge.builder("inventory.retry.depth", stockRetryLog, StockRetryLog::depth)
+            .description("Actualizaciones de stock pendientes de reintento")
+            .register(meterRegistry);
+        Gauge.builder("inventory.retry.oldest.age", stockRetryLog, StockRetryDrainer::oldestAgeSeconds)
+            .description("Antiguedad en segundos de la actualizacion pendiente mas vieja")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.retry.poll-interval:PT5S}")
+    public void drain() {
+        long now = System.currentTimeMillis();
+        List<StockRetryLog.Entry> due = new ArrayList<>();
+        for (StockRetryLog.Entry entry : stockRetryLog.pending()) {
+            if (entry.nextAttemptAt <= now) {
+                due.add(entry);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        due.sort(Comparator.comparingLong(StockRetryLog.Entry::getSequence));
+        List<Future<?>> replays = new ArrayList<>(due.size());
+        for (StockRetryLog.Entry entry : due) {
+            replays.add(executor.submit(() -> replay(entry)));
+        }
+        for (Future<?> replay : replays) {
+            try {
+                replay.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                log.error("[RETRY] Error inesperado reintentando una actualizacion de stock", ex.getCause());
+            }
+        }
+        log.info("[RETRY] Pasada de reintentos: {} actualizaciones procesadas, {} pendientes", due.size(), stockRetryLog.depth());
+    }
+
+    void replay(StockRetryLog.Entry entry) {
+        try {
+            Boolean updated = stockLockManager.withLock(new ProductId(entry.productId, entry.storeId), () ->
+                stockRetryLog.isPending(entry) ? inventoryService.applyStockUpdate(entry.storeId, entry.productId, entry.quantity) : null);
+            if (updated == null) {
+                return; // reemplazada o cancelada por una actualizacion posterior
+            }
+            if (updated) {
+                succeededCounter.increment();
+            } else {
+                drop(entry, "cantidad invalida");
+            }
+            stockRetryLog.complete(entry);
+        } catch (ProductNotInStoreException | StoreNotFoundException ex) {
+            drop(entry, ex.getMessage());
+            stockRetryLog.complete(entry);
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            entry.attempts++;
+            if (entry.attempts >= maxAttempts) {
+                drop(entry, "se agotaron los reintentos: " + ex.getMessage());
+                stockRetryLog.complete(entry);
+            } else {
+                entry.nextAttemptAt = System.currentTimeMillis() + backoffMillis(entry.attempts);
+            }
+        }
+    }
+
+    private void drop(StockRetryLog.Entry entry, String reason) {
+        droppedCounter.increment();
+        log.error("[RETRY] Se descarta la actualizacion de stock del producto {} en sucursal {} a {} unidades: {}",
+            entry.productId, entry.storeId, entry.quantity, reason);
+    }
+
+    // Backoff exponencial acotado, con +-20% de jitter para no reintentar todo a la vez
+    long backoffMillis(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long capped = Math.min(Math.max(base, 0), maxBackoff.toMillis());
+        return (long) (capped * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("stock-retry-", 1).factory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "stock-retry-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static double oldestAgeSeconds(StockRetryLog retryLog) {
+        long oldest = retryLog.oldestCreatedAt();
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
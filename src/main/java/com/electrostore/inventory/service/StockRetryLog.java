@@ -0,0 +1,290 @@
+package com.electrostore.inventory.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.model.ProductId;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Log persistente, solo de agregado (append-only), de actualizaciones de stock pendientes de reintento.
+ * Se guarda en un archivo local y no en la base porque se usa justamente cuando la base falla.
+ * Cada registro ocupa RECORD_SIZE bytes con CRC: PENDING (actualizacion a reintentar) o DONE (marca que
+ * la actualizacion con esa secuencia ya no debe reintentarse). Al arrancar se relee el archivo y se
+ * descarta una cola incompleta (escritura cortada por una caida).
+ * En memoria se mantiene solo la ultima actualizacion pendiente por SKU: una cantidad absoluta mas nueva
+ * reemplaza a la anterior. Cuando no queda nada pendiente el archivo se trunca, y si crece demasiado
+ * se reescribe solo con los registros vigentes.
+ * Las escrituras se serializan con un ReentrantLock y no con synchronized: el fsync se hace con el lock
+ * tomado y, con hilos virtuales, un bloque synchronized fijaria el hilo portador durante la espera del disco.
+ */
+@Component
+public class StockRetryLog {
+    static final int RECORD_SIZE = 1 + 8 + 8 + 8 + 8 + 4 + 4;
+    private static final byte PENDING = 1;
+    private static final byte DONE = 2;
+    private static final Logger log = LoggerFactory.getLogger(StockRetryLog.class);
+
+    private final Path path;
+    private final boolean fsync;
+    private final long compactThresholdBytes;
+    private final Map<ProductId, Entry> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private FileChannel channel;
+
+    public StockRetryLog(@Value("${inventory.retry.log-path:data/stock-retry.log}") String path,
+                         @Value("${inventory.retry.fsync:true}") boolean fsync,
+                         @Value("${inventory.retry.compact-threshold-bytes:1048576}") long compactThresholdBytes) throws IOException {
+        this.path = Path.of(path);
+        this.fsync = fsync;
+        this.compactThresholdBytes = compactThresholdBytes;
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+        this.channel = open();
+        recover();
+    }
+
+    /**
+     * Registra una actualizacion de stock a reintentar. Reemplaza a la pendiente del mismo SKU, si existe.
+     */
+    public Entry append(Long storeId, Long productId, int quantity) {
+        writeLock.lock();
+        try {
+            Entry entry = new Entry(sequence.incrementAndGet(), System.currentTimeMillis(), storeId, productId, quantity);
+            write(PENDING, entry);
+            pending.put(entry.key(), entry);
+            return entry;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marca la entrada como resuelta (aplicada o descartada). Si fue reemplazada por una mas nueva no hace nada.
+     */
+    public void complete(Entry entry) {
+        writeLock.lock();
+        try {
+            if (!pending.remove(entry.key(), entry)) {
+                return;
+            }
+            if (pending.isEmpty()) {
+                truncate();
+            } else {
+                write(DONE, entry);
+                compactIfNeeded();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Descarta la actualizacion pendiente del SKU, si la hay. Se llama cuando una actualizacion posterior
+     * se confirmo directamente, para que el reintento no pise un valor mas nuevo.
+     */
+    public void cancel(Long storeId, Long productId) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Entry entry = pending.get(new ProductId(productId, storeId));
+        if (entry != null) {
+            complete(entry);
+        }
+    }
+
+    public boolean isPending(Entry entry) {
+        return pending.get(entry.key()) == entry;
+    }
+
+    public List<Entry> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    public int depth() {
+        return pending.size();
+    }
+
+    /**
+     * @return fecha de creacion (ms) de la entrada pendiente mas antigua, o 0 si no hay
+     */
+    public long oldestCreatedAt() {
+        long oldest = 0;
+        for (Entry entry : pending.values()) {
+            if (oldest == 0 || entry.createdAt < oldest) {
+                oldest = entry.createdAt;
+            }
+        }
+        return oldest;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        long position = 0;
+        long size = channel.size();
+        while (position + RECORD_SIZE <= size) {
+            buffer.clear();
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+                // lectura completa del registro
+            }
+            buffer.flip();
+            byte type = buffer.get();
+            Entry entry = new Entry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt());
+            if (buffer.getInt() != checksum(buffer.array()) || (type != PENDING && type != DONE)) {
+                break;
+            }
+            sequence.accumulateAndGet(entry.sequence, Math::max);
+            if (type == PENDING) {
+                pending.merge(entry.key(), entry, (current, candidate) -> candidate.sequence > current.sequence ? candidate : current);
+            } else {
+                Entry current = pending.get(entry.key());
+                if (current != null && current.sequence <= entry.sequence) {
+                    pending.remove(entry.key());
+                }
+            }
+            position += RECORD_SIZE;
+        }
+        if (position < size) {
+            log.warn("[RETRY] Se descartan {} bytes incompletos o corruptos al final de {}", size - position, path);
+            channel.truncate(position);
+        }
+        channel.position(position);
+        if (!pending.isEmpty()) {
+            log.info("[RETRY] Recuperadas {} actualizaciones de stock pendientes desde {}", pending.size(), path);
+        }
+    }
+
+    private void write(byte type, Entry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.put(type)
+            .putLong(entry.sequence)
+            .putLong(entry.createdAt)
+            .putLong(entry.storeId)
+            .putLong(entry.productId)
+            .putInt(entry.quantity);
+        buffer.putInt(checksum(buffer.array()));
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir el log de reintentos " + path, ex);
+        }
+    }
+
+    private void truncate() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo truncar el log de reintentos " + path, ex);
+        }
+    }
+
+    // Reescribe el archivo solo con las entradas pendientes cuando los registros resueltos son mayoria
+    private void compactIfNeeded() {
+        try {
+            long size = channel.size();
+            if (size < compactThresholdBytes || size < 2L * pending.size() * RECORD_SIZE) {
+                return;
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            FileChannel previous = channel;
+            channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            try {
+                for (Entry entry : pending.values()) {
+                    write(PENDING, entry);
+                }
+                channel.force(true);
+            } finally {
+                channel.close();
+                channel = previous;
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            previous.close();
+            channel = open();
+            channel.position(channel.size());
+            log.info("[RETRY] Log de reintentos compactado de {} a {} bytes", size, channel.size());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo compactar el log de reintentos " + path, ex);
+        }
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, RECORD_SIZE - 4);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Actualizacion de stock pendiente. El numero de intentos y el proximo intento viven solo en memoria.
+     */
+    public static final class Entry {
+        final long sequence;
+        final long createdAt;
+        final long storeId;
+        final long productId;
+        final int quantity;
+        int attempts;
+        long nextAttemptAt;
+
+        Entry(long sequence, long createdAt, long storeId, long productId, int quantity) {
+            this.sequence = sequence;
+            this.createdAt = createdAt;
+            this.storeId = storeId;
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        ProductId key() {
+            return new ProductId(productId, storeId);
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StoreDTO;
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductStoreView;
+
+/**
+ * Carga el inventario completo de una sucursal desde la base con una unica consulta.
+ * Lo usan tanto la lectura cacheada del servicio como el refresco en segundo plano del cache local.
+ */
+@Component
+public class StoreInventoryLoader {
+    private static final Logger log = LoggerFactory.getLogger(StoreInventoryLoader.class);
+    private final ProductRepository productRepository;
+
+    public StoreInventoryLoader(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Devuelve los productos de la sucursal; todos comparten la misma instancia de StoreDTO.
+     */
+    public List<ProductDTO> load(Long storeId) {
+        log.info("[CACHE MISS] Consultando inventario en base de datos para la sucursal {}", storeId);
+        return toProductDTOs(productRepository.findInventoryViewByStoreId(storeId));
+    }
+
+    /**
+     * Convierte filas de una misma sucursal en ProductDTO que comparten un unico StoreDTO.
+     */
+    public List<ProductDTO> toProductDTOs(List<ProductStoreView> rows) {
+        List<ProductDTO> dtos = new ArrayList<>(rows.size());
+        StoreDTO store = null;
+        for (ProductStoreView row : rows) {
+            if (store == null) {
+                store = toStoreDTO(row);
+            }
+            dtos.add(toProductDTO(row, store));
+        }
+        return dtos;
+    }
+
+    public StoreDTO toStoreDTO(ProductStoreView view) {
+        StoreDTO store = new StoreDTO();
+        store.setId(view.storeId());
+        store.setName(view.storeName());
+        store.setLocation(view.storeLocation());
+        return store;
+    }
+
+    public ProductDTO toProductDTO(ProductStoreView view, StoreDTO store) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(view.id());
+        dto.setName(view.name());
+        dto.setCategory(view.category());
+        dto.setQuantity(view.quantity());
+        dto.setStore(store);
+        return dto;
+    }
+}
@@ -0,0 +1,103 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga datos sinteticos en STORE y PRODUCT para pruebas de carga con catalogos de tamaño real.
+ * Se activa con el perfil "datagen" y corre al crearse el bean, antes de que se construyan la tabla de stock mapeada
+ * y el stock central (ver CentralStockAggregate.afterSingletonsInstantiated) y antes de aceptar peticiones.
+ * Usa INSERT por lotes de JDBC. Las sucursales arrancan en FIRST_STORE_ID y los productos en
+ * FIRST_PRODUCT_ID para no chocar con data.sql; cada sucursal tiene una fraccion (coverage) del mismo
+ * catalogo, asi el stock central suma varias sucursales por producto. Con la misma semilla los datos
+ * son siempre los mismos.
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements InitializingBean {
+    public static final long FIRST_STORE_ID = 1_000L;
+    public static final long FIRST_PRODUCT_ID = 100_000L;
+    public static final String[] CATEGORIES = {"TV", "Computadora", "Celular", "Electrodomestico", "Audio", "Tablet", "Consola", "Camara"};
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final String INSERT_STORE = "INSERT INTO STORE (ID, NAME, LOCATION) VALUES (?, ?, ?)";
+    private static final String INSERT_PRODUCT = "INSERT INTO PRODUCT (ID, STORE_ID, NAME, CATEGORY, QUANTITY) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int stores;
+    private final int productsPerStore;
+    private final double coverage;
+    private final int batchSize;
+    private final long seed;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  @Value("${inventory.datagen.stores:200}") int stores,
+                                  @Value("${inventory.datagen.products-per-store:100000}") int productsPerStore,
+                                  @Value("${inventory.datagen.coverage:0.8}") double coverage,
+                                  @Value("${inventory.datagen.batch-size:5000}") int batchSize,
+                                  @Value("${inventory.datagen.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stores = stores;
+        this.productsPerStore = productsPerStore;
+        this.coverage = coverage;
+        this.batchSize = Math.max(1, batchSize);
+        this.seed = seed;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        generate();
+    }
+
+    /**
+     * Inserta las sucursales y sus productos.
+     * @return cantidad de filas de PRODUCT insertadas
+     */
+    public long generate() {
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>(Math.min(batchSize, Math.max(stores, 1)));
+        for (int s = 0; s < stores; s++) {
+            long storeId = FIRST_STORE_ID + s;
+            rows.add(new Object[] {storeId, "Sucursal " + storeId, "Direccion " + storeId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_STORE, rows);
+        rows.clear();
+
+        long products = 0;
+        for (int s = 0; s < stores; s++) {
+            long storeId = FIRST_STORE_ID + s;
+            Random random = new Random(seed * 31 + storeId);
+            for (int p = 0; p < productsPerStore; p++) {
+                if (coverage < 1.0 && random.nextDouble() >= coverage) {
+                    continue;
+                }
+                long productId = FIRST_PRODUCT_ID + p;
+                // ~5% sin stock, el resto entre 1 y 200 unidades
+                int quantity = random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(200);
+                rows.add(new Object[] {productId, storeId, "Producto " + productId, CATEGORIES[p % CATEGORIES.length], quantity});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+                    products += rows.size();
+                    rows.clear();
+                }
+            }
+            if ((s + 1) % 10 == 0 || s + 1 == stores) {
+                log.info("[DATAGEN] {} de {} sucursales generadas", s + 1, stores);
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+            products += rows.size();
+        }
+        log.info("[DATAGEN] {} sucursales y {} productos generados en {} ms", stores, products, (System.nanoTime() - start) / 1_000_000);
+        return products;
+    }
+}
@@ -0,0 +1,91 @@
+package com.electrostore.inventory.service;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para vencimientos masivos con precision de un tick.
+ * Programar un vencimiento es O(1) y desde cualquier hilo: se encola en una cola sin locks. Un unico hilo
+ * llama a advance() periodicamente; ese hilo pasa los pendientes a su casillero (vencimiento modulo cantidad de
+ * casilleros) y recorre solo los casilleros de los ticks transcurridos, no todos los elementos programados.
+ * Un elemento cuyo vencimiento esta a mas de una vuelta queda en su casillero hasta la vuelta correspondiente.
+ * No hay cancelacion: quien recibe el vencimiento debe ignorar los elementos que ya no estan activos.
+ */
+final class TimerWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Queue<Timeout<T>>[] slots;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    // Solo lo modifica el hilo que llama a advance()
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int slotCount, long startMillis) {
+        int size = Integer.highestOneBit(Math.max(1, slotCount - 1) << 1);
+        this.tickMillis = Math.max(1, tickMillis);
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Programa el vencimiento del elemento para el momento indicado (millis epoch).
+     */
+    void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(0, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        pending.add(new Timeout<>(item, deadlineTick));
+    }
+
+    /**
+     * Procesa los ticks transcurridos hasta nowMillis y entrega cada elemento vencido al consumidor.
+     * Debe llamarse siempre desde el mismo hilo (o con exclusion mutua).
+     * @return cantidad de elementos vencidos
+     */
+    int advance(long nowMillis, Consumer<T> onExpired) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        int expired = 0;
+        for (Timeout<T> timeout; (timeout = pending.poll()) != null; ) {
+            // Un vencimiento ya pasado va al casillero del tick actual
+            long tick = Math.max(timeout.deadlineTick, currentTick);
+            slots[(int) (tick & mask)].add(timeout);
+        }
+        // Cada casillero se visita como mucho una vez por llamada, aunque hayan pasado varias vueltas
+        long lastTick = Math.min(nowTick, currentTick + mask);
+        for (; currentTick <= lastTick; currentTick++) {
+            Iterator<Timeout<T>> it = slots[(int) (currentTick & mask)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.deadlineTick <= nowTick) {
+                    it.remove();
+                    onExpired.accept(timeout.item);
+                    expired++;
+                }
+            }
+        }
+        if (currentTick <= nowTick) {
+            currentTick = nowTick + 1;
+        }
+        return expired;
+    }
+
+    /**
+     * Cantidad de elementos programados todavia no vencidos (aproximada si se llama fuera del hilo de advance).
+     */
+    int size() {
+        int size = pending.size();
+        for (Queue<Timeout<T>> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private record Timeout<T>(T item, long deadlineTick) {
+    }
+}
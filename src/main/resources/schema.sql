@@ -12,4 +12,74 @@ CREATE TABLE PRODUCT (
     QUANTITY INT,
     CONSTRAINT PK_PRODUCT PRIMARY KEY (ID, STORE_ID),
     CONSTRAINT FK_STORE FOREIGN KEY (STORE_ID) REFERENCES STORE(ID)
-);
\ No newline at end of file
+);
+
+-- Paginacion por clave del inventario de una sucursal
+CREATE INDEX IDX_PRODUCT_STORE_ID ON PRODUCT (STORE_ID, ID);
+
+-- Eventos de inventario pendientes de publicar en Kafka (outbox transaccional)
+CREATE TABLE INVENTORY_OUTBOX (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STORE_ID BIGINT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    ACTION VARCHAR(32) NOT NULL,
+    QUANTITY INT NOT NULL,
+    DELTA INT NOT NULL,
+    CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- Eventos del outbox que no se pueden publicar nunca (accion desconocida); se apartan para no bloquear el SKU
+CREATE TABLE INVENTORY_OUTBOX_DEAD_LETTER (
+    ID BIGINT PRIMARY KEY,
+    STORE_ID BIGINT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    ACTION VARCHAR(32) NOT NULL,
+    QUANTITY INT NOT NULL,
+    DELTA INT NOT NULL,
+    CREATED_AT TIMESTAMP NOT NULL,
+    REASON VARCHAR(255) NOT NULL,
+    DEAD_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- Ultima (epoca, secuencia) aplicada por SKU desde eventos de otras sucursales (idempotencia del consumidor)
+CREATE TABLE INVENTORY_APPLIED_SEQUENCE (
+    STORE_ID BIGINT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    LAST_EPOCH BIGINT DEFAULT 0 NOT NULL,
+    LAST_SEQUENCE BIGINT NOT NULL,
+    CONSTRAINT PK_INVENTORY_APPLIED_SEQUENCE PRIMARY KEY (STORE_ID, PRODUCT_ID)
+);
+
+-- Libro mayor de stock (append-only): un registro por movimiento con la cantidad resultante.
+-- Todas las consultas acotan por RECORDED_AT, asi la tabla se puede particionar por rango de fecha.
+CREATE TABLE STOCK_LEDGER (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STORE_ID BIGINT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    ACTION VARCHAR(32) NOT NULL,
+    QUANTITY INT NOT NULL,
+    DELTA INT,
+    ACTOR VARCHAR(128) NOT NULL,
+    RECORDED_AT TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IDX_STOCK_LEDGER_STORE_TIME ON STOCK_LEDGER (STORE_ID, RECORDED_AT);
+CREATE INDEX IDX_STOCK_LEDGER_SKU_TIME ON STOCK_LEDGER (STORE_ID, PRODUCT_ID, RECORDED_AT);
+-- Movimientos recientes de todas las sucursales (relectura de MappedStockTable al arrancar)
+CREATE INDEX IDX_STOCK_LEDGER_RECORDED_AT ON STOCK_LEDGER (RECORDED_AT);
+
+-- Fotos periodicas del stock de cada sucursal, base para reconstruir el stock en un momento dado
+CREATE TABLE STOCK_SNAPSHOT (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STORE_ID BIGINT NOT NULL,
+    TAKEN_AT TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IDX_STOCK_SNAPSHOT_STORE_TIME ON STOCK_SNAPSHOT (STORE_ID, TAKEN_AT);
+
+CREATE TABLE STOCK_SNAPSHOT_ITEM (
+    SNAPSHOT_ID BIGINT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    QUANTITY INT NOT NULL,
+    CONSTRAINT PK_STOCK_SNAPSHOT_ITEM PRIMARY KEY (SNAPSHOT_ID, PRODUCT_ID)
+);
@@ -0,0 +1,72 @@
+package com.electrostore.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.service.InventoryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics-aspect")
+public class InventoryMetricsAspectTests {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("inventoryByStore").clear();
+    }
+
+    @Test
+    void getInventoryByStore_shouldRecordServiceTimerAndCacheHitMiss() {
+        double misses = cacheRequests("miss");
+        double hits = cacheRequests("hit");
+
+        inventoryService.getInventoryByStore(3L);
+        inventoryService.getInventoryByStore(3L);
+
+        Timer timer = meterRegistry.find("inventory.service")
+            .tags("method", "getInventoryByStore", "store", "3", "outcome", "success").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(2);
+        assertThat(cacheRequests("miss") - misses).isEqualTo(1);
+        assertThat(cacheRequests("hit") - hits).isEqualTo(1);
+        assertThat(meterRegistry.find("inventory.db.query").tag("query", "findInventoryViewByStoreId").timer()).isNotNull();
+    }
+
+    @Test
+    void updateProductStock_shouldTagFallbackWithCause() {
+        boolean updated = inventoryService.updateProductStock(1L, 999L, 5);
+
+        assertThat(updated).isFalse();
+        assertThat(meterRegistry.find("inventory.service")
+            .tags("method", "updateProductStock", "store", "1", "outcome", "not-found").timer()).isNotNull();
+    }
+
+    @Test
+    void adjustProductStock_shouldTagExceptionOutcome() {
+        assertThatThrownBy(() -> inventoryService.adjustProductStock(2L, 999L, 1))
+            .isInstanceOf(ProductNotInStoreException.class);
+
+        assertThat(meterRegistry.find("inventory.service")
+            .tags("method", "adjustProductStock", "store", "2", "outcome", "not-found").timer()).isNotNull();
+    }
+
+    private double cacheRequests(String result) {
+        return meterRegistry.get("inventory.cache.requests").tag("result", result).counter().count();
+    }
+}
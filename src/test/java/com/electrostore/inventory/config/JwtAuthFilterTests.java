@@ -0,0 +1,56 @@
+package com.electrostore.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class JwtAuthFilterTests {
+    private final JwtUtil jwtUtil = spy(new JwtUtil());
+    private final JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 100);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_shouldAuthenticateFromRoleClaimAndVerifyOnlyOnce() throws Exception {
+        String token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+
+        Authentication first = authenticate(token);
+        assertThat(first).isNotNull();
+        assertThat(first.getName()).isEqualTo("admin");
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+
+        Authentication second = authenticate(token);
+        assertThat(second.getName()).isEqualTo("admin");
+        // La segunda request con el mismo token sale del cache, sin volver a verificar la firma
+        verify(jwtUtil, times(1)).parseClaims(token);
+    }
+
+    @Test
+    void invalidToken_shouldNotAuthenticate() throws Exception {
+        String token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThat(authenticate(tampered)).isNull();
+        assertThat(authenticate("no-es-un-jwt")).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,76 @@
+package com.electrostore.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class RefreshingCaffeineCacheTests {
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private RefreshingCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Reloj manual y tareas de Caffeine (recargas y mantenimiento) encoladas: el test las corre a mano,
+        // como si terminaran en segundo plano
+        cache = new RefreshingCaffeineCache("inventoryByStore", Caffeine.newBuilder()
+            .ticker(nanos::get)
+            .executor(tasks::add)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .build(key -> List.of("v" + loads.incrementAndGet())));
+    }
+
+    @Test
+    void get_shouldReturnNullOnMissWithoutLoading() {
+        assertThat(cache.get(1L)).isNull();
+        assertThat(loads.get()).isZero();
+        assertThat(cache.getNativeCache().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void get_shouldRefreshEntriesThatAreStillReadAfterRefreshAfterWrite() {
+        cache.put(1L, List.of("v0"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(cache.get(1L, List.class)).containsExactly("v0");
+        assertThat(loads.get()).isZero();
+
+        // Vencido el refresh, la lectura devuelve el valor actual sin esperar y dispara la recarga en segundo plano
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(cache.get(1L, List.class)).containsExactly("v0");
+        assertThat(loads.get()).isZero();
+
+        runPendingTasks();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.get(1L, List.class)).containsExactly("v1");
+    }
+
+    @Test
+    void get_shouldExpireEntriesThatAreNotReadBeforeTheTtl() {
+        cache.put(1L, List.of("v0"));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(loads.get()).isZero();
+    }
+
+    private void runPendingTasks() {
+        for (Runnable task; (task = tasks.poll()) != null; ) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.electrostore.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Acceso a los endpoints de actuator: health abierto, metricas solo para ADMIN (JWT o HTTP Basic).
+ * Los tests desactivan la exportacion de metricas por defecto: AutoConfigureObservability registra el endpoint prometheus.
+ */
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.datasource.url=jdbc:h2:mem:security-config", "spring.kafka.listener.auto-startup=false"})
+public class SecurityConfigTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void health_shouldStayOpenForLivenessChecks() throws Exception {
+        assertThat(get("/actuator/health", null).statusCode()).isEqualTo(200);
+        assertThat(get("/actuator/health/liveness", null).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void prometheus_shouldRequireTheAdminRole() throws Exception {
+        assertThat(get("/actuator/prometheus", null).statusCode()).isEqualTo(401);
+        assertThat(get("/actuator/prometheus", "Bearer " + jwtUtil.generateToken("user", "ROLE_USER")).statusCode()).isEqualTo(403);
+
+        HttpResponse<String> withToken = get("/actuator/prometheus", "Bearer " + jwtUtil.generateToken("admin", "ROLE_ADMIN"));
+        assertThat(withToken.statusCode()).isEqualTo(200);
+        assertThat(withToken.body()).contains("jvm_");
+    }
+
+    @Test
+    void prometheus_shouldAcceptBasicAuthForScrapers() throws Exception {
+        assertThat(get("/actuator/prometheus", basic("admin", "adminpass")).statusCode()).isEqualTo(200);
+        assertThat(get("/actuator/prometheus", basic("admin", "otra")).statusCode()).isEqualTo(401);
+        assertThat(get("/actuator/caches", basic("user", "userpass")).statusCode()).isEqualTo(403);
+    }
+
+    private HttpResponse<String> get(String path, String authorization) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
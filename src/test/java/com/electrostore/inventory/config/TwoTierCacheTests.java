@@ -0,0 +1,81 @@
+package com.electrostore.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+public class TwoTierCacheTests {
+    private Cache local;
+    private Cache shared;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = new ConcurrentMapCache("inventoryByStore");
+        shared = new ConcurrentMapCache("inventoryByStore");
+        cache = new TwoTierCache(local, shared);
+    }
+
+    @Test
+    void get_shouldPreferL1AndPromoteL2HitsToL1() {
+        local.put(1L, List.of("l1"));
+        shared.put(1L, List.of("l2"));
+        shared.put(2L, List.of("l2"));
+
+        assertThat(cache.get(1L, List.class)).containsExactly("l1");
+        assertThat(cache.get(2L, List.class)).containsExactly("l2");
+        assertThat(local.get(2L, List.class)).containsExactly("l2");
+        assertThat(cache.get(3L)).isNull();
+    }
+
+    @Test
+    void putAndEvict_shouldReachBothTiers() {
+        cache.put(1L, List.of("a"));
+        assertThat(local.get(1L, List.class)).containsExactly("a");
+        assertThat(shared.get(1L, List.class)).containsExactly("a");
+
+        cache.evict(1L);
+        assertThat(local.get(1L)).isNull();
+        assertThat(shared.get(1L)).isNull();
+
+        cache.put(2L, List.of("b"));
+        cache.clear();
+        assertThat(local.get(2L)).isNull();
+        assertThat(shared.get(2L)).isNull();
+    }
+
+    @Test
+    void get_shouldLoadOnceAndStoreInBothTiers() {
+        List<String> loaded = cache.get(4L, () -> List.of("cargado"));
+
+        assertThat(loaded).containsExactly("cargado");
+        assertThat(shared.get(4L, List.class)).containsExactly("cargado");
+        assertThat(cache.get(4L, () -> List.of("otro"))).containsExactly("cargado");
+    }
+
+    @Test
+    void operations_shouldFallBackToL1WhenL2IsDown() {
+        Cache down = mock(Cache.class);
+        RedisConnectionFailureException failure = new RedisConnectionFailureException("Redis caido");
+        when(down.get(any())).thenThrow(failure);
+        doThrow(failure).when(down).put(any(), any());
+        doThrow(failure).when(down).evict(any());
+        TwoTierCache degraded = new TwoTierCache(local, down);
+
+        assertThat(degraded.get(1L)).isNull();
+        degraded.put(1L, List.of("solo-l1"));
+        assertThat(degraded.get(1L, List.class)).containsExactly("solo-l1");
+        degraded.evict(1L);
+        assertThat(local.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,110 @@
+package com.electrostore.inventory.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.electrostore.inventory.config.JwtUtil;
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Stock central de varios productos (JSON y NDJSON) contra los datos de data.sql, con bloques de 2 productos
+ * por consulta para que la respuesta cruce varios bloques.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.datasource.url=jdbc:h2:mem:central-stock", "spring.kafka.listener.auto-startup=false",
+        "inventory.central.query-chunk-size=2"})
+public class CentralStockControllerTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void getCentralStockBatch_shouldReturnOneEntryPerDistinctProductInOrder() throws Exception {
+        HttpResponse<String> response = send(request("/inventory/central?productIds=3,8,99,3,14&byStore=true").GET());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        List<CentralStockDTO> results = objectMapper.readValue(response.body(), new TypeReference<List<CentralStockDTO>>() { });
+        assertThat(results).extracting(CentralStockDTO::getProductId).containsExactly(3L, 8L, 99L, 14L);
+        assertThat(results).extracting(CentralStockDTO::getTotal).containsExactly(55L, 15L, 0L, 13L);
+        assertThat(results.get(0).getStores()).containsExactly(
+            Map.entry(1L, 30), Map.entry(2L, 15), Map.entry(5L, 10));
+        assertThat(results.get(2).getStores()).isEmpty();
+    }
+
+    @Test
+    void streamCentralStock_shouldWriteOneJsonObjectPerLine() throws Exception {
+        HttpResponse<String> response = send(request("/inventory/central:stream")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"productIds\": [8, 3, 99, 14, 1], \"byStore\": false}")));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+        assertThat(response.body()).endsWith("\n");
+        List<String> lines = response.body().lines().toList();
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(2)).isEqualTo("{\"productId\":99,\"total\":0}");
+        List<JsonNode> rows = lines.stream().map(this::parse).toList();
+        assertThat(rows).extracting(row -> row.get("productId").asLong()).containsExactly(8L, 3L, 99L, 14L, 1L);
+        assertThat(rows).extracting(row -> row.get("total").asLong()).containsExactly(15L, 55L, 0L, 13L, 28L);
+        assertThat(rows).allSatisfy(row -> assertThat(row.has("stores")).isFalse());
+    }
+
+    @Test
+    void streamCentralStock_shouldIncludeTheStoreBreakdownWhenAsked() throws Exception {
+        HttpResponse<String> response = send(request("/inventory/central:stream")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"productIds\": [14, 8], \"byStore\": true}")));
+
+        List<String> lines = response.body().lines().toList();
+        assertThat(lines).containsExactly(
+            "{\"productId\":14,\"total\":13,\"stores\":{\"4\":5,\"6\":8}}",
+            "{\"productId\":8,\"total\":15,\"stores\":{\"2\":6,\"6\":9}}");
+    }
+
+    @Test
+    void streamCentralStock_shouldRejectABodyWithoutProducts() throws Exception {
+        HttpResponse<String> response = send(request("/inventory/central:stream")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"byStore\": true}")));
+
+        assertThat(response.statusCode()).isEqualTo(400);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Bearer " + jwtUtil.generateToken("admin", "ROLE_ADMIN"));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (java.io.IOException ex) {
+            throw new java.io.UncheckedIOException(ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.electrostore.inventory.controller;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
@@ -14,10 +15,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.util.Collections;
 
 import com.electrostore.inventory.config.JwtAuthFilter;
+import com.electrostore.inventory.dto.InventoryPageDTO;
 import com.electrostore.inventory.dto.ProductDTO;
 import com.electrostore.inventory.service.InventoryService;
 
+// Prueba solo el controller (mapeo, validacion y respuesta): sin los filtros de seguridad, el JwtAuthFilter es un mock
 @WebMvcTest(InventoryController.class)
+@AutoConfigureMockMvc(addFilters = false)
 public class InventoryControllerTests {
     @Autowired
     private MockMvc mockMvc;
@@ -65,4 +69,29 @@ public class InventoryControllerTests {
             .andExpect(status().isBadRequest())
             .andExpect(content().string("El campo 'quantity' es requerido."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void adjustProductStock_shouldReturnNewQuantity() throws Exception {
+        when(inventoryService.adjustProductStock(1L, 1L, -3)).thenReturn(17);
+        String jsonBody = "{\"delta\":-3}";
+        mockMvc.perform(post("/inventory/1/products/1/stock/adjust")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(jsonBody))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.quantity").value(17));
+    }
+
+    @Test
+    void getInventoryPage_shouldReturnItemsAndNextCursor() throws Exception {
+        ProductDTO product = new ProductDTO();
+        product.setId(5L);
+        product.setName("Producto Test");
+        when(inventoryService.getInventoryPage(1L, 4L, "TV", 1))
+            .thenReturn(new InventoryPageDTO(Collections.singletonList(product), 5L));
+        mockMvc.perform(get("/inventory/1/products").param("afterId", "4").param("limit", "1").param("category", "TV")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(5L))
+            .andExpect(jsonPath("$.nextAfterId").value(5L));
+    }
+}
@@ -0,0 +1,106 @@
+package com.electrostore.inventory.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.electrostore.inventory.config.JwtUtil;
+import com.electrostore.inventory.service.InventoryService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.datasource.url=jdbc:h2:mem:stock-changes", "spring.kafka.listener.auto-startup=false"})
+public class StockChangeControllerTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void subscribe_shouldStreamCommittedChangesOfTheStore() throws Exception {
+        BufferedReader stream = open("/inventory/3/changes", null);
+        assertThat(readEvent(stream)).contains("event:ready");
+
+        inventoryService.adjustProductStock(2L, 1L, 1); // otra sucursal: no se recibe
+        inventoryService.adjustProductStock(3L, 4L, 2);
+
+        String event = readEvent(stream);
+        assertThat(event).contains("event:stock").contains("\"storeId\":3").contains("\"productId\":4").contains("\"delta\":2");
+        stream.close();
+    }
+
+    @Test
+    void subscribe_shouldReplayMissedChangesAndResetOnUnknownResumePoint() throws Exception {
+        BufferedReader first = open("/inventory/5/changes", null);
+        String ready = readEvent(first);
+        first.close();
+        String lastId = ready.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3).trim();
+
+        inventoryService.adjustProductStock(5L, 16L, 3);
+
+        BufferedReader resumed = open("/inventory/5/changes", lastId);
+        List<String> events = new ArrayList<>(List.of(readEvent(resumed), readEvent(resumed)));
+        assertThat(events).anySatisfy(event -> assertThat(event).contains("event:stock").contains("\"delta\":3"));
+        resumed.close();
+
+        BufferedReader stale = open("/inventory/5/changes", "1-1");
+        assertThat(readEvent(stale)).contains("event:reset").contains("resume-unavailable");
+        stale.close();
+    }
+
+    private BufferedReader open(String path, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Bearer " + jwtUtil.generateToken("admin", "ROLE_ADMIN"))
+            .header("Accept", "text/event-stream")
+            .timeout(Duration.ofSeconds(30));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<java.io.InputStream> response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    // Lee un evento SSE completo (hasta la linea vacia), ignorando los comentarios de heartbeat
+    private static String readEvent(BufferedReader stream) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                StringBuilder event = new StringBuilder();
+                String line;
+                while ((line = stream.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (event.length() > 0) {
+                            return event.toString();
+                        }
+                    } else if (!line.startsWith(":")) {
+                        event.append(line).append('\n');
+                    }
+                }
+                return event.toString();
+            } catch (java.io.IOException ex) {
+                throw new java.io.UncheckedIOException(ex);
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
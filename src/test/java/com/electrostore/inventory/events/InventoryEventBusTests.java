@@ -0,0 +1,92 @@
+package com.electrostore.inventory.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InventoryEventBusTests {
+    private static final int EVENTS = 10_000;
+
+    @Test
+    void handlers_shouldSeeChangesInOrderAndAfterPreviousStage() {
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> stageOrderRespected = Collections.synchronizedList(new ArrayList<>());
+        InventoryChangeHandler stage0 = new RecordingHandler(0, 1, change -> first.add(change.getQuantity()));
+        InventoryChangeHandler stage1 = new RecordingHandler(1, 1, change -> {
+            stageOrderRespected.add(first.contains(change.getQuantity()));
+            second.add(change.getQuantity());
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InventoryEventBus bus = new InventoryEventBus(List.of(stage1, stage0), registry, 1024, "yielding", Duration.ofSeconds(10));
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.publish(1L, i % 7, "UPDATE_STOCK", i, 1);
+        }
+        bus.shutdown();
+
+        assertThat(first).hasSize(EVENTS).isSorted();
+        assertThat(second).hasSize(EVENTS).isSorted();
+        assertThat(stageOrderRespected).containsOnly(true);
+        assertThat(registry.get("inventory.events.bus.handler").tag("handler", "stage1").timer().count()).isEqualTo(EVENTS);
+    }
+
+    @Test
+    void shardedHandler_shouldKeepPerSkuOrderAndProcessEachChangeOnce() {
+        Map<Long, List<Integer>> bySku = new ConcurrentHashMap<>();
+        InventoryChangeHandler sharded = new RecordingHandler(0, 4,
+            change -> bySku.computeIfAbsent(change.getProductId(), id -> Collections.synchronizedList(new ArrayList<>())).add(change.getQuantity()));
+        InventoryEventBus bus = new InventoryEventBus(List.of(sharded), new SimpleMeterRegistry(), 256, "blocking", Duration.ofSeconds(10));
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.publish(2L, i % 50, "ADJUST_STOCK", i, 1);
+        }
+        bus.shutdown();
+
+        assertThat(bySku).hasSize(50);
+        assertThat(bySku.values().stream().mapToInt(List::size).sum()).isEqualTo(EVENTS);
+        bySku.values().forEach(quantities -> assertThat(quantities).isSorted());
+    }
+
+    @Test
+    void failingHandler_shouldNotStopTheBus() {
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        InventoryChangeHandler failing = new RecordingHandler(0, 1, change -> {
+            if (change.getQuantity() == 1) {
+                throw new IllegalStateException("fallo");
+            }
+            seen.add(change.getQuantity());
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InventoryEventBus bus = new InventoryEventBus(List.of(failing), registry, 16, "blocking", Duration.ofSeconds(10));
+
+        for (int i = 0; i < 3; i++) {
+            bus.publish(3L, 1L, "UPDATE_STOCK", i, 0);
+        }
+        bus.shutdown();
+
+        assertThat(seen).containsExactly(0, 2);
+        assertThat(registry.get("inventory.events.bus.errors").counter().count()).isEqualTo(1);
+    }
+
+    private record RecordingHandler(int stage, int shards, java.util.function.Consumer<InventoryChange> action) implements InventoryChangeHandler {
+        @Override
+        public void onChange(InventoryChange change) {
+            action.accept(change);
+        }
+
+        @Override
+        public String name() {
+            return "stage" + stage;
+        }
+    }
+}
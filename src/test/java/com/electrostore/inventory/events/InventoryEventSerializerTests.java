@@ -0,0 +1,69 @@
+package com.electrostore.inventory.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+public class InventoryEventSerializerTests {
+    private final InventoryEventSerializer serializer = new InventoryEventSerializer();
+    private final InventoryEventDeserializer deserializer = new InventoryEventDeserializer();
+
+    @Test
+    void roundTrip_shouldPreserveAllFields() {
+        InventoryEventMessage event = new InventoryEventMessage(0L, 123_456L, 1_760_000_000_000L, InventoryAction.ADJUST_STOCK,
+            42L, 3L, 17, -3);
+        assertThat(deserializer.deserialize("inventory-events", serializer.serialize("inventory-events", event))).isEqualTo(event);
+
+        InventoryEventMessage extremes = new InventoryEventMessage(0L, Long.MAX_VALUE, 0L, InventoryAction.DELETE_PRODUCT,
+            Long.MAX_VALUE, Long.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        assertThat(deserializer.deserialize("inventory-events", serializer.serialize("inventory-events", extremes))).isEqualTo(extremes);
+    }
+
+    @Test
+    void roundTrip_shouldCarryThePublisherEpochInAHeader() {
+        InventoryEventMessage event = new InventoryEventMessage(1_759_990_000_000L, 7L, 1_760_000_000_000L,
+            InventoryAction.UPDATE_STOCK, 8L, 2L, 5, -1);
+        Headers headers = new RecordHeaders();
+
+        byte[] data = serializer.serialize("inventory-events", headers, event);
+
+        assertThat(headers.lastHeader(InventoryEventSerializer.EPOCH_HEADER)).isNotNull();
+        assertThat(data).isEqualTo(serializer.serialize("inventory-events", event));
+        assertThat(deserializer.deserialize("inventory-events", headers, data)).isEqualTo(event);
+        // Sin header (publicador anterior) la epoca queda en 0
+        assertThat(deserializer.deserialize("inventory-events", new RecordHeaders(), data).epoch()).isZero();
+    }
+
+    @Test
+    void binaryFormat_shouldBeMuchSmallerThanFormattedString() {
+        InventoryEventMessage event = new InventoryEventMessage(1_759_990_000_000L, 98_765L, 1_760_000_000_000L, InventoryAction.UPDATE_STOCK,
+            1_234L, 6L, 150, 25);
+        byte[] binary = serializer.serialize("inventory-events", event);
+        byte[] text = new StringSerializer().serialize("inventory-events",
+            String.format("Stock actualizado: producto=%d, sucursal=%d, cantidad=%d", event.productId(), event.storeId(), event.quantity()));
+        // El texto anterior ni siquiera incluia accion, delta, secuencia ni timestamp
+        assertThat(binary.length).isLessThanOrEqualTo(20);
+        assertThat(binary.length * 3).isLessThan(text.length);
+    }
+
+    @Test
+    void deserialize_shouldRejectUnknownVersionAndTruncatedData() {
+        byte[] valid = serializer.serialize("inventory-events",
+            new InventoryEventMessage(0L, 1L, 1L, InventoryAction.CREATE_PRODUCT, 1L, 1L, 1, 1));
+        byte[] otherVersion = valid.clone();
+        otherVersion[0] = 2;
+        assertThatThrownBy(() -> deserializer.deserialize("inventory-events", otherVersion)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("inventory-events", Arrays.copyOf(valid, valid.length - 1)))
+            .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("inventory-events", "Test Kafka Message".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(SerializationException.class);
+    }
+}
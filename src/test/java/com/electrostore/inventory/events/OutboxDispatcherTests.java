@@ -0,0 +1,122 @@
+package com.electrostore.inventory.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.electrostore.inventory.service.InventoryService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {"inventory.outbox.poll-interval=PT1H", "spring.datasource.url=jdbc:h2:mem:outbox-dispatcher"})
+@EmbeddedKafka(partitions = 1, topics = {OutboxDispatcher.TOPIC}, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@DirtiesContext
+public class OutboxDispatcherTests {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private InventoryEventOrigin origin;
+
+    @Test
+    void committedUpdate_shouldBePublishedFromOutboxAndRejectedUpdateShouldNot() {
+        jdbcTemplate.update("DELETE FROM INVENTORY_OUTBOX");
+
+        assertThat(inventoryService.updateProductStock(1L, 1L, -5)).isFalse();
+        assertThat(outboxCount()).isZero();
+
+        assertThat(inventoryService.updateProductStock(1L, 1L, 21)).isTrue();
+        assertThat(outboxCount()).isEqualTo(1);
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafka);
+        try (Consumer<String, InventoryEventMessage> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new InventoryEventDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, OutboxDispatcher.TOPIC);
+            outboxDispatcher.dispatch();
+            ConsumerRecord<String, InventoryEventMessage> record = KafkaTestUtils.getSingleRecord(consumer, OutboxDispatcher.TOPIC, Duration.ofSeconds(10));
+            assertThat(record.key()).isEqualTo("1:1");
+            assertThat(record.value().action()).isEqualTo(InventoryAction.UPDATE_STOCK);
+            assertThat(record.value().quantity()).isEqualTo(21);
+            assertThat(record.value().delta()).isEqualTo(1);
+        }
+        assertThat(outboxCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unknownAction_shouldBeDeadLetteredWithoutBlockingTheSku() {
+        jdbcTemplate.update("DELETE FROM INVENTORY_OUTBOX");
+        jdbcTemplate.update("INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (4, 12, 'RESTOCK', 30, 8)");
+        jdbcTemplate.update("INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (4, 12, 'UPDATE_STOCK', 25, -5)");
+        // Template simulado: este caso no debe dejar mensajes en el topico embebido
+        KafkaTemplate<String, InventoryEventMessage> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        OutboxDispatcher dispatcher = new OutboxDispatcher(jdbcTemplate, kafkaTemplate, origin, new SimpleMeterRegistry(), 500, Duration.ofSeconds(1));
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+        assertThat(dispatcher.dispatchBatch()).isZero();
+
+        ArgumentCaptor<ProducerRecord<String, InventoryEventMessage>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().key()).isEqualTo("4:12");
+        assertThat(sent.getValue().value().action()).isEqualTo(InventoryAction.UPDATE_STOCK);
+        assertThat(outboxCount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT REASON FROM INVENTORY_OUTBOX_DEAD_LETTER WHERE ACTION = 'RESTOCK'", String.class))
+            .contains("RESTOCK");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedSend_shouldStopTheBatchAndKeepTheRemainingEventsInOrder() {
+        jdbcTemplate.update("DELETE FROM INVENTORY_OUTBOX");
+        jdbcTemplate.update("INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (5, 16, 'UPDATE_STOCK', 9, 1)");
+        jdbcTemplate.update("INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (5, 17, 'UPDATE_STOCK', 4, -1)");
+        jdbcTemplate.update("INSERT INTO INVENTORY_OUTBOX (STORE_ID, PRODUCT_ID, ACTION, QUANTITY, DELTA) VALUES (5, 3, 'UPDATE_STOCK', 12, 2)");
+        KafkaTemplate<String, InventoryEventMessage> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(null))
+            .thenReturn(CompletableFuture.failedFuture(new TimeoutException("sin metadatos del broker")));
+        OutboxDispatcher dispatcher = new OutboxDispatcher(jdbcTemplate, kafkaTemplate, origin, new SimpleMeterRegistry(), 500, Duration.ofSeconds(1));
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(-1);
+
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertThat(jdbcTemplate.queryForList("SELECT PRODUCT_ID FROM INVENTORY_OUTBOX ORDER BY ID", Long.class)).containsExactly(17L, 3L);
+    }
+
+    private int outboxCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INVENTORY_OUTBOX", Integer.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.electrostore.inventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.electrostore.inventory.dto.InventoryPageDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.exception.ProductNotInStoreException;
+import com.electrostore.inventory.service.InventoryService;
+
+/**
+ * Consultas de ProductRepository (ajuste condicional, paginacion por clave) contra el esquema real (schema.sql + data.sql en H2).
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:product-repository", "spring.kafka.listener.auto-startup=false"})
+public class ProductRepositoryTests {
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    @Transactional
+    void adjustQuantity_shouldApplyDeltasThatKeepStockNonNegative() {
+        // Central (1), Heladera Whirlpool (4): 10 unidades
+        assertThat(productRepository.adjustQuantity(1L, 4L, 5)).isEqualTo(1);
+        assertThat(productRepository.findQuantity(1L, 4L)).isEqualTo(15);
+
+        assertThat(productRepository.adjustQuantity(1L, 4L, -15)).isEqualTo(1);
+        assertThat(productRepository.findQuantity(1L, 4L)).isZero();
+    }
+
+    @Test
+    @Transactional
+    void adjustQuantity_shouldNotTouchTheRowWhenStockWouldGoNegative() {
+        // Central (1), Notebook Lenovo (2): 15 unidades
+        assertThat(productRepository.adjustQuantity(1L, 2L, -16)).isZero();
+        assertThat(productRepository.findQuantity(1L, 2L)).isEqualTo(15);
+
+        assertThat(productRepository.adjustQuantity(1L, 99L, 1)).isZero();
+        assertThat(productRepository.findQuantity(1L, 99L)).isNull();
+    }
+
+    @Test
+    void adjustProductStock_shouldNeverOversellUnderConcurrentSales() throws Exception {
+        // Sucursal Norte (2), PlayStation 5 (8): 6 unidades, 40 ventas de una unidad
+        int threads = 8;
+        int salesPerThread = 5;
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < salesPerThread; i++) {
+                    try {
+                        inventoryService.adjustProductStock(2L, 8L, -1);
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(sold.get()).isEqualTo(6);
+        assertThat(rejected.get()).isEqualTo(threads * salesPerThread - 6);
+        assertThat(productRepository.findQuantity(2L, 8L)).isZero();
+        assertThatThrownBy(() -> inventoryService.adjustProductStock(2L, 99L, 1))
+            .isInstanceOf(ProductNotInStoreException.class);
+    }
+
+    @Test
+    void findInventoryPage_shouldSeekPastTheLastIdInOrder() {
+        // Sucursal Norte (2): productos 1, 3, 6, 7 y 8
+        List<ProductStoreView> first = productRepository.findInventoryPage(2L, Long.MIN_VALUE, null, PageRequest.of(0, 2));
+        assertThat(first).extracting(ProductStoreView::id).containsExactly(1L, 3L);
+        assertThat(first).allSatisfy(row -> assertThat(row.storeName()).isEqualTo("Sucursal Norte"));
+
+        List<ProductStoreView> next = productRepository.findInventoryPage(2L, 3L, null, PageRequest.of(0, 2));
+        assertThat(next).extracting(ProductStoreView::id).containsExactly(6L, 7L);
+
+        assertThat(productRepository.findInventoryPage(2L, 8L, null, PageRequest.of(0, 2))).isEmpty();
+        assertThat(productRepository.findInventoryPage(2L, Long.MIN_VALUE, "Audio", PageRequest.of(0, 10)))
+            .extracting(ProductStoreView::id).containsExactly(7L);
+    }
+
+    @Test
+    void getInventoryPage_shouldWalkTheWholeStoreWithoutGapsOrRepeats() {
+        // Sucursal Sur (3): productos 4, 5, 9, 10 y 11
+        List<Long> seen = new ArrayList<>();
+        Long afterId = null;
+        int pages = 0;
+        do {
+            InventoryPageDTO page = inventoryService.getInventoryPage(3L, afterId, null, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            afterId = page.getNextAfterId();
+            pages++;
+        } while (afterId != null);
+
+        assertThat(seen).containsExactly(4L, 5L, 9L, 10L, 11L);
+        assertThat(pages).isEqualTo(3);
+
+        InventoryPageDTO computers = inventoryService.getInventoryPage(3L, null, "Computadora", 10);
+        assertThat(computers.getItems()).extracting(ProductDTO::getId).containsExactly(11L);
+        assertThat(computers.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void streamInventoryByStore_shouldDeliverEveryRowInIdOrder() {
+        List<Long> streamed = new ArrayList<>();
+        inventoryService.streamInventoryByStore(6L, null, product -> streamed.add(product.getId()));
+        assertThat(streamed).containsExactly(2L, 8L, 14L, 15L, 18L);
+
+        List<Long> consoles = new ArrayList<>();
+        inventoryService.streamInventoryByStore(6L, "Consola", product -> consoles.add(product.getId()));
+        assertThat(consoles).containsExactly(8L, 14L, 18L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductTotalView;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CentralStockAggregateTests {
+    private ProductRepository productRepository;
+    private MappedStockTable mappedStockTable;
+    private CentralStockAggregate aggregate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        mappedStockTable = mock(MappedStockTable.class);
+        aggregate = new CentralStockAggregate(productRepository, mappedStockTable, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void rebuild_shouldKeepDeltasCommittedWhileTheQueryRuns() {
+        // Un delta anterior a la lectura ya esta incluido en ella y no debe sumarse de nuevo
+        aggregate.onInventoryChange(change(1L, 4));
+        when(productRepository.sumQuantityByProduct()).thenAnswer(invocation -> {
+            aggregate.onInventoryChange(change(1L, -3));
+            aggregate.onInventoryChange(change(2L, 5));
+            return List.of(new ProductTotalView(1L, 50L), new ProductTotalView(2L, 10L));
+        });
+
+        aggregate.rebuild();
+
+        assertThat(aggregate.isReady()).isTrue();
+        assertThat(aggregate.getTotal(1L)).isEqualTo(47);
+        assertThat(aggregate.getTotal(2L)).isEqualTo(15);
+        assertThat(aggregate.getTotal(3L)).isZero();
+    }
+
+    @Test
+    void rebuild_shouldKeepDeltasCommittedWhileTheMappedTableIsScanned() {
+        when(mappedStockTable.isReady()).thenReturn(true);
+        doAnswer(invocation -> {
+            MappedStockTable.StockConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L, 1L, 20);
+            aggregate.onInventoryChange(change(1L, -2));
+            consumer.accept(2L, 1L, 8);
+            return null;
+        }).when(mappedStockTable).forEach(any());
+
+        aggregate.rebuild();
+
+        assertThat(aggregate.getTotal(1L)).isEqualTo(26);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldOpenTheMappedTableBeforeBuildingFromIt() {
+        when(mappedStockTable.isReady()).thenReturn(true);
+        doAnswer(invocation -> {
+            MappedStockTable.StockConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L, 1L, 20);
+            consumer.accept(2L, 1L, 8);
+            return null;
+        }).when(mappedStockTable).forEach(any());
+
+        aggregate.afterSingletonsInstantiated();
+
+        InOrder order = inOrder(mappedStockTable);
+        order.verify(mappedStockTable).open();
+        order.verify(mappedStockTable).forEach(any());
+        assertThat(aggregate.isReady()).isTrue();
+        assertThat(aggregate.getTotal(1L)).isEqualTo(28);
+    }
+
+    @Test
+    void refresh_shouldAlignTheTouchedProductsWithTheDatabase() {
+        when(productRepository.sumQuantityByProduct()).thenReturn(List.of(new ProductTotalView(1L, 50L), new ProductTotalView(2L, 10L)));
+        aggregate.rebuild();
+        when(productRepository.sumQuantityByProductIds(anyCollection())).thenReturn(List.of(new ProductTotalView(1L, 42L)));
+
+        aggregate.refresh(List.of(1L, 2L));
+
+        assertThat(aggregate.getTotal(1L)).isEqualTo(42);
+        assertThat(aggregate.getTotal(2L)).isZero();
+    }
+
+    @Test
+    void reconcile_shouldRepairOnlyDriftThatPersistsAcrossTwoRuns() {
+        when(productRepository.sumQuantityByProduct()).thenReturn(List.of(new ProductTotalView(1L, 50L)));
+        aggregate.rebuild();
+        when(productRepository.sumQuantityByProduct()).thenReturn(List.of(new ProductTotalView(1L, 45L)));
+
+        aggregate.reconcile();
+        assertThat(aggregate.getTotal(1L)).isEqualTo(50);
+
+        aggregate.reconcile();
+        assertThat(aggregate.getTotal(1L)).isEqualTo(45);
+    }
+
+    private static InventoryChangeEvent change(Long productId, int delta) {
+        return new InventoryChangeEvent(CentralStockAggregateTests.class, productId, 1L, "ADJUST_STOCK", 0, delta);
+    }
+}
@@ -0,0 +1,123 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.electrostore.inventory.dto.ProductDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InventoryCacheWriterTests {
+    private ConcurrentMapCacheManager cacheManager;
+    private InventoryCacheWriter writer;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(InventoryCacheWriter.CACHE_NAME);
+        writer = new InventoryCacheWriter(cacheManager, new SimpleMeterRegistry());
+        cache = cacheManager.getCache(InventoryCacheWriter.CACHE_NAME);
+    }
+
+    @Test
+    void patchQuantity_shouldReplaceOnlyChangedEntryWithoutMutatingCachedList() {
+        List<ProductDTO> original = List.of(product(1L, 20), product(2L, 15));
+        cache.put(1L, original);
+
+        writer.patchQuantity(1L, 2L, 7);
+
+        List<?> patched = cache.get(1L, List.class);
+        assertThat(patched).isNotSameAs(original);
+        assertThat(((ProductDTO) patched.get(0)).getQuantity()).isEqualTo(20);
+        assertThat(((ProductDTO) patched.get(1)).getQuantity()).isEqualTo(7);
+        assertThat(original.get(1).getQuantity()).isEqualTo(15);
+    }
+
+    @Test
+    void patchQuantity_shouldEvictWhenProductIsNotCached() {
+        cache.put(1L, List.of(product(1L, 20)));
+
+        writer.patchQuantity(1L, 99L, 3);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void patch_shouldIgnoreStoresThatAreNotCached() {
+        writer.patchQuantity(5L, 1L, 3);
+
+        assertThat(cache.get(5L)).isNull();
+    }
+
+    @Test
+    void getOrLoad_shouldCacheTheLoadedListAndServeItAfterwards() {
+        AtomicInteger loads = new AtomicInteger();
+
+        writer.getOrLoad(3L, storeId -> {
+            loads.incrementAndGet();
+            return List.of(product(9L, 10));
+        });
+        List<ProductDTO> cached = writer.getOrLoad(3L, storeId -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cached).extracting(ProductDTO::getQuantity).containsExactly(10);
+    }
+
+    @Test
+    void getOrLoad_shouldNotCacheAListReadBeforeAConcurrentWriteCommitted() {
+        // La carga lee 20 unidades; antes de que termine se confirma la venta y su parche no encuentra entrada
+        List<ProductDTO> loaded = writer.getOrLoad(1L, storeId -> {
+            List<ProductDTO> beforeCommit = List.of(product(1L, 20));
+            writer.patchQuantity(1L, 1L, 19);
+            return beforeCommit;
+        });
+
+        assertThat(loaded).extracting(ProductDTO::getQuantity).containsExactly(20);
+        assertThat(cache.get(1L)).isNull();
+
+        List<ProductDTO> reloaded = writer.getOrLoad(1L, storeId -> List.of(product(1L, 19)));
+        assertThat(reloaded).extracting(ProductDTO::getQuantity).containsExactly(19);
+        assertThat(cache.get(1L, List.class)).isEqualTo(reloaded);
+    }
+
+    @Test
+    void getOrLoad_shouldNotCacheAListReadBeforeAnEviction() {
+        writer.getOrLoad(2L, storeId -> {
+            writer.evict(2L);
+            return List.of(product(3L, 15));
+        });
+
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    void patchCreatedAndRemoved_shouldKeepEntryWarm() {
+        cache.put(1L, List.of(product(1L, 20)));
+
+        writer.patchCreated(1L, product(2L, 4));
+        assertThat(cache.get(1L, List.class)).hasSize(2);
+
+        writer.patchRemoved(1L, 1L);
+        List<?> products = cache.get(1L, List.class);
+        assertThat(products).hasSize(1);
+        assertThat(((ProductDTO) products.get(0)).getId()).isEqualTo(2L);
+    }
+
+    private static ProductDTO product(Long id, int quantity) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(id);
+        dto.setName("Producto " + id);
+        dto.setQuantity(quantity);
+        return dto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.electrostore.inventory.events.InventoryAction;
+import com.electrostore.inventory.events.InventoryEventMessage;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:event-applier")
+@DirtiesContext
+public class InventoryEventApplierTests {
+    @Autowired
+    private InventoryEventApplier inventoryEventApplier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockRetryLog stockRetryLog;
+
+    @Test
+    void apply_shouldCoalescePerSkuAndIgnoreReplayedOrOlderEvents() {
+        // Producto 9 (Televisor LG 65) y 10 (Tablet) de la sucursal 3
+        List<InventoryEventMessage> batch = List.of(
+            event(100, InventoryAction.UPDATE_STOCK, 9, 12),
+            event(102, InventoryAction.ADJUST_STOCK, 9, 7),
+            event(101, InventoryAction.UPDATE_STOCK, 9, 30),
+            event(103, InventoryAction.UPDATE_STOCK, 10, 4));
+        assertThat(inventoryEventApplier.apply(batch)).isEqualTo(2);
+        assertThat(quantity(9)).isEqualTo(7);
+        assertThat(quantity(10)).isEqualTo(4);
+
+        // El mismo lote reentregado y un evento viejo no modifican nada
+        assertThat(inventoryEventApplier.apply(batch)).isZero();
+        assertThat(inventoryEventApplier.apply(List.of(event(99, InventoryAction.UPDATE_STOCK, 9, 50)))).isZero();
+        assertThat(quantity(9)).isEqualTo(7);
+
+        assertThat(inventoryEventApplier.apply(List.of(event(104, InventoryAction.DELETE_PRODUCT, 10, 0)))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCT WHERE STORE_ID = 3 AND ID = 10", Integer.class)).isZero();
+    }
+
+    @Test
+    void apply_shouldAcceptARestartedPublisherWhoseSequenceStartsOver() {
+        // Producto 5 (Auriculares Sony) de la sucursal 3, publicado por una instancia con epoca 1
+        assertThat(inventoryEventApplier.apply(List.of(event(1L, 500, InventoryAction.UPDATE_STOCK, 5, 3)))).isEqualTo(1);
+
+        // La instancia reinicia con el outbox vacio: la secuencia vuelve a 1 pero la epoca es mayor
+        assertThat(inventoryEventApplier.apply(List.of(event(2L, 1, InventoryAction.UPDATE_STOCK, 5, 8)))).isEqualTo(1);
+        assertThat(quantity(5)).isEqualTo(8);
+
+        // Un evento atrasado de la epoca anterior ya no se aplica, aunque su secuencia sea mayor
+        assertThat(inventoryEventApplier.apply(List.of(event(1L, 501, InventoryAction.UPDATE_STOCK, 5, 2)))).isZero();
+        // En un mismo lote gana la epoca mas nueva
+        assertThat(inventoryEventApplier.apply(List.of(
+            event(3L, 1, InventoryAction.UPDATE_STOCK, 5, 6),
+            event(2L, 9, InventoryAction.UPDATE_STOCK, 5, 1)))).isEqualTo(1);
+        assertThat(quantity(5)).isEqualTo(6);
+    }
+
+    @Test
+    void apply_shouldCancelALocalRetryOfTheChangedSku() {
+        // Producto 11 (Notebook Dell Inspiron) de la sucursal 3 con una actualizacion local pendiente de reintento
+        StockRetryLog.Entry pending = stockRetryLog.append(3L, 11L, 40);
+
+        assertThat(inventoryEventApplier.apply(List.of(event(700, InventoryAction.UPDATE_STOCK, 11, 13)))).isEqualTo(1);
+
+        assertThat(stockRetryLog.isPending(pending)).isFalse();
+        assertThat(quantity(11)).isEqualTo(13);
+    }
+
+    private static InventoryEventMessage event(long sequence, InventoryAction action, long productId, int quantity) {
+        return event(0L, sequence, action, productId, quantity);
+    }
+
+    private static InventoryEventMessage event(long epoch, long sequence, InventoryAction action, long productId, int quantity) {
+        return new InventoryEventMessage(epoch, sequence, System.currentTimeMillis(), action, productId, 3L, quantity, 0);
+    }
+
+    private int quantity(long productId) {
+        return jdbcTemplate.queryForObject("SELECT QUANTITY FROM PRODUCT WHERE STORE_ID = 3 AND ID = ?", Integer.class, productId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.model.Product;
+import com.electrostore.inventory.repository.ProductRepository;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:inventory-index", "spring.kafka.listener.auto-startup=false",
+    "inventory.read-model.enabled=true"})
+public class InventoryIndexTests {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryIndex inventoryIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void load_shouldMirrorTheDatabase() {
+        assertThat(inventoryIndex.isReady()).isTrue();
+        assertThat(inventoryIndex.size()).isEqualTo((int) productRepository.count());
+        assertThat(inventoryIndex.memoryBytes()).isPositive();
+
+        List<ProductDTO> products = inventoryService.getInventoryByStore(2L);
+        assertThat(products).extracting(ProductDTO::getId).isSorted();
+        assertThat(quantities(products)).isEqualTo(databaseQuantities(2L));
+        assertThat(products).allSatisfy(p -> assertThat(p.getStore().getId()).isEqualTo(2L));
+    }
+
+    @Test
+    void writes_shouldBeVisibleInTheIndexAfterCommit() {
+        inventoryService.updateProductStock(4L, 12L, 33);
+        inventoryService.adjustProductStock(4L, 13L, -1);
+
+        ProductDTO created = new ProductDTO();
+        created.setId(9_001L);
+        created.setName("Parlante Bluetooth JBL");
+        created.setCategory("Audio");
+        created.setQuantity(7);
+        inventoryService.createProduct(4L, created);
+
+        Long removed = inventoryService.getInventoryByStore(4L).get(0).getId();
+        inventoryService.deleteProductFromStore(4L, removed);
+
+        List<ProductDTO> products = inventoryService.getInventoryByStore(4L);
+        assertThat(quantities(products)).isEqualTo(databaseQuantities(4L));
+        assertThat(products).extracting(ProductDTO::getId).contains(9_001L).doesNotContain(removed);
+        assertThat(products).filteredOn(p -> p.getId().equals(9_001L))
+            .singleElement()
+            .satisfies(p -> {
+                assertThat(p.getName()).isEqualTo("Parlante Bluetooth JBL");
+                assertThat(p.getCategory()).isEqualTo("Audio");
+            });
+    }
+
+    @Test
+    void getCentralStock_shouldMatchTheDatabaseByStore() {
+        inventoryService.adjustProductStock(1L, 3L, 2);
+
+        CentralStockDTO central = inventoryService.getCentralStock(List.of(3L), true).get(0);
+        Map<Long, Integer> expected = productRepository.findByProductId_Id(3L).stream()
+            .collect(Collectors.toMap(p -> p.getProductId().getStoreId(), Product::getQuantity));
+        assertThat(central.getStores()).isEqualTo(expected);
+        assertThat(central.getTotal()).isEqualTo(expected.values().stream().mapToLong(Integer::longValue).sum());
+        assertThat(inventoryService.getCentralStock(3L)).isEqualTo((int) central.getTotal());
+    }
+
+    private static Map<Long, Integer> quantities(List<ProductDTO> products) {
+        return products.stream().collect(Collectors.toMap(ProductDTO::getId, ProductDTO::getQuantity));
+    }
+
+    private Map<Long, Integer> databaseQuantities(Long storeId) {
+        return productRepository.findByProductId_StoreId(storeId).stream()
+            .collect(Collectors.toMap(p -> p.getProductId().getId(), Product::getQuantity));
+    }
+}
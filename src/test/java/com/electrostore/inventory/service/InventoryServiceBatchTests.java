@@ -0,0 +1,108 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.electrostore.inventory.dto.StockUpdateItem;
+import com.electrostore.inventory.dto.StockUpdateResult;
+import com.electrostore.inventory.dto.StockUpdateResult.Status;
+import com.electrostore.inventory.model.Product;
+import com.electrostore.inventory.model.ProductId;
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.StoreRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:stock-batch", "spring.kafka.listener.auto-startup=false",
+    "inventory.locks.stripes=8", "inventory.batch.chunk-size=3", "inventory.batch.max-stripes-per-chunk=2"})
+public class InventoryServiceBatchTests {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLockManager stockLockManager;
+
+    @Test
+    void updateProductStockBatch_shouldReportEveryItemInOrderAcrossChunks() {
+        // Sucursal Oeste (5): productos 3, 7, 16, 17 y 18
+        List<StockUpdateItem> items = List.of(
+            new StockUpdateItem(16L, 1), new StockUpdateItem(99L, 4), new StockUpdateItem(17L, -2),
+            new StockUpdateItem(3L, 2), new StockUpdateItem(null, 5), new StockUpdateItem(7L, 3),
+            new StockUpdateItem(18L, 4));
+
+        List<StockUpdateResult> results = inventoryService.updateProductStockBatch(5L, items);
+
+        assertThat(results).extracting(StockUpdateResult::getProductId).containsExactly(16L, 99L, 17L, 3L, null, 7L, 18L);
+        assertThat(results).extracting(StockUpdateResult::getStatus).containsExactly(
+            Status.UPDATED, Status.NOT_FOUND, Status.INVALID, Status.UPDATED, Status.INVALID, Status.UPDATED, Status.UPDATED);
+        assertThat(productRepository.findQuantity(5L, 16L)).isEqualTo(1);
+        assertThat(productRepository.findQuantity(5L, 17L)).isEqualTo(6);
+        assertThat(productRepository.findQuantity(5L, 3L)).isEqualTo(2);
+        assertThat(productRepository.findQuantity(5L, 7L)).isEqualTo(3);
+        assertThat(productRepository.findQuantity(5L, 18L)).isEqualTo(4);
+    }
+
+    @Test
+    void partitionBatch_shouldCapItemsAndLockStripesPerChunk() {
+        List<StockUpdateItem> items = IntStream.rangeClosed(1, 40)
+            .mapToObj(id -> new StockUpdateItem((long) id, 1))
+            .toList();
+
+        List<List<StockUpdateItem>> chunks = inventoryService.partitionBatch(1L, items);
+
+        assertThat(chunks.stream().flatMap(List::stream).toList()).isEqualTo(items);
+        assertThat(chunks).allSatisfy(chunk -> {
+            assertThat(chunk).hasSizeLessThanOrEqualTo(3);
+            Set<Integer> stripes = new HashSet<>();
+            chunk.forEach(item -> stripes.add(stockLockManager.stripeIndex(new ProductId(item.getProductId(), 1L))));
+            assertThat(stripes).hasSizeLessThanOrEqualTo(2);
+        });
+    }
+
+    @Test
+    void updateProductStockBatch_shouldKeepCommittedChunksWhenATransactionCannotStart() {
+        ProductRepository products = mock(ProductRepository.class);
+        StoreRepository stores = mock(StoreRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(stores.existsById(1L)).thenReturn(true);
+        when(products.findByProductId_StoreIdAndProductId_IdIn(anyLong(), anyCollection())).thenReturn(List.of(
+            Product.builder().productId(new ProductId(1L, 1L)).quantity(20).build(),
+            Product.builder().productId(new ProductId(2L, 1L)).quantity(15).build()));
+        // El primer bloque se confirma; el segundo no consigue transaccion
+        when(transactionManager.getTransaction(any()))
+            .thenReturn(new SimpleTransactionStatus())
+            .thenThrow(new CannotCreateTransactionException("Sin conexiones disponibles"));
+        InventoryService service = new InventoryService(products, stores, mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry(), new StockLockManager(new SimpleMeterRegistry(), 256), mock(InventoryCacheWriter.class),
+            mock(StoreInventoryLoader.class), mock(CentralStockAggregate.class), mock(StockRetryLog.class),
+            mock(StockReservations.class), mock(InventoryIndex.class), transactionManager);
+        ReflectionTestUtils.setField(service, "batchChunkSize", 2);
+
+        List<StockUpdateResult> results = service.updateProductStockBatch(1L, List.of(
+            new StockUpdateItem(1L, 5), new StockUpdateItem(2L, 6), new StockUpdateItem(3L, 7)));
+
+        assertThat(results).extracting(StockUpdateResult::getStatus).containsExactly(Status.UPDATED, Status.UPDATED, Status.FAILED);
+        assertThat(results.get(2).getMessage()).contains("Sin conexiones disponibles");
+    }
+}
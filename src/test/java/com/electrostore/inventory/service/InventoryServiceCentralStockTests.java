@@ -0,0 +1,77 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.electrostore.inventory.dto.CentralStockDTO;
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.ProductStoreQuantityView;
+import com.electrostore.inventory.repository.ProductTotalView;
+import com.electrostore.inventory.repository.StoreRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InventoryServiceCentralStockTests {
+    private ProductRepository productRepository;
+    private InventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        service = new InventoryService(productRepository, mock(StoreRepository.class), mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry(), new StockLockManager(new SimpleMeterRegistry(), 256), mock(InventoryCacheWriter.class),
+            mock(StoreInventoryLoader.class), mock(CentralStockAggregate.class), mock(StockRetryLog.class),
+            mock(StockReservations.class), mock(InventoryIndex.class), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "centralQueryChunkSize", 2);
+    }
+
+    @Test
+    void streamCentralStock_shouldQueryOneChunkAtATimeInRequestOrder() {
+        when(productRepository.sumQuantityByProductIds(List.of(5L, 1L))).thenReturn(List.of(
+            new ProductTotalView(1L, 28L), new ProductTotalView(5L, 34L)));
+        when(productRepository.sumQuantityByProductIds(List.of(99L, 3L))).thenReturn(List.of(new ProductTotalView(3L, 55L)));
+        when(productRepository.sumQuantityByProductIds(List.of(8L))).thenReturn(List.of(new ProductTotalView(8L, 15L)));
+        List<CentralStockDTO> streamed = new ArrayList<>();
+
+        // El 5 repetido se ignora: quedan 5 productos distintos en 3 bloques
+        service.streamCentralStock(List.of(5L, 1L, 5L, 99L, 3L, 8L), false, streamed::add);
+
+        assertThat(streamed).extracting(CentralStockDTO::getProductId).containsExactly(5L, 1L, 99L, 3L, 8L);
+        assertThat(streamed).extracting(CentralStockDTO::getTotal).containsExactly(34L, 28L, 0L, 55L, 15L);
+        assertThat(streamed).allSatisfy(dto -> assertThat(dto.getStores()).isNull());
+        InOrder queries = inOrder(productRepository);
+        queries.verify(productRepository).sumQuantityByProductIds(List.of(5L, 1L));
+        queries.verify(productRepository).sumQuantityByProductIds(List.of(99L, 3L));
+        queries.verify(productRepository).sumQuantityByProductIds(List.of(8L));
+        verify(productRepository, never()).findStoreQuantitiesByProductIds(anyCollection());
+    }
+
+    @Test
+    void getCentralStock_shouldGroupTheStoreBreakdownByProduct() {
+        when(productRepository.findStoreQuantitiesByProductIds(List.of(8L, 14L))).thenReturn(List.of(
+            new ProductStoreQuantityView(8L, 2L, 6), new ProductStoreQuantityView(8L, 6L, 9),
+            new ProductStoreQuantityView(14L, 4L, 5), new ProductStoreQuantityView(14L, 6L, 8)));
+
+        List<CentralStockDTO> results = service.getCentralStock(List.of(8L, 14L, 77L), true);
+
+        assertThat(results).extracting(CentralStockDTO::getTotal).containsExactly(15L, 13L, 0L);
+        assertThat(results.get(0).getStores()).containsExactly(Map.entry(2L, 6), Map.entry(6L, 9));
+        assertThat(results.get(2).getStores()).isEmpty();
+    }
+}
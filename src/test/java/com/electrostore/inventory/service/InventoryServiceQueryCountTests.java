@@ -0,0 +1,57 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import com.electrostore.inventory.dto.ProductDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "spring.datasource.url=jdbc:h2:mem:query-count"})
+public class InventoryServiceQueryCountTests {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("inventoryByStore").clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getInventoryByStore_shouldRunSingleQuery() {
+        List<ProductDTO> products = inventoryService.getInventoryByStore(1L);
+
+        assertThat(products).hasSize(5);
+        assertThat(products).allSatisfy(p -> assertThat(p.getStore().getName()).isEqualTo("Central"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getInventoryByStore_shouldNotQueryWhenCached() {
+        inventoryService.getInventoryByStore(2L);
+        statistics.clear();
+
+        inventoryService.getInventoryByStore(2L);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
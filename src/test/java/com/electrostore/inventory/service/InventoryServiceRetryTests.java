@@ -0,0 +1,59 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.repository.ProductRepository;
+import com.electrostore.inventory.repository.StoreRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InventoryServiceRetryTests {
+    private ProductRepository productRepository;
+    private StockRetryLog stockRetryLog;
+    private InventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        stockRetryLog = mock(StockRetryLog.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new InventoryService(productRepository, mock(StoreRepository.class), mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry(), new StockLockManager(new SimpleMeterRegistry(), 256), mock(InventoryCacheWriter.class),
+            mock(StoreInventoryLoader.class), mock(CentralStockAggregate.class), stockRetryLog,
+            mock(StockReservations.class), mock(InventoryIndex.class), transactionManager);
+    }
+
+    @Test
+    void adjustProductStock_shouldCancelAPendingAbsoluteRetryOfTheSku() {
+        when(productRepository.adjustQuantity(1L, 4L, -3)).thenReturn(1);
+        when(productRepository.findQuantity(1L, 4L)).thenReturn(7);
+
+        assertThat(service.adjustProductStock(1L, 4L, -3)).isEqualTo(7);
+
+        verify(stockRetryLog).cancel(1L, 4L);
+    }
+
+    @Test
+    void adjustProductStock_shouldKeepThePendingRetryWhenTheAdjustIsRejected() {
+        when(productRepository.adjustQuantity(1L, 4L, -30)).thenReturn(0);
+        when(productRepository.findQuantity(1L, 4L)).thenReturn(10);
+
+        assertThatThrownBy(() -> service.adjustProductStock(1L, 4L, -30)).isInstanceOf(InsufficientStockException.class);
+
+        verify(stockRetryLog, never()).cancel(1L, 4L);
+    }
+}
@@ -0,0 +1,176 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.model.Product;
+import com.electrostore.inventory.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:mapped-stock", "spring.kafka.listener.auto-startup=false",
+    "inventory.mapped-stock.enabled=true", "inventory.mapped-stock.path=target/mapped-stock-tests/stock-table.bin",
+    "inventory.mapped-stock.capacity=1024"})
+public class MappedStockTableTests {
+    @Autowired
+    private MappedStockTable mappedStockTable;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CentralStockAggregate centralStockAggregate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockLockManager stockLockManager;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void open_shouldMirrorProductAndFollowCommittedWrites() {
+        assertThat(mappedStockTable.isReady()).isTrue();
+        for (Product product : productRepository.findAll()) {
+            MappedStockTable.Stock stock = mappedStockTable.get(product.getProductId().getStoreId(), product.getProductId().getId());
+            assertThat(stock.quantity()).isEqualTo(product.getQuantity());
+        }
+
+        inventoryService.updateProductStock(5L, 16L, 3);
+        inventoryService.adjustProductStock(5L, 16L, 2);
+        assertThat(mappedStockTable.get(5L, 16L)).isEqualTo(new MappedStockTable.Stock(5, lastLedgerId(5L, 16L)));
+
+        inventoryService.deleteProductFromStore(5L, 16L);
+        assertThat(mappedStockTable.get(5L, 16L)).isNull();
+
+        ProductDTO recreated = new ProductDTO();
+        recreated.setId(16L);
+        recreated.setName("Televisor TCL 50");
+        recreated.setCategory("TV");
+        recreated.setQuantity(9);
+        inventoryService.createProduct(5L, recreated);
+        assertThat(mappedStockTable.get(5L, 16L).quantity()).isEqualTo(9);
+        assertThat(centralStockAggregate.getTotal(16L)).isEqualTo(inventoryService.getCentralStock(16L));
+    }
+
+    @Test
+    void reopen_shouldReuseACleanFileAndCatchUpFromTheLedger() {
+        MappedStockTable first = table(dir.resolve("stock-table.bin"));
+        first.open();
+        assertThat(first.isWarmStart()).isFalse();
+        first.close();
+
+        // Cambio confirmado mientras la tabla esta cerrada: llega por el ledger
+        inventoryService.updateProductStock(3L, 10L, 41);
+
+        MappedStockTable second = table(dir.resolve("stock-table.bin"));
+        second.open();
+        try {
+            assertThat(second.isWarmStart()).isTrue();
+            assertThat(second.get(3L, 10L).quantity()).isEqualTo(41);
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    void reopen_shouldRebuildAfterACrashOrACapacityChange() {
+        Path file = dir.resolve("stock-table.bin");
+        MappedStockTable crashed = table(file);
+        crashed.open(); // sin close(): el archivo queda sucio
+        MappedStockTable afterCrash = table(file);
+        afterCrash.open();
+        assertThat(afterCrash.isWarmStart()).isFalse();
+        afterCrash.close();
+
+        MappedStockTable resized = new MappedStockTable(jdbcTemplate, stockLockManager, new SimpleMeterRegistry(), true,
+            file.toString(), 2048, Duration.ofMinutes(1), false, 1000);
+        resized.open();
+        try {
+            assertThat(resized.isWarmStart()).isFalse();
+            assertThat(resized.get(1L, 1L).quantity()).isEqualTo(productRepository.findQuantity(1L, 1L));
+        } finally {
+            resized.close();
+        }
+    }
+
+    @Test
+    void write_shouldDiscardChangesOlderThanTheStoredLedgerSequence() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MappedStockTable table = new MappedStockTable(jdbcTemplate, stockLockManager, meterRegistry, true,
+            dir.resolve("stock-table.bin").toString(), 1024, Duration.ofMinutes(1), false, 1000);
+        table.open();
+        try {
+            // Cargado de PRODUCT: Central (1), producto 1, 20 unidades con la secuencia de la carga
+            long loaded = table.get(1L, 1L).ledgerSequence();
+            table.onQuantity(1L, 1L, 50, loaded + 5);
+            table.onQuantity(1L, 1L, 40, loaded + 3); // llega tarde
+            table.onRemoved(1L, 1L, loaded + 4);
+            assertThat(table.get(1L, 1L)).isEqualTo(new MappedStockTable.Stock(50, loaded + 5));
+            assertThat(meterRegistry.counter("inventory.mapped-stock.writes", "result", "stale").count()).isEqualTo(2);
+
+            table.onQuantity(1L, 1L, 45, loaded + 5); // mismo movimiento: se acepta
+            assertThat(table.get(1L, 1L).quantity()).isEqualTo(45);
+        } finally {
+            table.close();
+        }
+    }
+
+    @Test
+    void reopen_shouldRebuildWhenASampledSkuDriftedFromProduct() {
+        Path file = dir.resolve("stock-table.bin");
+        MappedStockTable first = table(file);
+        first.open();
+        first.close();
+
+        // Cambio en PRODUCT sin pasar por el ledger: Sucursal Este (4), producto 13
+        Integer original = productRepository.findQuantity(4L, 13L);
+        jdbcTemplate.update("UPDATE PRODUCT SET QUANTITY = ? WHERE STORE_ID = 4 AND ID = 13", original + 1);
+        try {
+            MappedStockTable unchecked = table(file, 0);
+            unchecked.open();
+            assertThat(unchecked.isWarmStart()).isTrue();
+            unchecked.close();
+
+            // La muestra cubre toda la tabla: se detecta la diferencia y se reconstruye
+            MappedStockTable sampled = table(file, 1024);
+            sampled.open();
+            try {
+                assertThat(sampled.isWarmStart()).isFalse();
+                assertThat(sampled.get(4L, 13L).quantity()).isEqualTo(original + 1);
+            } finally {
+                sampled.close();
+            }
+        } finally {
+            jdbcTemplate.update("UPDATE PRODUCT SET QUANTITY = ? WHERE STORE_ID = 4 AND ID = 13", original);
+        }
+    }
+
+    private long lastLedgerId(Long storeId, Long productId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(ID) FROM STOCK_LEDGER WHERE STORE_ID = ? AND PRODUCT_ID = ?",
+            Long.class, storeId, productId);
+    }
+
+    private MappedStockTable table(Path file) {
+        return table(file, 1000);
+    }
+
+    private MappedStockTable table(Path file, int verifySample) {
+        return new MappedStockTable(jdbcTemplate, stockLockManager, new SimpleMeterRegistry(), true, file.toString(), 1024,
+            Duration.ofMinutes(1), false, verifySample);
+    }
+}
@@ -0,0 +1,77 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.electrostore.inventory.dto.InventoryPageDTO;
+import com.electrostore.inventory.dto.ProductDTO;
+import com.electrostore.inventory.dto.StoreInventoryDTO;
+
+public class ReactiveInventoryServiceTests {
+    private InventoryService inventoryService;
+    private CacheManager cacheManager;
+    private ReactiveInventoryService reactiveInventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = mock(InventoryService.class);
+        cacheManager = new ConcurrentMapCacheManager(InventoryCacheWriter.CACHE_NAME);
+        reactiveInventoryService = new ReactiveInventoryService(inventoryService, mock(CentralStockAggregate.class), cacheManager, 2, 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveInventoryService.shutdown();
+    }
+
+    @Test
+    void streamInventory_shouldWalkKeysetPages() {
+        when(inventoryService.getInventoryPage(1L, null, null, 2)).thenReturn(new InventoryPageDTO(List.of(product(1L), product(2L)), 2L));
+        when(inventoryService.getInventoryPage(1L, 2L, null, 2)).thenReturn(new InventoryPageDTO(List.of(product(3L)), null));
+
+        List<ProductDTO> products = reactiveInventoryService.streamInventory(1L, null).collectList().block();
+
+        assertThat(products).extracting(ProductDTO::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void streamInventory_shouldServeCachedStoreWithoutQuerying() {
+        cacheManager.getCache(InventoryCacheWriter.CACHE_NAME).put(1L, List.of(product(1L), product(2L)));
+
+        List<ProductDTO> products = reactiveInventoryService.streamInventory(1L, null).collectList().block();
+
+        assertThat(products).extracting(ProductDTO::getId).containsExactly(1L, 2L);
+        verify(inventoryService, never()).getInventoryPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getInventories_shouldKeepRequestedOrderAndLoadOnlyMisses() {
+        cacheManager.getCache(InventoryCacheWriter.CACHE_NAME).put(1L, List.of(product(10L)));
+        when(inventoryService.getInventoryByStore(2L)).thenReturn(List.of(product(20L)));
+
+        List<StoreInventoryDTO> inventories = reactiveInventoryService.getInventories(List.of(2L, 1L, 2L), 4).collectList().block();
+
+        assertThat(inventories).extracting(StoreInventoryDTO::getStoreId).containsExactly(2L, 1L);
+        assertThat(inventories.get(0).getProducts()).extracting(ProductDTO::getId).containsExactly(20L);
+        verify(inventoryService, never()).getInventoryByStore(1L);
+    }
+
+    private static ProductDTO product(Long id) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
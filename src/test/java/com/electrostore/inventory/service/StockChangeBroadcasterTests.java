@@ -0,0 +1,153 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StockChangeBroadcasterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RecordingEmitter next;
+    private StockChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void publish_shouldCoalesceChangesOfTheSameSkuWhileTheClientIsBusy() throws Exception {
+        broadcaster = broadcaster(10);
+        RecordingEmitter emitter = subscribe(5L, null, true);
+        assertThat(emitter.take()).contains("event:ready");
+
+        // El envio de "ready" sigue bloqueado: los cambios quedan en el buffer
+        broadcaster.publish(5L, 16L, "ADJUST", 4, 1);
+        broadcaster.publish(5L, 17L, "ADJUST", 5, -1);
+        broadcaster.publish(4L, 12L, "ADJUST", 23, 1); // otra sucursal: no se recibe
+        broadcaster.publish(5L, 16L, "ADJUST", 7, 3);
+        emitter.release();
+
+        assertThat(emitter.take()).contains("event:stock").contains("productId=17").contains("delta=-1");
+        assertThat(emitter.take()).contains("event:stock").contains("productId=16").contains("quantity=7").contains("delta=4");
+        assertThat(emitter.poll()).isNull();
+        assertThat(meterRegistry.counter("inventory.sse.events", "result", "coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_shouldDropThePendingChangesAndResetWhenTheBufferOverflows() throws Exception {
+        broadcaster = broadcaster(2);
+        RecordingEmitter emitter = subscribe(5L, null, true);
+        assertThat(emitter.take()).contains("event:ready");
+
+        broadcaster.publish(5L, 16L, "ADJUST", 4, 1);
+        broadcaster.publish(5L, 17L, "ADJUST", 5, -1);
+        broadcaster.publish(5L, 3L, "ADJUST", 12, 2);
+        emitter.release();
+
+        assertThat(emitter.take()).contains("event:reset").contains(StockChangeBroadcaster.RESET_OVERFLOW);
+        assertThat(emitter.take()).contains("event:stock").contains("productId=3");
+        assertThat(emitter.poll()).isNull();
+        assertThat(meterRegistry.counter("inventory.sse.events", "result", "dropped").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("inventory.sse.resets").count()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_shouldReplayFromTheResumePointBeforeLiveChanges() throws Exception {
+        broadcaster = broadcaster(10);
+        String first = subscribe(5L, null, false).take();
+        String resumeFrom = eventId(first);
+
+        broadcaster.publish(5L, 16L, "ADJUST", 4, 1);
+        broadcaster.publish(5L, 17L, "ADJUST", 5, -1);
+        RecordingEmitter resumed = subscribe(5L, resumeFrom, false);
+        broadcaster.publish(5L, 3L, "ADJUST", 12, 2);
+
+        // "ready" conserva el punto de reanudacion: los cambios repetidos llegan despues con ids mayores
+        String ready = resumed.take();
+        assertThat(ready).contains("event:ready");
+        assertThat(eventId(ready)).isEqualTo(resumeFrom);
+        assertThat(resumed.take()).contains("productId=16");
+        assertThat(resumed.take()).contains("productId=17");
+        assertThat(resumed.take()).contains("productId=3");
+        assertThat(resumed.poll()).isNull();
+
+        RecordingEmitter stale = subscribe(5L, "1-1", false);
+        assertThat(stale.take()).contains("event:reset").contains(StockChangeBroadcaster.RESET_RESUME_UNAVAILABLE);
+        assertThat(eventId(stale.take())).isNotEqualTo("1-1");
+    }
+
+    private StockChangeBroadcaster broadcaster(int bufferSize) {
+        return new StockChangeBroadcaster(meterRegistry, 100, bufferSize, 10, Duration.ofMinutes(30)) {
+            @Override
+            SseEmitter newEmitter() {
+                return next;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(Long storeId, String lastEventId, boolean blockFirstSend) {
+        next = new RecordingEmitter(blockFirstSend);
+        assertThat(broadcaster.subscribe(storeId, null, lastEventId)).isSameAs(next);
+        return next;
+    }
+
+    private static String eventId(String event) {
+        return event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3).trim();
+    }
+
+    // Guarda cada evento como texto; si se pide, el primer envio queda bloqueado hasta release() (cliente lento)
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch gate;
+        private boolean first = true;
+
+        RecordingEmitter(boolean blockFirstSend) {
+            this.gate = new CountDownLatch(blockFirstSend ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            if (event.toString().startsWith(":")) {
+                return; // heartbeat
+            }
+            events.add(event.toString());
+            if (first) {
+                first = false;
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        String take() throws InterruptedException {
+            String event = events.poll(10, TimeUnit.SECONDS);
+            assertThat(event).as("evento SSE").isNotNull();
+            return event;
+        }
+
+        String poll() throws InterruptedException {
+            return events.poll(200, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.electrostore.inventory.dto.StockAtDTO;
+import com.electrostore.inventory.dto.StockLedgerPageDTO;
+import com.electrostore.inventory.exception.LedgerHistoryUnavailableException;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:stock-ledger", "spring.kafka.listener.auto-startup=false"})
+public class StockLedgerTests {
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void stockAt_shouldReplayMovementsFromTheNearestSnapshot() throws Exception {
+        // Sucursal Este (4): 12 -> 22, 13 -> 11, 15 -> 4 en la foto inicial
+        Instant t0 = tick();
+        inventoryService.adjustProductStock(4L, 12L, 3);
+        Instant t1 = tick();
+        inventoryService.applyStockUpdate(4L, 13L, 20);
+        Instant t2 = tick();
+        inventoryService.deleteProductFromStore(4L, 15L);
+        Instant t3 = tick();
+
+        assertThat(stockLedger.stockAt(4L, 12L, t0).getQuantities()).containsExactly(Map.entry(12L, 22));
+        StockAtDTO atT1 = stockLedger.stockAt(4L, null, t1);
+        assertThat(atT1.getQuantities()).containsEntry(12L, 25).containsEntry(13L, 11).containsEntry(15L, 4);
+        assertThat(atT1.getReplayedEntries()).isEqualTo(1);
+
+        StockAtDTO atT3 = stockLedger.stockAt(4L, null, t3);
+        assertThat(atT3.getQuantities()).containsEntry(12L, 25).containsEntry(13L, 20).doesNotContainKey(15L);
+
+        // Con una foto en t2 solo se reaplica el borrado posterior
+        assertThat(stockLedger.snapshot(4L, t2)).isTrue();
+        StockAtDTO fromSnapshot = stockLedger.stockAt(4L, null, t3);
+        assertThat(fromSnapshot.getSnapshotAt()).isEqualTo(t2);
+        assertThat(fromSnapshot.getReplayedEntries()).isEqualTo(1);
+        assertThat(fromSnapshot.getQuantities()).isEqualTo(atT3.getQuantities());
+        assertThat(stockLedger.stockAt(4L, 13L, t1).getQuantities()).containsExactly(Map.entry(13L, 11));
+
+        assertThatThrownBy(() -> stockLedger.stockAt(4L, null, Instant.EPOCH))
+            .isInstanceOf(LedgerHistoryUnavailableException.class);
+    }
+
+    @Test
+    void movements_shouldPageThroughTheIntervalInOrder() throws Exception {
+        // Sucursal Sur (3), producto 4
+        Instant from = tick();
+        inventoryService.adjustProductStock(3L, 4L, 5);
+        inventoryService.adjustProductStock(3L, 4L, -2);
+        inventoryService.applyStockUpdate(3L, 4L, 1);
+        Instant to = tick();
+        inventoryService.adjustProductStock(3L, 4L, 1); // fuera del intervalo
+
+        StockLedgerPageDTO first = stockLedger.movements(3L, 4L, from, to, null, 2);
+        assertThat(first.getItems()).extracting("delta").containsExactly(5, -2);
+        assertThat(first.getItems()).extracting("actor").containsOnly("system");
+        assertThat(first.getNextAfterSequence()).isNotNull();
+
+        StockLedgerPageDTO second = stockLedger.movements(3L, 4L, from, to, first.getNextAfterSequence(), 2);
+        assertThat(second.getItems()).extracting("action").containsExactly("UPDATE_STOCK");
+        assertThat(second.getItems().get(0).getQuantity()).isEqualTo(1);
+        assertThat(second.getNextAfterSequence()).isNull();
+    }
+
+    @Test
+    void initialSnapshots_shouldKeepMovementsRecordedBeforeTheReadButCommittedAfter() throws Exception {
+        // Sucursal Centro Comercial (6) sin foto; Consola Xbox Series X (14): 8 unidades
+        jdbcTemplate.update("DELETE FROM STOCK_SNAPSHOT_ITEM WHERE SNAPSHOT_ID IN (SELECT ID FROM STOCK_SNAPSHOT WHERE STORE_ID = 6)");
+        jdbcTemplate.update("DELETE FROM STOCK_SNAPSHOT WHERE STORE_ID = 6");
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CompletableFuture<Void> inFlight = CompletableFuture.runAsync(() ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE PRODUCT SET QUANTITY = 30 WHERE STORE_ID = 6 AND ID = 14");
+                stockLedger.record(new InventoryChangeEvent(this, 14L, 6L, "UPDATE_STOCK", 30, 22));
+                written.countDown();
+                try {
+                    snapshotTaken.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // La foto lee PRODUCT sin el cambio, que se confirma despues con RECORDED_AT anterior a la lectura
+        stockLedger.initialSnapshots();
+        snapshotTaken.countDown();
+        inFlight.get(10, TimeUnit.SECONDS);
+
+        assertThat(stockLedger.stockAt(6L, 14L, Instant.now()).getQuantities()).containsExactly(Map.entry(14L, 30));
+    }
+
+    // Separa los movimientos en el tiempo para que cada momento consultado caiga entre dos de ellos
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Thread.sleep(5);
+        return now;
+    }
+}
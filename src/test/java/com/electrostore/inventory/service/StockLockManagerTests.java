@@ -0,0 +1,91 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.electrostore.inventory.model.ProductId;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StockLockManagerTests {
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+
+    @Test
+    void stripeCount_shouldBeBoundedPowerOfTwo() {
+        StockLockManager manager = new StockLockManager(new SimpleMeterRegistry(), 100);
+        assertThat(manager.getStripeCount()).isEqualTo(128);
+        for (long id = 0; id < 10_000; id++) {
+            assertThat(manager.stripeIndex(new ProductId(id, id % 7))).isBetween(0, 127);
+        }
+    }
+
+    @Test
+    void hotSku_shouldBeMutuallyExclusiveUnderContention() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockLockManager manager = new StockLockManager(registry, 16);
+        ProductId hotSku = new ProductId(3L, 1L);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        int[] stock = {0}; // sin sincronizacion propia: solo el lock la protege
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    manager.withLock(hotSku, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        int current = stock[0];
+                        Thread.yield(); // amplia la ventana de carrera de read-modify-write
+                        stock[0] = current + 1;
+                        inside.decrementAndGet();
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(stock[0]).isEqualTo(THREADS * OPERATIONS_PER_THREAD);
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(registry.timer("inventory.lock.wait").count()).isEqualTo((long) THREADS * OPERATIONS_PER_THREAD);
+        assertThat(registry.timer("inventory.lock.hold").count()).isEqualTo((long) THREADS * OPERATIONS_PER_THREAD);
+        assertThat(registry.timer("inventory.lock.contention").count()).isPositive();
+    }
+
+    @Test
+    void withLock_shouldReleaseLockWhenActionFails() throws Exception {
+        StockLockManager manager = new StockLockManager(new SimpleMeterRegistry(), 1);
+        ProductId sku = new ProductId(1L, 1L);
+        try {
+            manager.withLock(sku, () -> {
+                throw new IllegalStateException("fallo");
+            });
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+        // Otro hilo debe poder tomar el lock: si no se libero, el get expira
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        Integer result = other.submit(() -> manager.withLock(sku, () -> 42)).get(5, TimeUnit.SECONDS);
+        other.shutdown();
+        assertThat(result).isEqualTo(42);
+    }
+}
@@ -0,0 +1,122 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.electrostore.inventory.dto.ReservationDTO;
+import com.electrostore.inventory.exception.InsufficientStockException;
+import com.electrostore.inventory.exception.ReservationNotFoundException;
+import com.electrostore.inventory.repository.ProductRepository;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:stock-reservations", "spring.kafka.listener.auto-startup=false",
+    "inventory.reservations.tick=PT0.1S"})
+public class StockReservationsTests {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockReservations stockReservations;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void reserve_shouldNeverOversellAHotProductUnderContention() throws Exception {
+        // Nintendo Switch OLED (18) en la sucursal 6: 12 unidades
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<ReservationDTO> held = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        held.add(inventoryService.reserveStock(6L, 18L, 1, null));
+                    } catch (InsufficientStockException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(held).hasSize(12);
+        assertThat(rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - 12);
+        assertThat(inventoryService.getAvailableToSell(6L, 18L)).isZero();
+        assertThat(productRepository.findQuantity(6L, 18L)).isEqualTo(12);
+
+        ReservationDTO confirmed = held.poll();
+        assertThat(inventoryService.confirmReservation(confirmed.getId())).isEqualTo(11);
+        inventoryService.releaseReservation(held.poll().getId());
+        assertThat(inventoryService.getAvailableToSell(6L, 18L)).isEqualTo(1);
+        assertThatThrownBy(() -> inventoryService.confirmReservation(confirmed.getId()))
+            .isInstanceOf(ReservationNotFoundException.class);
+    }
+
+    @Test
+    void expire_shouldReturnUnitsOfReservationsPastTheirTtl() throws Exception {
+        // Camara Canon EOS R10 (15) en la sucursal 6: 5 unidades
+        ReservationDTO shortHold = inventoryService.reserveStock(6L, 15L, 3, Duration.ofMillis(20));
+        ReservationDTO longHold = inventoryService.reserveStock(6L, 15L, 1, Duration.ofMinutes(5));
+        assertThat(inventoryService.getAvailableToSell(6L, 15L)).isEqualTo(1);
+
+        Thread.sleep(300); // tick de 100 ms: se vence a mas tardar en el tick siguiente al plazo
+        stockReservations.expire();
+        assertThat(inventoryService.getAvailableToSell(6L, 15L)).isEqualTo(4);
+        assertThatThrownBy(() -> inventoryService.releaseReservation(shortHold.getId()))
+            .isInstanceOf(ReservationNotFoundException.class);
+
+        // Un cambio de stock confirmado se refleja en lo disponible para vender
+        inventoryService.adjustProductStock(6L, 15L, -2);
+        assertThat(inventoryService.getAvailableToSell(6L, 15L)).isEqualTo(2);
+        inventoryService.releaseReservation(longHold.getId());
+        assertThat(inventoryService.getAvailableToSell(6L, 15L)).isEqualTo(3);
+    }
+
+    @Test
+    void adjust_shouldNotSellUnitsHeldByReservationsAndForgetReleasedSkus() {
+        // Notebook Lenovo (2) en la sucursal 6: 7 unidades
+        int tracked = stockReservations.trackedSkus();
+        ReservationDTO hold = inventoryService.reserveStock(6L, 2L, 5, null);
+        assertThat(stockReservations.trackedSkus()).isEqualTo(tracked + 1);
+
+        assertThatThrownBy(() -> inventoryService.adjustProductStock(6L, 2L, -3))
+            .isInstanceOf(InsufficientStockException.class);
+        assertThat(productRepository.findQuantity(6L, 2L)).isEqualTo(7);
+        assertThat(inventoryService.adjustProductStock(6L, 2L, -2)).isEqualTo(5);
+
+        // La confirmacion descuenta sus propias unidades aunque todo el stock este reservado
+        assertThat(inventoryService.confirmReservation(hold.getId())).isZero();
+        assertThat(stockReservations.trackedSkus()).isEqualTo(tracked);
+        assertThat(inventoryService.getAvailableToSell(6L, 2L)).isZero();
+
+        assertThatThrownBy(() -> inventoryService.reserveStock(6L, 2L, 1, null))
+            .isInstanceOf(InsufficientStockException.class);
+        assertThat(stockReservations.trackedSkus()).isEqualTo(tracked);
+    }
+}
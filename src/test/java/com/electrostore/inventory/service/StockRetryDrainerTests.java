@@ -0,0 +1,69 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StockRetryDrainerTests {
+    @TempDir
+    Path dir;
+
+    @Test
+    void drain_shouldBackOffOnTransientFailureAndSkipSupersededUpdates() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockRetryLog retryLog = new StockRetryLog(dir.resolve("retry.log").toString(), false, 1 << 20);
+        InventoryService inventoryService = mock(InventoryService.class);
+        StockRetryDrainer drainer = new StockRetryDrainer(retryLog, inventoryService, new StockLockManager(registry, 16), registry,
+            2, Duration.ofMinutes(1), Duration.ofMinutes(10), 5, true);
+
+        retryLog.append(1L, 10L, 5);
+        retryLog.append(1L, 10L, 7); // solo se reintenta la ultima del SKU
+        when(inventoryService.applyStockUpdate(1L, 10L, 7))
+            .thenThrow(new DataAccessResourceFailureException("base caida"))
+            .thenReturn(true);
+
+        drainer.drain();
+        assertThat(retryLog.depth()).isEqualTo(1);
+        assertThat(registry.get("inventory.retry.depth").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("inventory.retry.replays").tag("result", "failed").counter().count()).isEqualTo(1);
+
+        // El siguiente intento espera el backoff (~1 minuto): una pasada inmediata no reintenta
+        drainer.drain();
+        verify(inventoryService, times(1)).applyStockUpdate(1L, 10L, 7);
+
+        StockRetryLog.Entry entry = retryLog.pending().get(0);
+        entry.nextAttemptAt = 0;
+        drainer.drain();
+        assertThat(retryLog.depth()).isZero();
+        assertThat(registry.get("inventory.retry.replays").tag("result", "success").counter().count()).isEqualTo(1);
+        verify(inventoryService, never()).applyStockUpdate(1L, 10L, 5);
+        drainer.shutdown();
+        retryLog.close();
+    }
+
+    @Test
+    void backoff_shouldGrowExponentiallyUpToMax() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockRetryLog retryLog = new StockRetryLog(dir.resolve("backoff.log").toString(), false, 1 << 20);
+        StockRetryDrainer drainer = new StockRetryDrainer(retryLog, mock(InventoryService.class), new StockLockManager(registry, 16),
+            registry, 1, Duration.ofSeconds(1), Duration.ofSeconds(30), 20, false);
+        assertThat(drainer.backoffMillis(1)).isBetween(800L, 1200L);
+        assertThat(drainer.backoffMillis(4)).isBetween(6400L, 9600L);
+        assertThat(drainer.backoffMillis(40)).isBetween(24_000L, 36_000L);
+        drainer.shutdown();
+        retryLog.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StockRetryLogTests {
+    @TempDir
+    Path dir;
+
+    @Test
+    void pendingUpdates_shouldSurviveRestartAndCoalescePerSku() throws IOException {
+        Path file = dir.resolve("retry.log");
+        StockRetryLog retryLog = new StockRetryLog(file.toString(), false, 1 << 20);
+        retryLog.append(1L, 10L, 5);
+        retryLog.append(1L, 10L, 8); // reemplaza a la anterior del mismo SKU
+        StockRetryLog.Entry other = retryLog.append(2L, 20L, 3);
+        retryLog.append(3L, 30L, 1);
+        retryLog.complete(other);
+        assertThat(retryLog.depth()).isEqualTo(2);
+        retryLog.close();
+
+        // Escritura cortada a mitad de registro: se descarta al arrancar
+        Files.write(file, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        StockRetryLog reopened = new StockRetryLog(file.toString(), false, 1 << 20);
+        assertThat(reopened.depth()).isEqualTo(2);
+        assertThat(reopened.pending()).extracting(StockRetryLog.Entry::getQuantity).containsExactlyInAnyOrder(8, 1);
+        assertThat(Files.size(file) % StockRetryLog.RECORD_SIZE).isZero();
+
+        // La secuencia continua despues de la mayor recuperada
+        StockRetryLog.Entry next = reopened.append(4L, 40L, 2);
+        assertThat(next.getSequence()).isEqualTo(5);
+
+        reopened.cancel(1L, 10L);
+        reopened.cancel(3L, 30L);
+        reopened.cancel(4L, 40L);
+        assertThat(reopened.depth()).isZero();
+        assertThat(Files.size(file)).isZero();
+        reopened.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.electrostore.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTests {
+    @Test
+    void advance_shouldExpireOnlyElapsedDeadlinesIncludingLaterRounds() {
+        // 8 casilleros de 10 ms: una vuelta son 80 ms
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 40);
+        wheel.schedule("c", 105); // mismo casillero que "a", una vuelta despues
+        wheel.schedule("vencido", -5);
+        List<String> expired = new ArrayList<>();
+
+        assertThat(wheel.advance(0, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("vencido");
+
+        wheel.advance(29, expired::add);
+        assertThat(expired).containsExactly("vencido");
+        wheel.advance(30, expired::add);
+        assertThat(expired).containsExactly("vencido", "a");
+
+        wheel.advance(100, expired::add);
+        assertThat(expired).containsExactly("vencido", "a", "b");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(110, expired::add);
+        assertThat(expired).containsExactly("vencido", "a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_shouldCatchUpAfterSeveralRoundsWithoutCalls() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 8, 0);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, i * 7L);
+        }
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(350, expired::add);
+        assertThat(expired).hasSize(51).allMatch(i -> i * 7L <= 350);
+        wheel.advance(10_000, expired::add);
+        assertThat(expired).hasSize(100);
+    }
+}